@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.aliyun.dysmsapi20170525.models.SendSmsRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
+import com.zhengshuyun.oksms.stub.DysmsStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 阿里云短信发送路径的开销
+ * <p>
+ * {@code mapRequest}只包含请求转换与模板变量序列化, {@code send}包含SDK签名与到本地桩的HTTP往返.
+ * 配合{@code -prof gc}查看每次发送的分配量.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AliyunSmsClientBenchmark {
+
+    @Param({"1", "100"})
+    private int phoneNumbers;
+
+    private DysmsStubServer server;
+
+    private AliyunSmsClient client;
+
+    private AliyunSmsSendRequest request;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new DysmsStubServer();
+
+        AliyunSmsClientConfig config = new AliyunSmsClientConfig();
+        config.setAccessKeyId("benchmark");
+        config.setAccessKeySecret("benchmark");
+        config.setEndpoint(server.getEndpoint());
+        config.setProtocol("http");
+        client = new AliyunSmsClient(config);
+
+        List<String> numbers = new ArrayList<>(phoneNumbers);
+        for (int i = 0; i < phoneNumbers; i++) {
+            numbers.add(String.valueOf(13800000000L + i));
+        }
+        request = new AliyunSmsSendRequest();
+        request.setPhoneNumbers(numbers);
+        request.setSignName("阿里云短信测试");
+        request.setTemplateCode("SMS_154950909");
+        request.setTemplateParam(Map.of("code", "123456", "product", "oksms"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public SendSmsRequest mapRequest() {
+        return AliyunSmsClient.toSendSmsRequest(request);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public AliyunSmsSendResponse send() {
+        return client.send(request);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.zhengshuyun.oktool.core.util.JacksonUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板变量序列化: Jackson与{@link TemplateParamSerializer}的对比
+ * <p>
+ * {@code otp*}每次发送新建一个验证码Map, {@code broadcast*}重复发送同一个Map实例.
+ * 配合{@code -prof gc}比较gc.alloc.rate.norm(每次操作的分配字节数).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TemplateParamSerializerBenchmark {
+
+    private Map<String, Object> broadcast;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        broadcast = new LinkedHashMap<>();
+        broadcast.put("name", "张三");
+        broadcast.put("product", "oksms");
+        broadcast.put("amount", 100);
+        broadcast.put("date", "2025-01-01");
+    }
+
+    @Benchmark
+    public String otpJackson() {
+        return JacksonUtil.writeValueAsString(Map.of("code", nextCode()));
+    }
+
+    @Benchmark
+    public String otpSerializer() {
+        return TemplateParamSerializer.write(Map.of("code", nextCode()));
+    }
+
+    @Benchmark
+    public String broadcastJackson() {
+        return JacksonUtil.writeValueAsString(broadcast);
+    }
+
+    @Benchmark
+    public String broadcastSerializer() {
+        return TemplateParamSerializer.write(broadcast);
+    }
+
+    private String nextCode() {
+        return Integer.toString(1000 + (counter++ & 8191));
+    }
+}
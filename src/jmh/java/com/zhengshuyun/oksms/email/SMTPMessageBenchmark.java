@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email;
+
+import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.email.model.MailSendRequest;
+import com.zhengshuyun.oksms.email.model.MailSendResponse;
+import com.zhengshuyun.oksms.stub.SmtpStubServer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.util.ByteArrayDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 邮件构建与发送路径的开销
+ * <p>
+ * {@code build}包含{@link SMTPMessage}构造、正文与附件组装, {@code buildAndWrite}额外包含MIME编码输出,
+ * {@code send}通过连接池发送到本地SMTP桩.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SMTPMessageBenchmark {
+
+    private static final String CONTENT = "<html><body><h1>oksms</h1><p>验证码: 123456, 5分钟内有效.</p></body></html>";
+
+    /**
+     * 附件大小(字节), 0表示无附件
+     */
+    @Param({"0", "65536", "1048576"})
+    private int attachmentSize;
+
+    private SmtpStubServer server;
+
+    private MailClientConfig config;
+
+    private MailClient client;
+
+    private MailSendRequest request;
+
+    private byte[] attachment;
+
+    @Setup
+    public void setup() throws IOException {
+        server = new SmtpStubServer();
+
+        config = new MailClientConfig();
+        config.setHost("127.0.0.1");
+        config.setPort(server.getPort());
+        config.setFrom("oksms <benchmark@localhost>");
+        config.setAuth(false);
+        config.setUseGlobalSession(true);
+        client = new MailClient(config);
+
+        request = new MailSendRequest();
+        request.setTos(List.of("receiver@localhost"));
+        request.setSubject("oksms benchmark");
+        request.setContent(CONTENT);
+        request.setHtml(true);
+
+        attachment = new byte[attachmentSize];
+        new Random(0).nextBytes(attachment);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Benchmark
+    public SMTPMessage build() {
+        return buildMessage();
+    }
+
+    @Benchmark
+    public SMTPMessage buildAndWrite() throws IOException, MessagingException {
+        SMTPMessage message = buildMessage();
+        message.saveChanges();
+        message.writeTo(OutputStream.nullOutputStream());
+        return message;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public MailSendResponse send() {
+        return client.send(request);
+    }
+
+    private SMTPMessage buildMessage() {
+        SMTPMessage message = SMTPMessage.of(config, true, null)
+                .setTitle("oksms benchmark")
+                .setTos("receiver@localhost")
+                .setContent(CONTENT, true);
+        if (attachmentSize > 0) {
+            ByteArrayDataSource dataSource = new ByteArrayDataSource(attachment, "application/octet-stream");
+            dataSource.setName("report.bin");
+            message.addAttachments(dataSource);
+        }
+        return message;
+    }
+}
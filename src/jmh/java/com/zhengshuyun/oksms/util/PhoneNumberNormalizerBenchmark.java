@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 号码拼接: 原样拼接与{@link PhoneNumberNormalizer}规范化去重后拼接的对比
+ * <p>
+ * 号码以+86、0086与无前缀三种写法混合, {@code distinct}为其中不同号码的数量.
+ * 配合{@code -prof gc}比较gc.alloc.rate.norm(每次操作的分配字节数).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PhoneNumberNormalizerBenchmark {
+
+    @Param({"1000", "400"})
+    private int distinct;
+
+    private List<String> phoneNumbers;
+
+    @Setup
+    public void setup() {
+        phoneNumbers = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            String phoneNumber = String.valueOf(13800000000L + i % distinct);
+            phoneNumbers.add(switch (i % 3) {
+                case 0 -> "+86" + phoneNumber;
+                case 1 -> "0086" + phoneNumber;
+                default -> phoneNumber;
+            });
+        }
+    }
+
+    @Benchmark
+    public String join() {
+        return String.join(",", phoneNumbers);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return PhoneNumberNormalizer.normalize(phoneNumbers).join();
+    }
+}
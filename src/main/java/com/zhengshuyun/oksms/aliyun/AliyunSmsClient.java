@@ -16,64 +16,210 @@
 
 package com.zhengshuyun.oksms.aliyun;
 
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsBatchRecipient;
 import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendBatchRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendBatchResponse;
 import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
 import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
+import com.zhengshuyun.oksms.breaker.CircuitBreaker;
+import com.zhengshuyun.oksms.breaker.CircuitBreakerOpenException;
+import com.zhengshuyun.oksms.dedup.SmsDeduplicator;
+import com.zhengshuyun.oksms.metrics.SmsMetrics;
+import com.zhengshuyun.oksms.ratelimit.SmsRateLimitException;
+import com.zhengshuyun.oksms.ratelimit.SmsRateLimiter;
+import com.zhengshuyun.oksms.retry.SmsRetryPolicy;
+import com.zhengshuyun.oksms.sender.SmsSender;
+import com.zhengshuyun.oksms.sender.model.SmsSendRequest;
+import com.zhengshuyun.oksms.sender.model.SmsSendResponse;
+import com.zhengshuyun.oksms.util.PhoneNumberNormalizer;
+import com.zhengshuyun.oksms.util.SmsExecutor;
 import com.zhengshuyun.oktool.core.util.Assert;
 import com.zhengshuyun.oktool.core.util.JacksonUtil;
 import com.aliyun.dysmsapi20170525.Client;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsRequest;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsResponseBody;
+import com.aliyun.dysmsapi20170525.models.SendBatchSmsRequest;
+import com.aliyun.dysmsapi20170525.models.SendBatchSmsResponseBody;
 import com.aliyun.dysmsapi20170525.models.SendSmsRequest;
 import com.aliyun.dysmsapi20170525.models.SendSmsResponse;
 import com.aliyun.dysmsapi20170525.models.SendSmsResponseBody;
+import com.aliyun.tea.TeaException;
 import com.aliyun.teaopenapi.models.Config;
 import cn.hutool.v7.core.map.MapUtil;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 
 /**
  * 阿里云短信
  */
-public class AliyunSmsClient {
+public class AliyunSmsClient implements SmsSender, AutoCloseable {
 
-    private final Client client;
+    /**
+     * SendSms单次请求的最大号码数
+     */
+    public static final int SEND_LIMIT = 1000;
+
+    /**
+     * SendBatchSms单次请求的最大号码数
+     */
+    public static final int BATCH_LIMIT = 100;
+
+    /**
+     * 主域名与备用域名, 依次选择第一个未熔断的域名
+     */
+    private final Route[] routes;
+
+    /**
+     * 异步发送的并发许可
+     */
+    private final Semaphore inFlight;
+
+    private final int batchParallelism;
+
+    private final boolean phoneNumberNormalizeEnable;
+
+    /**
+     * 单次请求的最长耗时(毫秒), 连接超时与读取超时之和
+     */
+    private final long attemptTimeout;
+
+    private volatile SmsRateLimiter rateLimiter;
+
+    private volatile SmsDeduplicator deduplicator;
+
+    private volatile SmsRetryPolicy retryPolicy;
 
     public AliyunSmsClient(AliyunSmsClientConfig aliyunSmsClientConfig) {
+        this(aliyunSmsClientConfig, Client::new);
+    }
+
+    /**
+     * @param clientFactory 按域名配置创建Dysms客户端
+     */
+    AliyunSmsClient(AliyunSmsClientConfig aliyunSmsClientConfig, ClientFactory clientFactory) {
         Assert.notNull(aliyunSmsClientConfig, "阿里云短信配置不能为空");
 
-        Config config = new Config();
-        config.setAccessKeyId(aliyunSmsClientConfig.getAccessKeyId());
-        config.setAccessKeySecret(aliyunSmsClientConfig.getAccessKeySecret());
-        config.setEndpoint(aliyunSmsClientConfig.getEndpoint());
-        config.setRegionId(aliyunSmsClientConfig.getRegionId());
-        config.setReadTimeout(aliyunSmsClientConfig.getReadTimeout());
-        config.setConnectTimeout(aliyunSmsClientConfig.getConnectTimeout());
+        inFlight = new Semaphore(Math.max(1, aliyunSmsClientConfig.getMaxInFlight()));
+        batchParallelism = Math.max(1, aliyunSmsClientConfig.getBatchParallelism());
+        phoneNumberNormalizeEnable = aliyunSmsClientConfig.isPhoneNumberNormalizeEnable();
+        attemptTimeout = (long) aliyunSmsClientConfig.getConnectTimeout() + aliyunSmsClientConfig.getReadTimeout();
 
-        try {
-            client = new Client(config);
-        } catch (Exception e) {
-            throw new RuntimeException("阿里云短信客户端初始化失败: " + e.getMessage(), e);
+        List<String> endpoints = new ArrayList<>();
+        endpoints.add(aliyunSmsClientConfig.getEndpoint());
+        // 不熔断时备用域名不会被使用
+        if (aliyunSmsClientConfig.getCircuitBreaker() != null && aliyunSmsClientConfig.getFallbackEndpoints() != null) {
+            for (String endpoint : aliyunSmsClientConfig.getFallbackEndpoints()) {
+                if (!endpoints.contains(endpoint)) {
+                    endpoints.add(endpoint);
+                }
+            }
+        }
+        routes = new Route[endpoints.size()];
+        for (int i = 0; i < routes.length; i++) {
+            String endpoint = endpoints.get(i);
+            Config config = new Config();
+            config.setAccessKeyId(aliyunSmsClientConfig.getAccessKeyId());
+            config.setAccessKeySecret(aliyunSmsClientConfig.getAccessKeySecret());
+            config.setEndpoint(endpoint);
+            config.setRegionId(aliyunSmsClientConfig.getRegionId());
+            config.setReadTimeout(aliyunSmsClientConfig.getReadTimeout());
+            config.setConnectTimeout(aliyunSmsClientConfig.getConnectTimeout());
+            config.setProtocol(aliyunSmsClientConfig.getProtocol());
+
+            try {
+                routes[i] = new Route(clientFactory.create(config), aliyunSmsClientConfig.getCircuitBreaker() == null
+                        ? null
+                        : new CircuitBreaker(endpoint, aliyunSmsClientConfig.getCircuitBreaker()));
+            } catch (Exception e) {
+                throw new RuntimeException("阿里云短信客户端初始化失败: " + e.getMessage(), e);
+            }
         }
     }
 
     /**
      * 发送短信
+     * <p>
+     * 启用号码规范化时, 同一号码的不同写法(如+86、0086前缀)只发送一次, 格式错误的号码抛出{@link IllegalArgumentException},
+     * 号码数上限按去重后的数量计算.
      */
     public AliyunSmsSendResponse send(AliyunSmsSendRequest aliyunSmsSendRequest) {
-        String phoneNumbers = String.join(",", aliyunSmsSendRequest.getPhoneNumbers());
+        List<String> phoneNumbers = aliyunSmsSendRequest.getPhoneNumbers();
+        String joinedPhoneNumbers = null;
+        if (phoneNumberNormalizeEnable) {
+            PhoneNumberNormalizer.Result normalized = PhoneNumberNormalizer.normalize(phoneNumbers);
+            if (normalized.size() > SEND_LIMIT) {
+                throw new IllegalArgumentException("手机号码数量超过上限" + SEND_LIMIT + ", 请使用sendBatch分批发送");
+            }
+            joinedPhoneNumbers = normalized.join();
+            // 频率限制按规范化后的号码计数
+            if (rateLimiter != null) {
+                phoneNumbers = normalized.toList();
+            }
+        } else if (phoneNumbers.size() > SEND_LIMIT) {
+            throw new IllegalArgumentException("手机号码数量超过上限" + SEND_LIMIT + ", 请使用sendBatch分批发送");
+        }
+        SendSmsRequest sendSmsRequest = toSendSmsRequest(aliyunSmsSendRequest, joinedPhoneNumbers);
 
+        SmsDeduplicator deduplicator = this.deduplicator;
+        long fingerprint = 0;
+        if (deduplicator != null) {
+            fingerprint = SmsDeduplicator.fingerprint(sendSmsRequest.getPhoneNumbers(), sendSmsRequest.getSignName(),
+                    sendSmsRequest.getTemplateCode(), sendSmsRequest.getTemplateParam());
+            String bizId = deduplicator.claim(fingerprint, pendingTimeout());
+            if (bizId != null) {
+                AliyunSmsSendResponse aliyunSmsSendResponse = new AliyunSmsSendResponse();
+                aliyunSmsSendResponse.setBizId(bizId);
+                aliyunSmsSendResponse.setCode("OK");
+                aliyunSmsSendResponse.setMessage("重复请求, 返回首次发送结果");
+                return aliyunSmsSendResponse;
+            }
+        }
+
+        boolean sent = false;
         try {
-            SendSmsRequest sendSmsRequest = new SendSmsRequest();
-            sendSmsRequest.setPhoneNumbers(phoneNumbers);
-            sendSmsRequest.setSignName(aliyunSmsSendRequest.getSignName());
-            sendSmsRequest.setTemplateCode(aliyunSmsSendRequest.getTemplateCode());
-
-            Map<String, Object> templateParam = aliyunSmsSendRequest.getTemplateParam();
-            if (MapUtil.isNotEmpty(templateParam)) {
-                sendSmsRequest.setTemplateParam(JacksonUtil.writeValueAsString(templateParam));
+            acquire(phoneNumbers, aliyunSmsSendRequest.getTemplateCode());
+
+            SmsRetryPolicy retryPolicy = this.retryPolicy;
+            AliyunSmsSendResponse aliyunSmsSendResponse = retryPolicy == null
+                    ? sendSms(sendSmsRequest)
+                    : retryPolicy.execute(SmsExecutor.ALIYUN, sendSmsRequest.getTemplateCode(), () -> sendSms(sendSmsRequest),
+                    AliyunSmsSendResponse::getCode, AliyunSmsClient::errorCode);
+            if (deduplicator != null && "OK".equals(aliyunSmsSendResponse.getCode())) {
+                deduplicator.complete(fingerprint, aliyunSmsSendResponse.getBizId());
+                sent = true;
+            }
+            return aliyunSmsSendResponse;
+        } finally {
+            // 未成功发送时移除登记, 允许重试
+            if (deduplicator != null && !sent) {
+                deduplicator.cancel(fingerprint);
             }
+        }
+    }
 
-            SendSmsResponse sendSmsResponse = client.sendSms(sendSmsRequest);
+    /**
+     * 重复请求等待首次发送完成的时间, 覆盖首次发送含重试的最长耗时
+     */
+    private long pendingTimeout() {
+        SmsRetryPolicy retryPolicy = this.retryPolicy;
+        return retryPolicy == null ? attemptTimeout : retryPolicy.getMaxDuration(attemptTimeout);
+    }
+
+    private AliyunSmsSendResponse sendSms(SendSmsRequest sendSmsRequest) {
+        long start = System.nanoTime();
+        String outcome = SmsMetrics.EXCEPTION;
+        try {
+            SendSmsResponse sendSmsResponse = invoke(client -> client.sendSms(sendSmsRequest), response -> response.getBody().getCode());
             SendSmsResponseBody responseBody = sendSmsResponse.getBody();
+            outcome = responseBody.getCode();
 
             AliyunSmsSendResponse aliyunSmsSendResponse = new AliyunSmsSendResponse();
             aliyunSmsSendResponse.setBizId(responseBody.getBizId());
@@ -83,6 +229,324 @@ public class AliyunSmsClient {
             return aliyunSmsSendResponse;
         } catch (Exception e) {
             throw new RuntimeException("阿里云短信发送失败: " + e.getMessage(), e);
+        } finally {
+            record(sendSmsRequest.getTemplateCode(), outcome, start);
         }
     }
+
+    @Override
+    public String getName() {
+        return SmsExecutor.ALIYUN;
+    }
+
+    /**
+     * 以通用请求模型发送短信
+     */
+    @Override
+    public SmsSendResponse send(SmsSendRequest smsSendRequest) {
+        AliyunSmsSendRequest aliyunSmsSendRequest = new AliyunSmsSendRequest();
+        aliyunSmsSendRequest.setPhoneNumbers(smsSendRequest.getPhoneNumbers());
+        aliyunSmsSendRequest.setSignName(smsSendRequest.resolveSignName(getName()));
+        aliyunSmsSendRequest.setTemplateCode(smsSendRequest.resolveTemplateCode(getName()));
+        aliyunSmsSendRequest.setTemplateParam(smsSendRequest.getTemplateParam());
+
+        AliyunSmsSendResponse aliyunSmsSendResponse = send(aliyunSmsSendRequest);
+
+        SmsSendResponse smsSendResponse = new SmsSendResponse();
+        smsSendResponse.setProvider(getName());
+        smsSendResponse.setSuccess("OK".equals(aliyunSmsSendResponse.getCode()));
+        smsSendResponse.setCode(aliyunSmsSendResponse.getCode());
+        smsSendResponse.setMessage(aliyunSmsSendResponse.getMessage());
+        smsSendResponse.setBizId(aliyunSmsSendResponse.getBizId());
+        smsSendResponse.setRequestId(aliyunSmsSendResponse.getRequestId());
+        return smsSendResponse;
+    }
+
+    /**
+     * 异步发送短信
+     * <p>
+     * 请求由{@link SmsExecutor#getInstance()}在虚拟线程中执行, 调用方线程不会阻塞, 并占用{@link SmsExecutor#ALIYUN}的服务商并发许可.
+     * 同时进行中的请求数已达{@link AliyunSmsClientConfig#getMaxInFlight()}时立即以{@link RejectedExecutionException}失败.
+     * 发送成功或失败都会完成返回的future.
+     */
+    public CompletableFuture<AliyunSmsSendResponse> sendAsync(AliyunSmsSendRequest aliyunSmsSendRequest) {
+        // 在调用方线程获取客户端许可, 排队中的任务只等待服务商许可
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("阿里云短信进行中的异步请求数已达上限"));
+        }
+        CompletableFuture<AliyunSmsSendResponse> future = SmsExecutor.getInstance()
+                .submit(SmsExecutor.ALIYUN, () -> send(aliyunSmsSendRequest));
+        future.whenComplete((response, e) -> inFlight.release());
+        return future;
+    }
+
+    /**
+     * 批量发送短信, 每个号码可使用不同的签名与模板变量
+     * <p>
+     * 超过{@link #BATCH_LIMIT}个号码时自动拆分为多次SendBatchSms请求,
+     * 以{@link AliyunSmsClientConfig#getBatchParallelism()}的并发度发送. 单次请求失败不影响其他请求.
+     */
+    public AliyunSmsSendBatchResponse sendBatch(AliyunSmsSendBatchRequest aliyunSmsSendBatchRequest) {
+        Assert.notNull(aliyunSmsSendBatchRequest, "批量发送请求不能为空");
+        List<AliyunSmsBatchRecipient> recipients = aliyunSmsSendBatchRequest.getRecipients();
+        Assert.notEmptyParam(recipients, "接收人");
+
+        Semaphore parallelism = new Semaphore(batchParallelism);
+        List<CompletableFuture<AliyunSmsSendResponse>> futures = new ArrayList<>((recipients.size() + BATCH_LIMIT - 1) / BATCH_LIMIT);
+        try {
+            for (int from = 0; from < recipients.size(); from += BATCH_LIMIT) {
+                List<AliyunSmsBatchRecipient> chunk = recipients.subList(from, Math.min(recipients.size(), from + BATCH_LIMIT));
+                // 在调用方线程等待许可, 避免排队中的请求占用服务商并发许可
+                parallelism.acquire();
+                CompletableFuture<AliyunSmsSendResponse> future = SmsExecutor.getInstance()
+                        .submit(SmsExecutor.ALIYUN, () -> sendBatchChunk(aliyunSmsSendBatchRequest.getTemplateCode(), chunk));
+                future.whenComplete((response, e) -> parallelism.release());
+                futures.add(future.exceptionally(AliyunSmsClient::failure));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("阿里云短信批量发送被中断", e);
+        }
+
+        AliyunSmsSendBatchResponse aliyunSmsSendBatchResponse = new AliyunSmsSendBatchResponse();
+        aliyunSmsSendBatchResponse.setChunkSize(BATCH_LIMIT);
+        aliyunSmsSendBatchResponse.setResponses(futures.stream().map(CompletableFuture::join).toList());
+        return aliyunSmsSendBatchResponse;
+    }
+
+    /**
+     * 转换为SDK请求
+     */
+    static SendSmsRequest toSendSmsRequest(AliyunSmsSendRequest aliyunSmsSendRequest) {
+        return toSendSmsRequest(aliyunSmsSendRequest, null);
+    }
+
+    /**
+     * @param phoneNumbers 已拼接的号码, 为null时按原样拼接请求中的号码
+     */
+    static SendSmsRequest toSendSmsRequest(AliyunSmsSendRequest aliyunSmsSendRequest, String phoneNumbers) {
+        SendSmsRequest sendSmsRequest = new SendSmsRequest();
+        sendSmsRequest.setPhoneNumbers(phoneNumbers != null ? phoneNumbers : String.join(",", aliyunSmsSendRequest.getPhoneNumbers()));
+        sendSmsRequest.setSignName(aliyunSmsSendRequest.getSignName());
+        sendSmsRequest.setTemplateCode(aliyunSmsSendRequest.getTemplateCode());
+
+        Map<String, Object> templateParam = aliyunSmsSendRequest.getTemplateParam();
+        if (MapUtil.isNotEmpty(templateParam)) {
+            sendSmsRequest.setTemplateParam(TemplateParamSerializer.write(templateParam));
+        }
+        return sendSmsRequest;
+    }
+
+    private AliyunSmsSendResponse sendBatchChunk(String templateCode, List<AliyunSmsBatchRecipient> chunk) {
+        List<String> phoneNumbers = new ArrayList<>(chunk.size());
+        List<String> signNames = new ArrayList<>(chunk.size());
+        List<Map<String, Object>> templateParams = new ArrayList<>(chunk.size());
+        boolean hasTemplateParam = false;
+        for (AliyunSmsBatchRecipient recipient : chunk) {
+            phoneNumbers.add(recipient.getPhoneNumber());
+            signNames.add(recipient.getSignName());
+            Map<String, Object> templateParam = recipient.getTemplateParam();
+            hasTemplateParam |= MapUtil.isNotEmpty(templateParam);
+            templateParams.add(templateParam == null ? Map.of() : templateParam);
+        }
+        acquire(phoneNumbers, templateCode);
+
+        SendBatchSmsRequest sendBatchSmsRequest = new SendBatchSmsRequest();
+        sendBatchSmsRequest.setTemplateCode(templateCode);
+        sendBatchSmsRequest.setPhoneNumberJson(JacksonUtil.writeValueAsString(phoneNumbers));
+        sendBatchSmsRequest.setSignNameJson(JacksonUtil.writeValueAsString(signNames));
+        if (hasTemplateParam) {
+            sendBatchSmsRequest.setTemplateParamJson(TemplateParamSerializer.writeAll(templateParams));
+        }
+
+        SmsRetryPolicy retryPolicy = this.retryPolicy;
+        return retryPolicy == null
+                ? sendBatchSms(sendBatchSmsRequest)
+                : retryPolicy.execute(SmsExecutor.ALIYUN, templateCode, () -> sendBatchSms(sendBatchSmsRequest),
+                AliyunSmsSendResponse::getCode, AliyunSmsClient::errorCode);
+    }
+
+    private AliyunSmsSendResponse sendBatchSms(SendBatchSmsRequest sendBatchSmsRequest) {
+        long start = System.nanoTime();
+        String outcome = SmsMetrics.EXCEPTION;
+        try {
+            SendBatchSmsResponseBody responseBody = invoke(client -> client.sendBatchSms(sendBatchSmsRequest),
+                    response -> response.getBody().getCode()).getBody();
+            outcome = responseBody.getCode();
+
+            AliyunSmsSendResponse aliyunSmsSendResponse = new AliyunSmsSendResponse();
+            aliyunSmsSendResponse.setBizId(responseBody.getBizId());
+            aliyunSmsSendResponse.setCode(responseBody.getCode());
+            aliyunSmsSendResponse.setMessage(responseBody.getMessage());
+            aliyunSmsSendResponse.setRequestId(responseBody.getRequestId());
+            return aliyunSmsSendResponse;
+        } catch (Exception e) {
+            // 由failure取出原始异常信息
+            throw new CompletionException(e);
+        } finally {
+            record(sendBatchSmsRequest.getTemplateCode(), outcome, start);
+        }
+    }
+
+    /**
+     * 查询发送详情, 供{@link AliyunSmsReceiptTracker}轮询回执
+     */
+    QuerySendDetailsResponseBody querySendDetails(QuerySendDetailsRequest querySendDetailsRequest) {
+        try {
+            return invoke(client -> client.querySendDetails(querySendDetailsRequest), response -> response.getBody().getCode()).getBody();
+        } catch (Exception e) {
+            throw new RuntimeException("阿里云短信发送详情查询失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 使用第一个未熔断的域名发起请求, 全部熔断时立即失败
+     * <p>
+     * 请求超时、网络异常与isp.*系统错误计为域名故障, 业务错误码(如号码无效、流控)不影响熔断.
+     * 已发出的请求失败时不换用备用域名, 避免重复发送.
+     */
+    private <T> T invoke(ClientCall<T> call, Function<T, String> code) throws Exception {
+        for (Route route : routes) {
+            CircuitBreaker breaker = route.breaker();
+            if (breaker == null) {
+                return call.apply(route.client());
+            }
+            if (!breaker.tryAcquire()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            boolean failure = true;
+            try {
+                T response = call.apply(route.client());
+                failure = isEndpointFailure(code.apply(response));
+                return response;
+            } catch (TeaException e) {
+                failure = e.getCode() == null || isEndpointFailure(e.getCode());
+                throw e;
+            } finally {
+                breaker.onResult(failure, System.nanoTime() - start);
+            }
+        }
+        throw new CircuitBreakerOpenException("阿里云短信所有域名均已熔断");
+    }
+
+    private static boolean isEndpointFailure(String code) {
+        return code != null && code.startsWith("isp.");
+    }
+
+    /**
+     * 取服务商返回的错误码, 如Throttling.User
+     */
+    private static String errorCode(Throwable e) {
+        return e instanceof TeaException teaException ? teaException.getCode() : null;
+    }
+
+    private void acquire(List<String> phoneNumbers, String templateCode) {
+        SmsRateLimiter rateLimiter = this.rateLimiter;
+        if (rateLimiter != null) {
+            try {
+                rateLimiter.acquire(phoneNumbers, templateCode);
+            } catch (SmsRateLimitException e) {
+                SmsMetrics.getInstance().recordRateLimited(SmsExecutor.ALIYUN);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 记录发送指标, 流控类错误码(如isv.BUSINESS_LIMIT_CONTROL)同时计入限流次数
+     */
+    private static void record(String templateCode, String outcome, long start) {
+        SmsMetrics metrics = SmsMetrics.getInstance();
+        metrics.recordSend(SmsExecutor.ALIYUN, templateCode, outcome, System.nanoTime() - start);
+        if (outcome != null && (outcome.contains("LIMIT_CONTROL") || outcome.startsWith("Throttling"))) {
+            metrics.recordThrottled(SmsExecutor.ALIYUN);
+        }
+    }
+
+    /**
+     * 是否启用号码规范化
+     */
+    boolean isPhoneNumberNormalizeEnable() {
+        return phoneNumberNormalizeEnable;
+    }
+
+    public SmsRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * 设置发送频率限制, 超出限制的请求在发起HTTP请求前抛出{@link com.zhengshuyun.oksms.ratelimit.SmsRateLimitException}
+     *
+     * @param rateLimiter 频率限制, 为null时不限制
+     */
+    public void setRateLimiter(SmsRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public SmsDeduplicator getDeduplicator() {
+        return deduplicator;
+    }
+
+    /**
+     * 设置请求去重, 去重窗口内内容相同的请求直接返回首次发送的BizId
+     *
+     * @param deduplicator 请求去重, 为null时不去重
+     */
+    public void setDeduplicator(SmsDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    public SmsRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * 设置重试策略, 临时失败(超时、系统错误、流控)按策略重试, 永久失败直接返回
+     *
+     * @param retryPolicy 重试策略, 为null时不重试
+     */
+    public void setRetryPolicy(SmsRetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    private static AliyunSmsSendResponse failure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        AliyunSmsSendResponse aliyunSmsSendResponse = new AliyunSmsSendResponse();
+        aliyunSmsSendResponse.setMessage("阿里云短信发送失败: " + cause.getMessage());
+        return aliyunSmsSendResponse;
+    }
+
+    /**
+     * 各域名的熔断器, 未启用熔断时为空
+     */
+    public List<CircuitBreaker> getCircuitBreakers() {
+        List<CircuitBreaker> breakers = new ArrayList<>(routes.length);
+        for (Route route : routes) {
+            if (route.breaker() != null) {
+                breakers.add(route.breaker());
+            }
+        }
+        return breakers;
+    }
+
+    /**
+     * Dysms客户端不持有需要释放的资源, 关闭后仍可继续使用
+     */
+    @Override
+    public void close() {
+    }
+
+    @FunctionalInterface
+    interface ClientFactory {
+        Client create(Config config) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ClientCall<T> {
+        T apply(Client client) throws Exception;
+    }
+
+    private record Route(Client client, CircuitBreaker breaker) {
+    }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import cn.hutool.v7.core.text.StrUtil;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
+import com.zhengshuyun.oksms.util.PhoneNumberNormalizer;
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 阿里云短信请求合并
+ * <p>
+ * 签名、模板与模板变量都相同的请求在{@code lingerMillis}毫秒内或累计到{@code maxNumbers}个号码时合并为一次SendSms请求,
+ * 每个调用方得到同一个BizId的响应. 适用于同一内容群发给大量号码的场景.
+ * 号码在合并前按调用方逐个校验(客户端启用规范化时同时规范化), 格式错误只影响该调用方.
+ * 合并后的请求整体成功或失败, 配置了频率限制时任一号码超出限制会导致整批失败.
+ */
+public class AliyunSmsCoalescer implements AutoCloseable {
+
+    private final AliyunSmsClient client;
+
+    private final long lingerMillis;
+
+    private final int maxNumbers;
+
+    private final ConcurrentHashMap<Key, Batch> batches = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "oksms-sms-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 最多等待5毫秒, 每批最多{@link AliyunSmsClient#SEND_LIMIT}个号码
+     *
+     * @param client 阿里云短信客户端
+     */
+    public AliyunSmsCoalescer(AliyunSmsClient client) {
+        this(client, 5, AliyunSmsClient.SEND_LIMIT);
+    }
+
+    /**
+     * @param client       阿里云短信客户端
+     * @param lingerMillis 第一个请求到达后最多等待的时间(毫秒)
+     * @param maxNumbers   每批最多的号码数, 不超过{@link AliyunSmsClient#SEND_LIMIT}
+     */
+    public AliyunSmsCoalescer(AliyunSmsClient client, long lingerMillis, int maxNumbers) {
+        Assert.notNull(client, "阿里云短信客户端不能为空");
+        if (maxNumbers <= 0 || maxNumbers > AliyunSmsClient.SEND_LIMIT) {
+            throw new IllegalArgumentException("每批号码数必须在1到" + AliyunSmsClient.SEND_LIMIT + "之间");
+        }
+        this.client = client;
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.maxNumbers = maxNumbers;
+    }
+
+    /**
+     * 提交发送请求
+     * <p>
+     * 关闭后提交的请求不再合并, 直接发送.
+     *
+     * @param aliyunSmsSendRequest 发送请求
+     * @return 合并发送的结果
+     * @throws IllegalArgumentException 号码为空或格式错误
+     */
+    public CompletableFuture<AliyunSmsSendResponse> send(AliyunSmsSendRequest aliyunSmsSendRequest) {
+        Assert.notNull(aliyunSmsSendRequest, "发送请求不能为空");
+        List<String> phoneNumbers = validate(aliyunSmsSendRequest.getPhoneNumbers());
+        if (closed || phoneNumbers.size() > maxNumbers) {
+            // 已关闭或单个请求已超过每批上限, 不参与合并
+            return client.sendAsync(aliyunSmsSendRequest);
+        }
+
+        Key key = new Key(aliyunSmsSendRequest.getSignName(), aliyunSmsSendRequest.getTemplateCode(), aliyunSmsSendRequest.getTemplateParam());
+        CompletableFuture<AliyunSmsSendResponse> future = new CompletableFuture<>();
+        while (true) {
+            Batch batch = batches.get(key);
+            if (batch == null) {
+                Batch created = new Batch(key);
+                batch = batches.putIfAbsent(key, created);
+                if (batch == null) {
+                    batch = created;
+                    try {
+                        timer.schedule(() -> flush(created), lingerMillis, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // 并发关闭, 加入后由下方的closed检查立即发送
+                    }
+                }
+            }
+            synchronized (batch) {
+                if (batch.flushed) {
+                    continue;
+                }
+                if (batch.phoneNumbers.size() + phoneNumbers.size() > maxNumbers) {
+                    flush(batch);
+                    continue;
+                }
+                batch.phoneNumbers.addAll(phoneNumbers);
+                batch.futures.add(future);
+                if (batch.phoneNumbers.size() >= maxNumbers || closed) {
+                    flush(batch);
+                }
+                return future;
+            }
+        }
+    }
+
+    /**
+     * 立即发送所有等待中的请求并停止定时器
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Batch batch : batches.values()) {
+            flush(batch);
+        }
+        timer.shutdown();
+    }
+
+    /**
+     * 校验调用方的号码, 客户端启用规范化时返回规范化后的号码
+     */
+    private List<String> validate(List<String> phoneNumbers) {
+        Assert.notEmptyParam(phoneNumbers, "手机号码");
+        if (client.isPhoneNumberNormalizeEnable()) {
+            return PhoneNumberNormalizer.normalize(phoneNumbers).toList();
+        }
+        for (String phoneNumber : phoneNumbers) {
+            if (StrUtil.isBlank(phoneNumber)) {
+                throw new IllegalArgumentException("手机号码不能为空");
+            }
+        }
+        return phoneNumbers;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (batch) {
+            if (batch.flushed) {
+                return;
+            }
+            batch.flushed = true;
+            batches.remove(batch.key, batch);
+        }
+        if (batch.futures.isEmpty()) {
+            return;
+        }
+
+        AliyunSmsSendRequest merged = new AliyunSmsSendRequest();
+        merged.setPhoneNumbers(batch.phoneNumbers);
+        merged.setSignName(batch.key.signName());
+        merged.setTemplateCode(batch.key.templateCode());
+        merged.setTemplateParam(batch.key.templateParam());
+        client.sendAsync(merged).whenComplete((response, e) -> {
+            for (CompletableFuture<AliyunSmsSendResponse> future : batch.futures) {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(copy(response));
+                }
+            }
+        });
+    }
+
+    /**
+     * 每个调用方持有独立的响应对象
+     */
+    private static AliyunSmsSendResponse copy(AliyunSmsSendResponse response) {
+        AliyunSmsSendResponse copy = new AliyunSmsSendResponse();
+        copy.setBizId(response.getBizId());
+        copy.setCode(response.getCode());
+        copy.setMessage(response.getMessage());
+        copy.setRequestId(response.getRequestId());
+        return copy;
+    }
+
+    private record Key(String signName, String templateCode, Map<String, Object> templateParam) {
+        private Key {
+            // 复制模板变量, 调用方之后修改原Map不影响合并与发送; 变量值可以为null, 不能使用Map.copyOf
+            templateParam = templateParam == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(templateParam));
+        }
+    }
+
+    private static final class Batch {
+        private final Key key;
+        private final List<String> phoneNumbers = new ArrayList<>();
+        private final List<CompletableFuture<AliyunSmsSendResponse>> futures = new ArrayList<>();
+        private boolean flushed;
+
+        private Batch(Key key) {
+            this.key = key;
+        }
+    }
+}
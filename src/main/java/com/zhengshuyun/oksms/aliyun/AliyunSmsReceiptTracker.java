@@ -0,0 +1,833 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsReceipt;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsReceiptStatusEnum;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsReceiptTrackerConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
+import com.zhengshuyun.oksms.util.PhoneNumberNormalizer;
+import com.zhengshuyun.oksms.util.SmsExecutor;
+import com.zhengshuyun.oktool.core.util.Assert;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsRequest;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsResponseBody;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsResponseBody.QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 阿里云短信回执跟踪
+ * <p>
+ * 发送成功后登记BizId, 后台按号码与发送日期合并调用QuerySendDetails, 一次查询取回该号码当天的全部发送记录,
+ * 同一号码当天的多条短信共用一次查询. 查询间隔从{@code initialDelay}开始按倍数增长, 短信发出越久查询越稀疏,
+ * 同一号码有新登记时恢复首次间隔. 得到最终状态后完成对应的future或回调, 超过查询期限的以UNKNOWN结束.
+ * <p>
+ * 发送详情中没有BizId, 同一号码当天的记录按模板CODE与发送时间就近匹配到登记记录.
+ * 待查询状态保存在按号码与日期分组的基本类型数组中, 查询计划为按到期时间排序的long堆,
+ * 每条回执常驻约70字节(不含BizId字符串), 百万级待查询回执可常驻内存.
+ */
+public class AliyunSmsReceiptTracker implements AutoCloseable {
+
+    private static final int NONE = -1;
+
+    /**
+     * 发送状态: 1等待回执, 2发送失败, 3发送成功
+     */
+    private static final long SEND_FAILED = 2;
+
+    private static final long DELIVERED = 3;
+
+    private static final long PAGE_SIZE = 50;
+
+    /**
+     * 单次查询最多翻页数, 同一号码单日超过1000条的记录不参与匹配
+     */
+    private static final int MAX_PAGES = 20;
+
+    /**
+     * 查询计划中分组编号占用的位数
+     */
+    private static final int GROUP_BITS = 24;
+
+    private static final int MAX_GROUPS = 1 << GROUP_BITS;
+
+    /**
+     * 每轮最多发起的查询数
+     */
+    private static final int POLL_BATCH = 256;
+
+    private static final DateTimeFormatter SEND_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final DateTimeFormatter DETAIL_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final AliyunSmsClient client;
+
+    private final ZoneId zone;
+
+    /**
+     * 以下时间均为秒
+     */
+    private final int initialDelay;
+
+    private final double backoffMultiplier;
+
+    private final int maxInterval;
+
+    private final int maxAge;
+
+    private final int matchTolerance;
+
+    private final int maxOutstanding;
+
+    private final Semaphore queries;
+
+    /**
+     * 时间基准, 内部时间为相对该基准的秒数
+     */
+    private final long origin = System.currentTimeMillis() / 1000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition scheduled = lock.newCondition();
+
+    private final Thread poller;
+
+    private volatile boolean closed;
+
+    /**
+     * 以下字段由lock保护
+     * <p>
+     * 回执: 发送时间、模板编号、组内下一条(空闲时为下一个空闲位置)
+     */
+    private int[] receiptSentAt = new int[1024];
+
+    private int[] receiptTemplate = new int[1024];
+
+    private int[] receiptNext = new int[1024];
+
+    private String[] receiptBizId = new String[1024];
+
+    /**
+     * {@link CompletableFuture}或{@link Consumer}
+     */
+    private Object[] receiptListener = new Object[1024];
+
+    private int receiptTop;
+
+    private int freeReceipt = NONE;
+
+    private int outstanding;
+
+    /**
+     * 分组: 号码编码、发送日期(epochDay)、回执链表头(空闲时为下一个空闲分组)、已查询次数、下次查询时间、是否查询中
+     */
+    private long[] groupPhone = new long[256];
+
+    private int[] groupDay = new int[256];
+
+    private int[] groupHead = new int[256];
+
+    private int[] groupPolls = new int[256];
+
+    private int[] groupDue = new int[256];
+
+    private boolean[] groupQuerying = new boolean[256];
+
+    private int groupTop;
+
+    private int freeGroup = NONE;
+
+    private int groupCount;
+
+    /**
+     * (号码, 日期)到分组的线性探测索引, 元素为分组编号+1, 0表示空位
+     */
+    private int[] index = new int[512];
+
+    /**
+     * 查询计划: 到期时间 << GROUP_BITS | 分组编号, 分组重新排期后旧元素在出堆时丢弃
+     */
+    private long[] heap = new long[256];
+
+    private int heapSize;
+
+    /**
+     * 模板编号, 0表示未指定模板, 可匹配任意模板的记录
+     */
+    private final Map<String, Integer> templateIds = new HashMap<>();
+
+    private final List<String> templates = new ArrayList<>(List.of(""));
+
+    public AliyunSmsReceiptTracker(AliyunSmsClient client) {
+        this(client, new AliyunSmsReceiptTrackerConfig());
+    }
+
+    public AliyunSmsReceiptTracker(AliyunSmsClient client, AliyunSmsReceiptTrackerConfig config) {
+        Assert.notNull(client, "阿里云短信客户端不能为空");
+        Assert.notNull(config, "回执跟踪配置不能为空");
+        if (config.getInitialDelay() <= 0 || config.getMaxInterval() < config.getInitialDelay()) {
+            throw new IllegalArgumentException("查询间隔必须大于0且不超过间隔上限");
+        }
+        if (config.getBackoffMultiplier() < 1) {
+            throw new IllegalArgumentException("查询间隔增长倍数不能小于1");
+        }
+        if (config.getQueryConcurrency() <= 0 || config.getMaxOutstanding() <= 0) {
+            throw new IllegalArgumentException("查询并发数与待查询回执数上限必须大于0");
+        }
+        this.client = client;
+        this.zone = ZoneId.of(config.getZoneId());
+        this.initialDelay = seconds(config.getInitialDelay());
+        this.backoffMultiplier = config.getBackoffMultiplier();
+        this.maxInterval = seconds(config.getMaxInterval());
+        this.maxAge = seconds(config.getMaxAge());
+        // 匹配偏差需放入排序键的高位
+        this.matchTolerance = Math.min(seconds(config.getMatchTolerance()), (1 << 23) - 1);
+        this.maxOutstanding = config.getMaxOutstanding();
+        this.queries = new Semaphore(config.getQueryConcurrency());
+        this.poller = Thread.ofPlatform().daemon().name("oksms-receipt-poller").start(this::poll);
+    }
+
+    /**
+     * 登记回执, 得到最终状态后完成返回的future
+     *
+     * @param bizId        发送回执ID
+     * @param phoneNumber  手机号码, 支持的写法见{@link PhoneNumberNormalizer#parse(CharSequence)}
+     * @param templateCode 短信模板CODE, 为null时匹配任意模板
+     * @return 回执
+     */
+    public CompletableFuture<AliyunSmsReceipt> track(String bizId, String phoneNumber, String templateCode) {
+        CompletableFuture<AliyunSmsReceipt> future = new CompletableFuture<>();
+        register(bizId, phoneNumber, templateCode, future);
+        return future;
+    }
+
+    /**
+     * 登记回执, 得到最终状态后在查询线程中调用回调
+     * <p>
+     * 大量登记时共用同一个回调, 每条回执不再额外持有future.
+     *
+     * @param bizId        发送回执ID
+     * @param phoneNumber  手机号码
+     * @param templateCode 短信模板CODE, 为null时匹配任意模板
+     * @param callback     回调
+     */
+    public void track(String bizId, String phoneNumber, String templateCode, Consumer<AliyunSmsReceipt> callback) {
+        Assert.notNull(callback, "回调不能为空");
+        register(bizId, phoneNumber, templateCode, callback);
+    }
+
+    /**
+     * 登记一次发送的全部号码, 发送失败时不登记
+     * <p>
+     * 号码按{@link PhoneNumberNormalizer}规范化并去重, 与启用号码规范化时实际发送的号码一致.
+     */
+    public void track(AliyunSmsSendRequest request, AliyunSmsSendResponse response, Consumer<AliyunSmsReceipt> callback) {
+        Assert.notNull(request, "短信请求不能为空");
+        Assert.notNull(response, "短信响应不能为空");
+        if (!"OK".equals(response.getCode()) || response.getBizId() == null) {
+            return;
+        }
+        Assert.notEmptyParam(request.getPhoneNumbers(), "手机号码");
+        // 与发送时一致: 同一号码的不同写法只登记一次, 全部号码校验通过后再登记
+        for (String phoneNumber : PhoneNumberNormalizer.normalize(request.getPhoneNumbers()).toList()) {
+            track(response.getBizId(), phoneNumber, request.getTemplateCode(), callback);
+        }
+    }
+
+    /**
+     * 待查询的回执数
+     */
+    public int getOutstanding() {
+        lock.lock();
+        try {
+            return outstanding;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 停止查询, 未得到最终状态的回执以UNKNOWN结束
+     */
+    @Override
+    public void close() {
+        List<Resolution> resolutions = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (int entry : index) {
+                if (entry != 0) {
+                    int group = entry - 1;
+                    for (int receipt = groupHead[group]; receipt != NONE; ) {
+                        int next = receiptNext[receipt];
+                        resolutions.add(resolve(receipt, group, AliyunSmsReceiptStatusEnum.UNKNOWN, null));
+                        receipt = next;
+                    }
+                    groupHead[group] = NONE;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        poller.interrupt();
+        resolutions.forEach(AliyunSmsReceiptTracker::notify);
+    }
+
+    private void register(String bizId, String phoneNumber, String templateCode, Object listener) {
+        Assert.notNull(bizId, "BizId不能为空");
+        // 按阿里云号码格式查询, +86、0086前缀与分隔符不影响分组
+        long phone = encodePhone(PhoneNumberNormalizer.format(PhoneNumberNormalizer.parse(phoneNumber)));
+        long millis = System.currentTimeMillis();
+        int day = (int) LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone).toEpochDay();
+        int sentAt = (int) (millis / 1000 - origin);
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("回执跟踪已关闭");
+            }
+            if (outstanding >= maxOutstanding) {
+                throw new IllegalStateException("待查询回执数超过上限: " + maxOutstanding);
+            }
+            int group = group(phone, day);
+            int receipt = allocateReceipt();
+            receiptSentAt[receipt] = sentAt;
+            receiptTemplate[receipt] = templateId(templateCode);
+            receiptBizId[receipt] = bizId;
+            receiptListener[receipt] = listener;
+            receiptNext[receipt] = groupHead[group];
+            groupHead[group] = receipt;
+            outstanding++;
+
+            // 有新短信时恢复首次查询间隔, 查询中的分组在查询结束后排期
+            groupPolls[group] = 0;
+            int due = sentAt + initialDelay;
+            if (!groupQuerying[group] && (groupDue[group] == NONE || due < groupDue[group])) {
+                schedule(group, due);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void poll() {
+        List<Query> due = new ArrayList<>();
+        while (!closed) {
+            lock.lock();
+            try {
+                int now = now();
+                while (heapSize > 0 && due.size() < POLL_BATCH) {
+                    long top = heap[0];
+                    int dueAt = (int) (top >>> GROUP_BITS);
+                    if (dueAt > now) {
+                        break;
+                    }
+                    pop();
+                    int group = (int) (top & (MAX_GROUPS - 1));
+                    if (groupDue[group] != dueAt) {
+                        // 已重新排期或已释放
+                        continue;
+                    }
+                    groupDue[group] = NONE;
+                    groupQuerying[group] = true;
+                    due.add(new Query(group, decodePhone(groupPhone[group]), LocalDate.ofEpochDay(groupDay[group]).format(SEND_DATE)));
+                }
+                if (due.isEmpty()) {
+                    long wait = heapSize == 0 ? maxInterval : (heap[0] >>> GROUP_BITS) - now;
+                    scheduled.await(Math.max(wait, 1), TimeUnit.SECONDS);
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            for (Query query : due) {
+                try {
+                    queries.acquire();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                SmsExecutor.getInstance().submit(SmsExecutor.ALIYUN, () -> {
+                    try {
+                        query(query);
+                    } finally {
+                        queries.release();
+                    }
+                    return null;
+                });
+            }
+            due.clear();
+        }
+    }
+
+    /**
+     * 查询一个号码当天的发送详情并匹配回执, 查询失败时按原间隔再次排期
+     */
+    private void query(Query query) {
+        List<QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO> details = new ArrayList<>();
+        try {
+            for (long page = 1; page <= MAX_PAGES; page++) {
+                QuerySendDetailsRequest request = new QuerySendDetailsRequest()
+                        .setPhoneNumber(query.phoneNumber())
+                        .setSendDate(query.sendDate())
+                        .setPageSize(PAGE_SIZE)
+                        .setCurrentPage(page);
+                QuerySendDetailsResponseBody body = client.querySendDetails(request);
+                if (!"OK".equals(body.getCode())) {
+                    break;
+                }
+                if (body.getSmsSendDetailDTOs() != null && body.getSmsSendDetailDTOs().getSmsSendDetailDTO() != null) {
+                    details.addAll(body.getSmsSendDetailDTOs().getSmsSendDetailDTO());
+                }
+                if (body.getTotalCount() == null || page * PAGE_SIZE >= Long.parseLong(body.getTotalCount())) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // 已取得的记录照常匹配, 其余回执等待下次查询
+        }
+
+        List<Resolution> resolutions = new ArrayList<>();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            int group = query.group();
+            groupQuerying[group] = false;
+            match(group, details, resolutions);
+            expire(group, now(), resolutions);
+            if (groupHead[group] == NONE) {
+                releaseGroup(group);
+            } else {
+                schedule(group, now() + interval(groupPolls[group]++));
+            }
+        } finally {
+            lock.unlock();
+        }
+        resolutions.forEach(AliyunSmsReceiptTracker::notify);
+    }
+
+    /**
+     * 按发送时间差从小到大将发送记录与登记记录一一配对, 等待回执的记录也参与配对,
+     * 避免已结束的早先记录误配到同一号码稍后发送的短信上
+     */
+    private void match(int group, List<QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO> details,
+                       List<Resolution> resolutions) {
+        if (details.isEmpty()) {
+            return;
+        }
+        int[] receipts = new int[16];
+        int size = 0;
+        for (int receipt = groupHead[group]; receipt != NONE && size < 0xFFFF; receipt = receiptNext[receipt]) {
+            if (size == receipts.length) {
+                receipts = Arrays.copyOf(receipts, size * 2);
+            }
+            receipts[size++] = receipt;
+        }
+
+        // 排序键: 时间差 << 32 | 记录下标 << 16 | 登记下标
+        long[] pairs = new long[16];
+        int pairCount = 0;
+        for (int d = 0; d < details.size() && d < 0xFFFF; d++) {
+            QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO detail = details.get(d);
+            long sentAt = parseSendDate(detail.getSendDate());
+            if (sentAt == Long.MIN_VALUE) {
+                continue;
+            }
+            Integer template = detail.getTemplateCode() == null ? null : templateIds.get(detail.getTemplateCode());
+            for (int k = 0; k < size; k++) {
+                int receipt = receipts[k];
+                int receiptTemplateId = receiptTemplate[receipt];
+                if (receiptTemplateId != 0 && (template == null || receiptTemplateId != template)) {
+                    continue;
+                }
+                long diff = Math.abs(receiptSentAt[receipt] - sentAt);
+                if (diff > matchTolerance) {
+                    continue;
+                }
+                if (pairCount == pairs.length) {
+                    pairs = Arrays.copyOf(pairs, pairCount * 2);
+                }
+                pairs[pairCount++] = diff << 32 | (long) d << 16 | k;
+            }
+        }
+        if (pairCount == 0) {
+            return;
+        }
+        Arrays.sort(pairs, 0, pairCount);
+
+        boolean[] detailUsed = new boolean[details.size()];
+        int[] matched = new int[size];
+        Arrays.fill(matched, NONE);
+        boolean resolved = false;
+        for (int i = 0; i < pairCount; i++) {
+            int d = (int) (pairs[i] >>> 16) & 0xFFFF;
+            int k = (int) pairs[i] & 0xFFFF;
+            if (detailUsed[d] || matched[k] != NONE) {
+                continue;
+            }
+            detailUsed[d] = true;
+            matched[k] = d;
+            Long status = details.get(d).getSendStatus();
+            if (status == null || (status != SEND_FAILED && status != DELIVERED)) {
+                // 等待回执, 仅占用该登记记录
+                matched[k] = Integer.MAX_VALUE;
+            } else {
+                resolved = true;
+            }
+        }
+        if (!resolved) {
+            return;
+        }
+
+        // 重建组内链表, 保持原有顺序, 超出配对范围的登记记录留在链表尾部
+        int head = receiptNext[receipts[size - 1]];
+        for (int k = size - 1; k >= 0; k--) {
+            if (matched[k] == NONE || matched[k] == Integer.MAX_VALUE) {
+                receiptNext[receipts[k]] = head;
+                head = receipts[k];
+            }
+        }
+        for (int k = 0; k < size; k++) {
+            if (matched[k] != NONE && matched[k] != Integer.MAX_VALUE) {
+                QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO detail = details.get(matched[k]);
+                AliyunSmsReceiptStatusEnum status = detail.getSendStatus() == DELIVERED
+                        ? AliyunSmsReceiptStatusEnum.DELIVERED : AliyunSmsReceiptStatusEnum.FAILED;
+                resolutions.add(resolve(receipts[k], group, status, detail));
+            }
+        }
+        groupHead[group] = head;
+    }
+
+    /**
+     * 超过查询期限的回执以UNKNOWN结束
+     */
+    private void expire(int group, int now, List<Resolution> resolutions) {
+        int prev = NONE;
+        int receipt = groupHead[group];
+        while (receipt != NONE) {
+            int next = receiptNext[receipt];
+            if (now - receiptSentAt[receipt] >= maxAge) {
+                if (prev == NONE) {
+                    groupHead[group] = next;
+                } else {
+                    receiptNext[prev] = next;
+                }
+                resolutions.add(resolve(receipt, group, AliyunSmsReceiptStatusEnum.UNKNOWN, null));
+            } else {
+                prev = receipt;
+            }
+            receipt = next;
+        }
+    }
+
+    /**
+     * 生成回执并释放登记位置, 调用方负责将其移出组内链表
+     */
+    private Resolution resolve(int receipt, int group, AliyunSmsReceiptStatusEnum status,
+                               QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO detail) {
+        AliyunSmsReceipt aliyunSmsReceipt = new AliyunSmsReceipt();
+        aliyunSmsReceipt.setBizId(receiptBizId[receipt]);
+        aliyunSmsReceipt.setPhoneNumber(decodePhone(groupPhone[group]));
+        int template = receiptTemplate[receipt];
+        aliyunSmsReceipt.setTemplateCode(template == 0 ? null : templates.get(template));
+        aliyunSmsReceipt.setStatus(status);
+        if (detail != null) {
+            aliyunSmsReceipt.setErrCode(detail.getErrCode());
+            aliyunSmsReceipt.setSendDate(detail.getSendDate());
+            aliyunSmsReceipt.setReceiveDate(detail.getReceiveDate());
+        }
+        Resolution resolution = new Resolution(receiptListener[receipt], aliyunSmsReceipt);
+
+        receiptBizId[receipt] = null;
+        receiptListener[receipt] = null;
+        receiptNext[receipt] = freeReceipt;
+        freeReceipt = receipt;
+        outstanding--;
+        return resolution;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void notify(Resolution resolution) {
+        try {
+            if (resolution.listener() instanceof CompletableFuture<?> future) {
+                ((CompletableFuture<AliyunSmsReceipt>) future).complete(resolution.receipt());
+            } else {
+                ((Consumer<AliyunSmsReceipt>) resolution.listener()).accept(resolution.receipt());
+            }
+        } catch (RuntimeException e) {
+            // 回调异常不影响其他回执
+        }
+    }
+
+    private int interval(int polls) {
+        return (int) Math.min(maxInterval, initialDelay * Math.pow(backoffMultiplier, polls));
+    }
+
+    private int allocateReceipt() {
+        int receipt = freeReceipt;
+        if (receipt != NONE) {
+            freeReceipt = receiptNext[receipt];
+            return receipt;
+        }
+        if (receiptTop == receiptSentAt.length) {
+            int capacity = receiptTop * 2;
+            receiptSentAt = Arrays.copyOf(receiptSentAt, capacity);
+            receiptTemplate = Arrays.copyOf(receiptTemplate, capacity);
+            receiptNext = Arrays.copyOf(receiptNext, capacity);
+            receiptBizId = Arrays.copyOf(receiptBizId, capacity);
+            receiptListener = Arrays.copyOf(receiptListener, capacity);
+        }
+        return receiptTop++;
+    }
+
+    private int templateId(String templateCode) {
+        if (templateCode == null) {
+            return 0;
+        }
+        Integer id = templateIds.get(templateCode);
+        if (id == null) {
+            id = templates.size();
+            templates.add(templateCode);
+            templateIds.put(templateCode, id);
+        }
+        return id;
+    }
+
+    /**
+     * 查找或创建(号码, 日期)分组
+     */
+    private int group(long phone, int day) {
+        int mask = index.length - 1;
+        for (int i = hash(phone, day) & mask; index[i] != 0; i = (i + 1) & mask) {
+            int group = index[i] - 1;
+            if (groupPhone[group] == phone && groupDay[group] == day) {
+                return group;
+            }
+        }
+        if (groupCount == MAX_GROUPS) {
+            throw new IllegalStateException("待查询号码数超过上限: " + MAX_GROUPS);
+        }
+
+        int group = freeGroup;
+        if (group != NONE) {
+            freeGroup = groupHead[group];
+        } else {
+            if (groupTop == groupPhone.length) {
+                int capacity = groupTop * 2;
+                groupPhone = Arrays.copyOf(groupPhone, capacity);
+                groupDay = Arrays.copyOf(groupDay, capacity);
+                groupHead = Arrays.copyOf(groupHead, capacity);
+                groupPolls = Arrays.copyOf(groupPolls, capacity);
+                groupDue = Arrays.copyOf(groupDue, capacity);
+                groupQuerying = Arrays.copyOf(groupQuerying, capacity);
+            }
+            group = groupTop++;
+        }
+        groupPhone[group] = phone;
+        groupDay[group] = day;
+        groupHead[group] = NONE;
+        groupPolls[group] = 0;
+        groupDue[group] = NONE;
+        groupQuerying[group] = false;
+        groupCount++;
+
+        if (groupCount * 2 > index.length) {
+            int[] table = new int[index.length * 2];
+            for (int entry : index) {
+                if (entry != 0) {
+                    insert(table, entry - 1);
+                }
+            }
+            index = table;
+        }
+        insert(index, group);
+        return group;
+    }
+
+    private void insert(int[] table, int group) {
+        int mask = table.length - 1;
+        int i = hash(groupPhone[group], groupDay[group]) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = group + 1;
+    }
+
+    /**
+     * 移出索引并释放分组, 后续元素前移填补空位, 保持探测链连续
+     */
+    private void releaseGroup(int group) {
+        int mask = index.length - 1;
+        int i = hash(groupPhone[group], groupDay[group]) & mask;
+        while (index[i] != group + 1) {
+            i = (i + 1) & mask;
+        }
+        for (int j = (i + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+            int other = index[j] - 1;
+            int home = hash(groupPhone[other], groupDay[other]) & mask;
+            // 探测起点不在(i, j]区间内的元素可以前移到i
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                index[i] = index[j];
+                i = j;
+            }
+        }
+        index[i] = 0;
+
+        groupDue[group] = NONE;
+        groupHead[group] = freeGroup;
+        freeGroup = group;
+        groupCount--;
+    }
+
+    private static int hash(long phone, int day) {
+        long h = (phone + day * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void schedule(int group, int due) {
+        groupDue[group] = due;
+        if (heapSize > groupCount * 2 + 1024) {
+            // 过期元素过多时按各分组当前排期重建
+            heapSize = 0;
+            for (int i = 0; i < groupTop; i++) {
+                if (groupDue[i] != NONE) {
+                    push((long) groupDue[i] << GROUP_BITS | i);
+                }
+            }
+        } else {
+            push((long) due << GROUP_BITS | group);
+        }
+        if (heap[0] >>> GROUP_BITS == due) {
+            scheduled.signal();
+        }
+    }
+
+    private void push(long entry) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private void pop() {
+        long last = heap[--heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+    }
+
+    private int now() {
+        return (int) (System.currentTimeMillis() / 1000 - origin);
+    }
+
+    /**
+     * 发送详情中的发送时间, 格式错误时返回Long.MIN_VALUE
+     */
+    private long parseSendDate(String sendDate) {
+        if (sendDate == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return LocalDateTime.parse(sendDate, DETAIL_DATE).atZone(zone).toEpochSecond() - origin;
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static int seconds(long millis) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, millis / 1000));
+    }
+
+    /**
+     * 号码编码为long: 高5位为位数, 低57位为数值, 保留前导0
+     */
+    static long encodePhone(String phoneNumber) {
+        if (phoneNumber == null) {
+            throw new IllegalArgumentException("手机号码不能为空");
+        }
+        int start = phoneNumber.startsWith("+") ? 1 : 0;
+        int length = phoneNumber.length() - start;
+        if (length == 0 || length > 17) {
+            throw new IllegalArgumentException("手机号码格式错误: " + phoneNumber);
+        }
+        long value = 0;
+        for (int i = start; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("手机号码格式错误: " + phoneNumber);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return (long) length << 57 | value;
+    }
+
+    static String decodePhone(long phone) {
+        int length = (int) (phone >>> 57);
+        String digits = Long.toString(phone & ((1L << 57) - 1));
+        return digits.length() == length ? digits : "0".repeat(length - digits.length()) + digits;
+    }
+
+    private record Query(int group, String phoneNumber, String sendDate) {
+    }
+
+    private record Resolution(Object listener, AliyunSmsReceipt receipt) {
+    }
+}
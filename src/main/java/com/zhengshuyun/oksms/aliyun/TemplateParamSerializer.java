@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.zhengshuyun.oktool.core.util.JacksonUtil;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 模板变量序列化
+ * <p>
+ * 模板变量绝大多数是少量字符串或数字, 如验证码{@code {"code":"1234"}}. 这类扁平Map直接写入复用的缓冲区,
+ * 值为嵌套对象、null或其他类型时交给Jackson. 输出与Jackson默认配置一致(按迭代顺序, 不转义非ASCII字符).
+ * <p>
+ * 群发时同一个Map实例会被重复发送, 按实例缓存序列化结果; 命中时与缓存的快照比较内容, Map被修改后不会返回旧结果.
+ */
+final class TemplateParamSerializer {
+
+    private static final int SLOTS = 64;
+
+    /**
+     * 超过该容量的缓冲区用完后丢弃, 避免偶发的大变量长期占用内存
+     */
+    private static final int MAX_BUFFER = 1024;
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * 缓冲区按线程id分槽复用, 虚拟线程同样可以复用
+     */
+    private static final AtomicReferenceArray<StringBuilder> BUFFERS = new AtomicReferenceArray<>(SLOTS);
+
+    /**
+     * 按实例缓存的序列化结果, 直接映射, 冲突时覆盖
+     */
+    private static final AtomicReferenceArray<Cached> CACHE = new AtomicReferenceArray<>(SLOTS);
+
+    /**
+     * 最近序列化过的实例, 第二次出现时才缓存, 每次新建Map的请求不会产生额外分配
+     */
+    private static final AtomicReferenceArray<Object> SEEN = new AtomicReferenceArray<>(SLOTS);
+
+    private TemplateParamSerializer() {
+    }
+
+    /**
+     * 序列化模板变量
+     */
+    static String write(Map<String, ?> templateParam) {
+        int index = System.identityHashCode(templateParam) & (SLOTS - 1);
+        Cached cached = CACHE.get(index);
+        if (cached != null && cached.instance == templateParam && cached.snapshot.equals(templateParam)) {
+            return cached.json;
+        }
+
+        String json = writeFlat(templateParam);
+        if (json == null) {
+            return JacksonUtil.writeValueAsString(templateParam);
+        }
+        if (SEEN.get(index) == templateParam) {
+            // 快照在命中时用于确认Map未被修改
+            CACHE.lazySet(index, new Cached(templateParam, Map.copyOf(templateParam), json));
+        } else {
+            SEEN.lazySet(index, templateParam);
+        }
+        return json;
+    }
+
+    /**
+     * 序列化批量发送的模板变量数组
+     */
+    static String writeAll(List<? extends Map<String, ?>> templateParams) {
+        StringBuilder buffer = acquire();
+        try {
+            buffer.append('[');
+            for (int i = 0; i < templateParams.size(); i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                if (!appendFlat(buffer, templateParams.get(i))) {
+                    return JacksonUtil.writeValueAsString(templateParams);
+                }
+            }
+            return buffer.append(']').toString();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * @return 包含不支持的值时返回null
+     */
+    private static String writeFlat(Map<String, ?> templateParam) {
+        StringBuilder buffer = acquire();
+        try {
+            return appendFlat(buffer, templateParam) ? buffer.toString() : null;
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private static boolean appendFlat(StringBuilder buffer, Map<String, ?> templateParam) {
+        buffer.append('{');
+        boolean first = true;
+        for (Map.Entry<String, ?> entry : templateParam.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            if (!(key instanceof String name)) {
+                return false;
+            }
+            if (!first) {
+                buffer.append(',');
+            }
+            first = false;
+            appendString(buffer, name);
+            buffer.append(':');
+            if (value instanceof String text) {
+                appendString(buffer, text);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte || value instanceof BigInteger || value instanceof Boolean) {
+                buffer.append(value);
+            } else if (value instanceof Double number && Double.isFinite(number)) {
+                buffer.append(number.doubleValue());
+            } else if (value instanceof Float number && Float.isFinite(number)) {
+                buffer.append(number.floatValue());
+            } else {
+                return false;
+            }
+        }
+        buffer.append('}');
+        return true;
+    }
+
+    private static void appendString(StringBuilder buffer, String text) {
+        buffer.append('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            buffer.append(text, start, i);
+            start = i + 1;
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\b' -> buffer.append("\\b");
+                case '\f' -> buffer.append("\\f");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                default -> buffer.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+        }
+        buffer.append(text, start, text.length()).append('"');
+    }
+
+    private static StringBuilder acquire() {
+        StringBuilder buffer = BUFFERS.getAndSet(slot(), null);
+        return buffer != null ? buffer : new StringBuilder(64);
+    }
+
+    private static void release(StringBuilder buffer) {
+        if (buffer.capacity() <= MAX_BUFFER) {
+            buffer.setLength(0);
+            BUFFERS.lazySet(slot(), buffer);
+        }
+    }
+
+    private static int slot() {
+        return (int) Thread.currentThread().threadId() & (SLOTS - 1);
+    }
+
+    private record Cached(Object instance, Map<String, ?> snapshot, String json) {
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun.model;
+
+import java.util.Map;
+import java.util.Objects;
+
+public class AliyunSmsBatchRecipient {
+    /**
+     * 接收短信的手机号码
+     * 格式同{@link AliyunSmsSendRequest#getPhoneNumbers()}
+     */
+    private String phoneNumber;
+
+    /**
+     * 该号码使用的短信签名名称
+     * 例如：整数软件
+     */
+    private String signName;
+
+    /**
+     * 该号码使用的短信模板变量
+     * 示例：{"name":"张三","number":"1390000****"}
+     */
+    private Map<String, Object> templateParam;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        AliyunSmsBatchRecipient that = (AliyunSmsBatchRecipient) object;
+        return Objects.equals(phoneNumber, that.phoneNumber) && Objects.equals(signName, that.signName) && Objects.equals(templateParam, that.templateParam);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(phoneNumber, signName, templateParam);
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public String getSignName() {
+        return signName;
+    }
+
+    public void setSignName(String signName) {
+        this.signName = signName;
+    }
+
+    public Map<String, Object> getTemplateParam() {
+        return templateParam;
+    }
+
+    public void setTemplateParam(Map<String, Object> templateParam) {
+        this.templateParam = templateParam;
+    }
+}
@@ -16,6 +16,11 @@
 
 package com.zhengshuyun.oksms.aliyun.model;
 
+import com.zhengshuyun.oksms.breaker.model.CircuitBreakerConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 public class AliyunSmsClientConfig {
@@ -26,16 +31,47 @@ public class AliyunSmsClientConfig {
     private int readTimeout = 10000;
     private int connectTimeout = 10000;
 
+    /**
+     * 请求协议, http或https
+     */
+    private String protocol = "https";
+
+    /**
+     * 异步发送时同时进行中的最大请求数, 超出时拒绝新的异步请求
+     */
+    private int maxInFlight = 256;
+
+    /**
+     * 批量发送时同时进行的最大请求数
+     */
+    private int batchParallelism = 8;
+
+    /**
+     * 熔断配置, 为null时不熔断
+     */
+    private CircuitBreakerConfig circuitBreaker;
+
+    /**
+     * 备用域名, 主域名熔断时依次使用, 每个域名单独熔断
+     */
+    private List<String> fallbackEndpoints = new ArrayList<>();
+
+    /**
+     * 发送前规范化手机号码: 同一号码的不同写法只发送一次, 格式错误的号码在本地拒绝
+     * 启用后无前缀且1开头的号码只能是11位国内手机号码, 北美等+1号码需带+或00前缀
+     */
+    private boolean phoneNumberNormalizeEnable;
+
     @Override
     public boolean equals(Object object) {
         if (object == null || getClass() != object.getClass()) return false;
         AliyunSmsClientConfig that = (AliyunSmsClientConfig) object;
-        return readTimeout == that.readTimeout && connectTimeout == that.connectTimeout && Objects.equals(accessKeyId, that.accessKeyId) && Objects.equals(accessKeySecret, that.accessKeySecret) && Objects.equals(regionId, that.regionId) && Objects.equals(endpoint, that.endpoint);
+        return readTimeout == that.readTimeout && connectTimeout == that.connectTimeout && maxInFlight == that.maxInFlight && batchParallelism == that.batchParallelism && phoneNumberNormalizeEnable == that.phoneNumberNormalizeEnable && Objects.equals(accessKeyId, that.accessKeyId) && Objects.equals(accessKeySecret, that.accessKeySecret) && Objects.equals(regionId, that.regionId) && Objects.equals(endpoint, that.endpoint) && Objects.equals(protocol, that.protocol) && Objects.equals(circuitBreaker, that.circuitBreaker) && Objects.equals(fallbackEndpoints, that.fallbackEndpoints);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(accessKeyId, accessKeySecret, regionId, endpoint, readTimeout, connectTimeout);
+        return Objects.hash(accessKeyId, accessKeySecret, regionId, endpoint, readTimeout, connectTimeout, protocol, maxInFlight, batchParallelism, circuitBreaker, fallbackEndpoints, phoneNumberNormalizeEnable);
     }
 
     public void regionId(AliyunRegionEnum  aliyunRegionEnum) {
@@ -47,6 +83,10 @@ public class AliyunSmsClientConfig {
         this.endpoint = endpointEnum.getValue();
     }
 
+    public void fallbackEndpoints(AliyunEndpointEnum... endpointEnums) {
+        this.fallbackEndpoints = new ArrayList<>(Arrays.stream(endpointEnums).map(AliyunEndpointEnum::getValue).toList());
+    }
+
     public String getAccessKeyId() {
         return accessKeyId;
     }
@@ -94,4 +134,52 @@ public class AliyunSmsClientConfig {
     public void setConnectTimeout(int connectTimeout) {
         this.connectTimeout = connectTimeout;
     }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(String protocol) {
+        this.protocol = protocol;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    public void setBatchParallelism(int batchParallelism) {
+        this.batchParallelism = batchParallelism;
+    }
+
+    public CircuitBreakerConfig getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreakerConfig circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public List<String> getFallbackEndpoints() {
+        return fallbackEndpoints;
+    }
+
+    public void setFallbackEndpoints(List<String> fallbackEndpoints) {
+        this.fallbackEndpoints = fallbackEndpoints;
+    }
+
+    public boolean isPhoneNumberNormalizeEnable() {
+        return phoneNumberNormalizeEnable;
+    }
+
+    public void setPhoneNumberNormalizeEnable(boolean phoneNumberNormalizeEnable) {
+        this.phoneNumberNormalizeEnable = phoneNumberNormalizeEnable;
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun.model;
+
+import java.util.Objects;
+
+public class AliyunSmsReceipt {
+    /**
+     * 发送回执ID
+     */
+    private String bizId;
+
+    /**
+     * 手机号码
+     */
+    private String phoneNumber;
+
+    /**
+     * 短信模板CODE
+     */
+    private String templateCode;
+
+    /**
+     * 回执状态
+     */
+    private AliyunSmsReceiptStatusEnum status;
+
+    /**
+     * 运营商返回的错误码, 如DELIVERED、MK:0001
+     */
+    private String errCode;
+
+    /**
+     * 发送时间, 格式为yyyy-MM-dd HH:mm:ss
+     */
+    private String sendDate;
+
+    /**
+     * 接收时间, 格式为yyyy-MM-dd HH:mm:ss
+     */
+    private String receiveDate;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        AliyunSmsReceipt that = (AliyunSmsReceipt) object;
+        return Objects.equals(bizId, that.bizId) && Objects.equals(phoneNumber, that.phoneNumber) && Objects.equals(templateCode, that.templateCode) && status == that.status && Objects.equals(errCode, that.errCode) && Objects.equals(sendDate, that.sendDate) && Objects.equals(receiveDate, that.receiveDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bizId, phoneNumber, templateCode, status, errCode, sendDate, receiveDate);
+    }
+
+    public String getBizId() {
+        return bizId;
+    }
+
+    public void setBizId(String bizId) {
+        this.bizId = bizId;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public String getTemplateCode() {
+        return templateCode;
+    }
+
+    public void setTemplateCode(String templateCode) {
+        this.templateCode = templateCode;
+    }
+
+    public AliyunSmsReceiptStatusEnum getStatus() {
+        return status;
+    }
+
+    public void setStatus(AliyunSmsReceiptStatusEnum status) {
+        this.status = status;
+    }
+
+    public String getErrCode() {
+        return errCode;
+    }
+
+    public void setErrCode(String errCode) {
+        this.errCode = errCode;
+    }
+
+    public String getSendDate() {
+        return sendDate;
+    }
+
+    public void setSendDate(String sendDate) {
+        this.sendDate = sendDate;
+    }
+
+    public String getReceiveDate() {
+        return receiveDate;
+    }
+
+    public void setReceiveDate(String receiveDate) {
+        this.receiveDate = receiveDate;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun.model;
+
+/**
+ * 短信回执状态
+ */
+public enum AliyunSmsReceiptStatusEnum {
+    /**
+     * 已送达
+     */
+    DELIVERED,
+
+    /**
+     * 发送失败, 失败原因见错误码
+     */
+    FAILED,
+
+    /**
+     * 超过回执查询期限仍未得到最终状态
+     */
+    UNKNOWN
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun.model;
+
+import java.util.Objects;
+
+public class AliyunSmsReceiptTrackerConfig {
+    /**
+     * 登记后首次查询的延迟(毫秒), 多数短信在数秒内返回回执
+     */
+    private long initialDelay = 10_000;
+
+    /**
+     * 查询间隔的增长倍数, 短信发出越久查询越稀疏
+     */
+    private double backoffMultiplier = 2.0;
+
+    /**
+     * 查询间隔上限(毫秒)
+     */
+    private long maxInterval = 600_000;
+
+    /**
+     * 回执查询期限(毫秒), 超过后以{@link AliyunSmsReceiptStatusEnum#UNKNOWN}结束
+     */
+    private long maxAge = 72 * 3600_000L;
+
+    /**
+     * 回执与登记记录的发送时间允许的最大偏差(毫秒)
+     * 发送详情中没有BizId, 同一号码当天的记录按模板与发送时间匹配
+     */
+    private long matchTolerance = 120_000;
+
+    /**
+     * 同时进行的发送详情查询数
+     */
+    private int queryConcurrency = 8;
+
+    /**
+     * 待查询回执数上限, 超出后拒绝登记
+     */
+    private int maxOutstanding = 10_000_000;
+
+    /**
+     * 发送日期所在时区, 阿里云按北京时间划分发送日期
+     */
+    private String zoneId = "Asia/Shanghai";
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        AliyunSmsReceiptTrackerConfig that = (AliyunSmsReceiptTrackerConfig) object;
+        return initialDelay == that.initialDelay && Double.compare(backoffMultiplier, that.backoffMultiplier) == 0 && maxInterval == that.maxInterval && maxAge == that.maxAge && matchTolerance == that.matchTolerance && queryConcurrency == that.queryConcurrency && maxOutstanding == that.maxOutstanding && Objects.equals(zoneId, that.zoneId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(initialDelay, backoffMultiplier, maxInterval, maxAge, matchTolerance, queryConcurrency, maxOutstanding, zoneId);
+    }
+
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    public void setInitialDelay(long initialDelay) {
+        this.initialDelay = initialDelay;
+    }
+
+    public double getBackoffMultiplier() {
+        return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    public void setMaxInterval(long maxInterval) {
+        this.maxInterval = maxInterval;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public long getMatchTolerance() {
+        return matchTolerance;
+    }
+
+    public void setMatchTolerance(long matchTolerance) {
+        this.matchTolerance = matchTolerance;
+    }
+
+    public int getQueryConcurrency() {
+        return queryConcurrency;
+    }
+
+    public void setQueryConcurrency(int queryConcurrency) {
+        this.queryConcurrency = queryConcurrency;
+    }
+
+    public int getMaxOutstanding() {
+        return maxOutstanding;
+    }
+
+    public void setMaxOutstanding(int maxOutstanding) {
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    public void setZoneId(String zoneId) {
+        this.zoneId = zoneId;
+    }
+}
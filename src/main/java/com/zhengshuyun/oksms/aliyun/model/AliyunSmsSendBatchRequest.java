@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun.model;
+
+import java.util.List;
+import java.util.Objects;
+
+public class AliyunSmsSendBatchRequest {
+    /**
+     * 接收人列表, 每个接收人可使用不同的签名与模板变量
+     * 超过单次请求上限(100个)时自动拆分为多次请求
+     */
+    private List<AliyunSmsBatchRecipient> recipients;
+
+    /**
+     * 短信模板 Code, 所有接收人共用
+     * 示例：SMS_15305****
+     */
+    private String templateCode;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        AliyunSmsSendBatchRequest that = (AliyunSmsSendBatchRequest) object;
+        return Objects.equals(recipients, that.recipients) && Objects.equals(templateCode, that.templateCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipients, templateCode);
+    }
+
+    public List<AliyunSmsBatchRecipient> getRecipients() {
+        return recipients;
+    }
+
+    public void setRecipients(List<AliyunSmsBatchRecipient> recipients) {
+        this.recipients = recipients;
+    }
+
+    public String getTemplateCode() {
+        return templateCode;
+    }
+
+    public void setTemplateCode(String templateCode) {
+        this.templateCode = templateCode;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun.model;
+
+import java.util.List;
+import java.util.Objects;
+
+public class AliyunSmsSendBatchResponse {
+    /**
+     * 单次请求包含的最大号码数, 第 i 个结果对应接收人列表中 [i * chunkSize, (i + 1) * chunkSize) 的号码
+     */
+    private int chunkSize;
+
+    /**
+     * 每次请求的结果, 按拆分顺序排列
+     * 请求异常时code为null, message为异常信息
+     */
+    private List<AliyunSmsSendResponse> responses;
+
+    /**
+     * 是否全部请求成功
+     */
+    public boolean isAllOk() {
+        if (responses == null) {
+            return false;
+        }
+        for (AliyunSmsSendResponse response : responses) {
+            if (!"OK".equals(response.getCode())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 每次请求的回执ID, 请求失败时为null
+     */
+    public List<String> getBizIds() {
+        return responses == null ? List.of() : responses.stream().map(AliyunSmsSendResponse::getBizId).toList();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        AliyunSmsSendBatchResponse that = (AliyunSmsSendBatchResponse) object;
+        return chunkSize == that.chunkSize && Objects.equals(responses, that.responses);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(chunkSize, responses);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public List<AliyunSmsSendResponse> getResponses() {
+        return responses;
+    }
+
+    public void setResponses(List<AliyunSmsSendResponse> responses) {
+        this.responses = responses;
+    }
+}
@@ -28,6 +28,8 @@ public class AliyunSmsSendRequest {
      * - 国际/港澳台消息：国际区号+号码，例如 852000012****。
      * - 接收测试短信的手机号：必须先在控制台绑定测试手机号后才可以发送。
      * 支持向不同的手机号码发送短信，上限为 1000 个手机号码。批量发送相对于单条发送，及时性稍有延迟。验证码类型的短信，建议单条发送。
+     * 启用号码规范化({@link AliyunSmsClientConfig#isPhoneNumberNormalizeEnable()})时，无前缀且以 1 开头的号码按国内手机号码校验，
+     * 北美等国际区号为 1 的号码需写为 +1 或 001 开头，例如 +1202555****。
      */
     private List<String> phoneNumbers;
 
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.breaker;
+
+import com.zhengshuyun.oksms.breaker.model.CircuitBreakerConfig;
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 熔断器
+ * <p>
+ * 按最近{@link CircuitBreakerConfig#getWindowSize()}个请求统计失败率与慢请求比例, 任一超过阈值时打开.
+ * 打开期间{@link #tryAcquire()}只读取一个volatile字段即返回false, 请求不再占用线程等待超时.
+ * 打开{@link CircuitBreakerConfig#getOpenDuration()}后进入半开状态, 放行少量试探请求, 根据其结果关闭或重新打开.
+ * <p>
+ * 调用方在{@link #tryAcquire()}返回true后发起请求, 无论成功与否都必须调用{@link #onResult(boolean, long)}.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+
+    private final int minimumCalls;
+
+    private final int failureRateThreshold;
+
+    private final long slowCallNanos;
+
+    private final int slowCallRateThreshold;
+
+    private final long openNanos;
+
+    private final int halfOpenCalls;
+
+    /**
+     * 滑动窗口, 由this保护
+     */
+    private final boolean[] failures;
+
+    private final boolean[] slows;
+
+    private int index;
+
+    private int size;
+
+    private int failureCount;
+
+    private int slowCount;
+
+    private int trialCalls;
+
+    private int trialFailures;
+
+    private int trialSlows;
+
+    private volatile State state = State.CLOSED;
+
+    private volatile long openUntil;
+
+    private final AtomicInteger trialPermits = new AtomicInteger();
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        Assert.notNull(config, "熔断配置不能为空");
+        if (config.getWindowSize() <= 0 || config.getHalfOpenCalls() <= 0) {
+            throw new IllegalArgumentException("窗口大小与半开试探请求数必须大于0");
+        }
+        this.name = name;
+        this.minimumCalls = Math.max(1, Math.min(config.getMinimumCalls(), config.getWindowSize()));
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowCallDuration());
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+        this.halfOpenCalls = config.getHalfOpenCalls();
+        this.failures = new boolean[config.getWindowSize()];
+        this.slows = new boolean[config.getWindowSize()];
+    }
+
+    /**
+     * 是否允许发起请求
+     */
+    public boolean tryAcquire() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openUntil < 0) {
+                return false;
+            }
+            synchronized (this) {
+                if (state == State.OPEN && System.nanoTime() - openUntil >= 0) {
+                    halfOpen();
+                }
+                current = state;
+            }
+            if (current != State.HALF_OPEN) {
+                return current == State.CLOSED;
+            }
+        }
+        int permits;
+        do {
+            permits = trialPermits.get();
+            if (permits <= 0) {
+                return false;
+            }
+        } while (!trialPermits.compareAndSet(permits, permits - 1));
+        return true;
+    }
+
+    /**
+     * 记录请求结果
+     *
+     * @param failure 是否失败
+     * @param nanos   耗时(纳秒)
+     */
+    public synchronized void onResult(boolean failure, long nanos) {
+        boolean slow = nanos >= slowCallNanos;
+        switch (state) {
+            case CLOSED -> {
+                if (size == failures.length) {
+                    failureCount -= failures[index] ? 1 : 0;
+                    slowCount -= slows[index] ? 1 : 0;
+                } else {
+                    size++;
+                }
+                failures[index] = failure;
+                slows[index] = slow;
+                failureCount += failure ? 1 : 0;
+                slowCount += slow ? 1 : 0;
+                index = (index + 1) % failures.length;
+                if (size >= minimumCalls && exceeded(failureCount, slowCount, size)) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> {
+                trialCalls++;
+                trialFailures += failure ? 1 : 0;
+                trialSlows += slow ? 1 : 0;
+                if (trialCalls >= halfOpenCalls) {
+                    if (exceeded(trialFailures, trialSlows, trialCalls)) {
+                        open();
+                    } else {
+                        close();
+                    }
+                }
+            }
+            case OPEN -> {
+                // 打开前发出的请求, 忽略
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private boolean exceeded(int failed, int slowed, int total) {
+        return failureRateThreshold > 0 && failed * 100L >= (long) failureRateThreshold * total
+                || slowCallRateThreshold > 0 && slowed * 100L >= (long) slowCallRateThreshold * total;
+    }
+
+    private void open() {
+        openUntil = System.nanoTime() + openNanos;
+        state = State.OPEN;
+    }
+
+    private void halfOpen() {
+        trialCalls = 0;
+        trialFailures = 0;
+        trialSlows = 0;
+        trialPermits.set(halfOpenCalls);
+        state = State.HALF_OPEN;
+    }
+
+    private void close() {
+        index = 0;
+        size = 0;
+        failureCount = 0;
+        slowCount = 0;
+        state = State.CLOSED;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.breaker.model;
+
+import java.util.Objects;
+
+public class CircuitBreakerConfig {
+    /**
+     * 滑动窗口大小, 按最近的请求数统计
+     */
+    private int windowSize = 100;
+
+    /**
+     * 窗口内至少有多少个请求才计算失败率
+     */
+    private int minimumCalls = 20;
+
+    /**
+     * 失败率阈值(百分比), 达到后打开熔断器; 0表示不按失败率熔断
+     */
+    private int failureRateThreshold = 50;
+
+    /**
+     * 慢请求的耗时阈值(毫秒)
+     */
+    private long slowCallDuration = 3000;
+
+    /**
+     * 慢请求比例阈值(百分比), 达到后打开熔断器; 0表示不按慢请求熔断
+     */
+    private int slowCallRateThreshold = 80;
+
+    /**
+     * 熔断器打开后多久进入半开状态(毫秒)
+     */
+    private long openDuration = 30000;
+
+    /**
+     * 半开状态下放行的试探请求数, 全部返回后决定关闭或重新打开
+     */
+    private int halfOpenCalls = 5;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        CircuitBreakerConfig that = (CircuitBreakerConfig) object;
+        return windowSize == that.windowSize && minimumCalls == that.minimumCalls && failureRateThreshold == that.failureRateThreshold && slowCallDuration == that.slowCallDuration && slowCallRateThreshold == that.slowCallRateThreshold && openDuration == that.openDuration && halfOpenCalls == that.halfOpenCalls;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(windowSize, minimumCalls, failureRateThreshold, slowCallDuration, slowCallRateThreshold, openDuration, halfOpenCalls);
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public long getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(long slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(long openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dedup;
+
+import com.zhengshuyun.oksms.dedup.model.SmsDeduplicatorConfig;
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 短信请求去重
+ * <p>
+ * 以请求内容的64位指纹识别重复请求, 时间窗口内重复的请求直接返回首次发送的BizId, 不再调用服务商接口.
+ * 指纹按高位分散到多个分段, 每个分段独立加锁, 保存当前与上一个窗口两张开放寻址表, 窗口切换时复用表空间.
+ * 总内存由{@link SmsDeduplicatorConfig#getMaxEntries()}固定, 表满后新的请求不再去重.
+ * <p>
+ * 调用方先{@link #claim(long)}, 发送成功后{@link #complete(long, String)}, 失败后{@link #cancel(long)}以允许重试.
+ */
+public class SmsDeduplicator {
+
+    private static final int STRIPES = 64;
+
+    private static final long EMPTY = 0;
+
+    private static final long DELETED = 1;
+
+    /**
+     * 正在发送的请求
+     */
+    private static final String PENDING = new String("PENDING");
+
+    /**
+     * 未配置等待时间且调用方未指定时的默认值(毫秒)
+     */
+    private static final long DEFAULT_PENDING_TIMEOUT = 30000;
+
+    private final long window;
+
+    private final long pendingTimeoutNanos;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public SmsDeduplicator(SmsDeduplicatorConfig config) {
+        Assert.notNull(config, "去重配置不能为空");
+        if (config.getWindow() <= 0) {
+            throw new IllegalArgumentException("去重窗口必须大于0");
+        }
+        this.window = config.getWindow();
+        this.pendingTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getPendingTimeout());
+        int perStripe = Math.max(16, config.getMaxEntries() / STRIPES);
+        // 负载因子不超过0.5, 保证探测长度较短
+        int capacity = Integer.highestOneBit(perStripe - 1) << 2;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity, perStripe);
+        }
+    }
+
+    /**
+     * 计算请求指纹
+     *
+     * @param parts 请求内容, 如号码、签名、模板与模板变量
+     * @return 64位指纹
+     */
+    public static long fingerprint(String... parts) {
+        // FNV-1a, 各部分之间加入分隔符避免拼接歧义
+        long hash = 0xcbf29ce484222325L;
+        for (String part : parts) {
+            if (part != null) {
+                for (int i = 0; i < part.length(); i++) {
+                    hash = (hash ^ part.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+        }
+        // 混合高低位, 分段与表内位置分别使用高位与低位
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == EMPTY || hash == DELETED ? 2 : hash;
+    }
+
+    /**
+     * 登记请求
+     * <p>
+     * 相同请求正在发送时等待其完成.
+     *
+     * @param fingerprint 请求指纹
+     * @return 首次发送的BizId; 返回null表示不是重复请求, 调用方需发送后调用{@link #complete}或{@link #cancel}
+     * @throws IllegalStateException 等待相同请求发送完成超时
+     */
+    public String claim(long fingerprint) {
+        return claim(fingerprint, DEFAULT_PENDING_TIMEOUT);
+    }
+
+    /**
+     * 登记请求
+     * <p>
+     * 相同请求正在发送时等待其完成, 配置了{@link SmsDeduplicatorConfig#getPendingTimeout()}时以配置为准.
+     *
+     * @param fingerprint    请求指纹
+     * @param pendingTimeout 等待相同请求发送完成的最长时间(毫秒), 应不小于一次发送含重试的最长耗时
+     * @return 首次发送的BizId; 返回null表示不是重复请求, 调用方需发送后调用{@link #complete}或{@link #cancel}
+     * @throws IllegalStateException 等待相同请求发送完成超时
+     */
+    public String claim(long fingerprint, long pendingTimeout) {
+        long timeoutNanos = pendingTimeoutNanos > 0 ? pendingTimeoutNanos : TimeUnit.MILLISECONDS.toNanos(pendingTimeout);
+        Stripe stripe = stripe(fingerprint);
+        long epoch = System.currentTimeMillis() / window;
+        stripe.lock.lock();
+        try {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (true) {
+                stripe.rotate(epoch);
+                String bizId = stripe.get(fingerprint);
+                if (bizId == null) {
+                    stripe.current.put(fingerprint, PENDING);
+                    return null;
+                }
+                if (bizId != PENDING) {
+                    return bizId;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("相同短信请求正在发送中");
+                }
+                stripe.completed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待相同短信请求发送完成被中断", e);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 记录发送成功
+     *
+     * @param fingerprint 请求指纹
+     * @param bizId       发送回执ID
+     */
+    public void complete(long fingerprint, String bizId) {
+        Stripe stripe = stripe(fingerprint);
+        stripe.lock.lock();
+        try {
+            // BizId为空时记录为空字符串, 重复请求仍被拦截
+            stripe.replacePending(fingerprint, bizId == null ? "" : bizId);
+            stripe.completed.signalAll();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 发送失败, 移除登记以允许重试
+     *
+     * @param fingerprint 请求指纹
+     */
+    public void cancel(long fingerprint) {
+        Stripe stripe = stripe(fingerprint);
+        stripe.lock.lock();
+        try {
+            stripe.replacePending(fingerprint, null);
+            stripe.completed.signalAll();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripe(long fingerprint) {
+        return stripes[(int) (fingerprint >>> 58) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition completed = lock.newCondition();
+        private Table current;
+        private Table previous;
+        private long epoch = Long.MIN_VALUE;
+
+        private Stripe(int capacity, int maxSize) {
+            current = new Table(capacity, maxSize);
+            previous = new Table(capacity, maxSize);
+        }
+
+        private void rotate(long epoch) {
+            if (epoch == this.epoch) {
+                return;
+            }
+            Table table = previous;
+            table.clear();
+            if (epoch == this.epoch + 1) {
+                previous = current;
+            } else {
+                // 跳过了窗口, 两张表都已过期
+                current.clear();
+                previous = current;
+            }
+            current = table;
+            this.epoch = epoch;
+        }
+
+        private String get(long fingerprint) {
+            String value = current.get(fingerprint);
+            return value != null ? value : previous.get(fingerprint);
+        }
+
+        private void replacePending(long fingerprint, String bizId) {
+            if (!current.replacePending(fingerprint, bizId)) {
+                previous.replacePending(fingerprint, bizId);
+            }
+        }
+    }
+
+    /**
+     * 开放寻址表, 键为指纹, 值为BizId
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final String[] values;
+        private final int mask;
+        private final int maxSize;
+        private int size;
+
+        private Table(int capacity, int maxSize) {
+            this.keys = new long[capacity];
+            this.values = new String[capacity];
+            this.mask = capacity - 1;
+            this.maxSize = maxSize;
+        }
+
+        private String get(long key) {
+            // 删除标记可能占满探测路径, 最多探测整张表
+            for (int n = 0, i = (int) key & mask; n <= mask; n++, i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == EMPTY) {
+                    return null;
+                }
+                if (k == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private void put(long key, String value) {
+            if (size >= maxSize) {
+                // 已满时不再记录, 该请求不参与去重
+                return;
+            }
+            for (int n = 0, i = (int) key & mask; n <= mask; n++, i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == EMPTY || k == DELETED) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        private boolean replacePending(long key, String value) {
+            for (int n = 0, i = (int) key & mask; n <= mask; n++, i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == EMPTY) {
+                    return false;
+                }
+                if (k == key && values[i] == PENDING) {
+                    if (value == null) {
+                        keys[i] = DELETED;
+                        values[i] = null;
+                        size--;
+                    } else {
+                        values[i] = value;
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void clear() {
+            Arrays.fill(keys, EMPTY);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+    }
+}
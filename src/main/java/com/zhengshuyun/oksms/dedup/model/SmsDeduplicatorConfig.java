@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dedup.model;
+
+import java.util.Objects;
+
+public class SmsDeduplicatorConfig {
+    /**
+     * 去重时间窗口(毫秒), 相同请求在一个窗口内至多发送一次, 最长可在两个窗口内被识别为重复
+     */
+    private long window = 5 * 60 * 1000;
+
+    /**
+     * 每个窗口最多记录的请求数, 超出后新的请求不再去重
+     */
+    private int maxEntries = 1_000_000;
+
+    /**
+     * 相同请求正在发送时的最长等待时间(毫秒), 为0时由客户端按连接、读取超时与重试策略计算
+     */
+    private long pendingTimeout;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        SmsDeduplicatorConfig that = (SmsDeduplicatorConfig) object;
+        return window == that.window && maxEntries == that.maxEntries && pendingTimeout == that.pendingTimeout;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(window, maxEntries, pendingTimeout);
+    }
+
+    public long getWindow() {
+        return window;
+    }
+
+    public void setWindow(long window) {
+        this.window = window;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getPendingTimeout() {
+        return pendingTimeout;
+    }
+
+    public void setPendingTimeout(long pendingTimeout) {
+        this.pendingTimeout = pendingTimeout;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dispatch;
+
+import com.zhengshuyun.oksms.dispatch.model.SmsDispatcherConfig;
+import com.zhengshuyun.oksms.dispatch.model.SmsLaneConfig;
+import com.zhengshuyun.oksms.metrics.SmsMetrics;
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分通道发送调度
+ * <p>
+ * 每个{@link SmsLane}有独立的有界队列与并发上限, 所有通道共享总并发数. 有空闲并发时按步幅调度(stride scheduling)
+ * 在排队的通道间按权重分配, 空闲后重新排队的通道不会累积额度. 验证码以外各通道的并发上限之和小于总并发数时,
+ * 群发与交易通知占满各自上限后仍有空闲并发, 验证码可以立即执行, 不会排在群发之后.
+ * <p>
+ * 任务在虚拟线程中执行, 各通道的排队时间记录到{@link SmsMetrics}.
+ */
+public class SmsDispatcher {
+
+    private static final long STRIDE = 1 << 20;
+
+    private static final SmsDispatcher INSTANCE = new SmsDispatcher(new SmsDispatcherConfig());
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("oksms-dispatch-", 0).factory());
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Lane[] lanes = new Lane[SmsLane.values().length];
+
+    private final int maxConcurrency;
+
+    /**
+     * 以下字段由lock保护
+     */
+    private int inFlight;
+
+    private long virtualTime;
+
+    public SmsDispatcher(SmsDispatcherConfig config) {
+        Assert.notNull(config, "调度配置不能为空");
+        if (config.getMaxConcurrency() <= 0) {
+            throw new IllegalArgumentException("并发数必须大于0");
+        }
+        this.maxConcurrency = config.getMaxConcurrency();
+        for (SmsLane lane : SmsLane.values()) {
+            SmsLaneConfig laneConfig = config.getLanes() == null ? null : config.getLanes().get(lane);
+            lanes[lane.ordinal()] = new Lane(lane, laneConfig == null ? new SmsLaneConfig() : laneConfig, maxConcurrency);
+        }
+    }
+
+    /**
+     * 全局共享调度器
+     */
+    public static SmsDispatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 提交发送任务
+     * <p>
+     * 通道队列已满时返回的future以{@link RejectedExecutionException}失败. 任务成功或失败都会完成返回的future.
+     *
+     * @param lane 通道
+     * @param task 发送任务, 如{@code () -> client.send(request)}
+     * @return 发送结果
+     */
+    public <T> CompletableFuture<T> submit(SmsLane lane, Callable<T> task) {
+        Assert.notNull(lane, "通道不能为空");
+        Task<T> pending = new Task<>(lanes[lane.ordinal()], task);
+        List<Task<?>> ready = new ArrayList<>(1);
+        lock.lock();
+        try {
+            Lane target = pending.lane;
+            if (target.queue.size() >= target.queueCapacity) {
+                pending.future.completeExceptionally(new RejectedExecutionException(lane + "通道排队已满"));
+                return pending.future;
+            }
+            if (target.queue.isEmpty()) {
+                // 空闲的通道从当前虚拟时间开始排队, 不累积额度
+                target.pass = Math.max(target.pass, virtualTime);
+            }
+            target.queue.add(pending);
+            drain(ready);
+        } finally {
+            lock.unlock();
+        }
+        start(ready);
+        return pending.future;
+    }
+
+    /**
+     * 通道排队中的任务数
+     */
+    public int getQueueSize(SmsLane lane) {
+        lock.lock();
+        try {
+            return lanes[lane.ordinal()].queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 通道执行中的任务数
+     */
+    public int getInFlight(SmsLane lane) {
+        lock.lock();
+        try {
+            return lanes[lane.ordinal()].inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭调度器, 全局共享调度器不应关闭
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 取出可以执行的任务, 调用方持有lock
+     */
+    private void drain(List<Task<?>> ready) {
+        while (inFlight < maxConcurrency) {
+            Lane next = null;
+            for (Lane lane : lanes) {
+                if (!lane.queue.isEmpty() && lane.inFlight < lane.maxConcurrency && (next == null || lane.pass < next.pass)) {
+                    next = lane;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            ready.add(next.queue.poll());
+            next.inFlight++;
+            inFlight++;
+            virtualTime = next.pass;
+            next.pass += next.stride;
+        }
+    }
+
+    private void start(List<Task<?>> ready) {
+        for (Task<?> task : ready) {
+            try {
+                executor.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                task.future.completeExceptionally(e);
+                release(task.lane);
+            }
+        }
+    }
+
+    private <T> void run(Task<T> task) {
+        SmsMetrics.getInstance().recordQueueDelay(task.lane.name, System.nanoTime() - task.submitted);
+        try {
+            task.future.complete(task.callable.call());
+        } catch (Throwable e) {
+            task.future.completeExceptionally(e);
+        } finally {
+            release(task.lane);
+        }
+    }
+
+    private void release(Lane lane) {
+        List<Task<?>> ready = new ArrayList<>(1);
+        lock.lock();
+        try {
+            lane.inFlight--;
+            inFlight--;
+            drain(ready);
+        } finally {
+            lock.unlock();
+        }
+        start(ready);
+    }
+
+    private static final class Lane {
+
+        private final String name;
+
+        private final long stride;
+
+        private final int maxConcurrency;
+
+        private final int queueCapacity;
+
+        private final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+
+        private int inFlight;
+
+        private long pass;
+
+        private Lane(SmsLane lane, SmsLaneConfig config, int totalConcurrency) {
+            this.name = lane.name().toLowerCase();
+            this.stride = STRIDE / Math.max(1, config.getWeight());
+            this.maxConcurrency = config.getMaxConcurrency() > 0 ? config.getMaxConcurrency() : totalConcurrency;
+            this.queueCapacity = Math.max(0, config.getQueueCapacity());
+        }
+    }
+
+    private static final class Task<T> {
+
+        private final Lane lane;
+
+        private final Callable<T> callable;
+
+        private final long submitted = System.nanoTime();
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Task(Lane lane, Callable<T> callable) {
+            this.lane = lane;
+            this.callable = callable;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dispatch;
+
+/**
+ * 发送通道, 按优先级从高到低排列
+ */
+public enum SmsLane {
+    /**
+     * 验证码
+     */
+    VERIFICATION,
+
+    /**
+     * 交易通知, 如订单、支付提醒
+     */
+    TRANSACTIONAL,
+
+    /**
+     * 营销群发
+     */
+    MARKETING
+}
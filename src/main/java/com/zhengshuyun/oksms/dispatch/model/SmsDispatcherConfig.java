@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dispatch.model;
+
+import com.zhengshuyun.oksms.dispatch.SmsLane;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class SmsDispatcherConfig {
+    /**
+     * 所有通道合计的最大并发数
+     */
+    private int maxConcurrency = 256;
+
+    /**
+     * 各通道配置, 未配置的通道使用默认值
+     * 验证码以外各通道的并发上限之和应小于总并发数, 差值即始终留给验证码的并发; 默认保留四分之一
+     */
+    private Map<SmsLane, SmsLaneConfig> lanes = new EnumMap<>(Map.of(
+            SmsLane.VERIFICATION, new SmsLaneConfig(8, 0, 10000),
+            SmsLane.TRANSACTIONAL, new SmsLaneConfig(4, 128, 10000),
+            SmsLane.MARKETING, new SmsLaneConfig(1, 64, 100000)));
+
+    /**
+     * 通道配置
+     */
+    public SmsLaneConfig lane(SmsLane lane) {
+        return lanes.computeIfAbsent(lane, key -> new SmsLaneConfig());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        SmsDispatcherConfig that = (SmsDispatcherConfig) object;
+        return maxConcurrency == that.maxConcurrency && Objects.equals(lanes, that.lanes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxConcurrency, lanes);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public Map<SmsLane, SmsLaneConfig> getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(Map<SmsLane, SmsLaneConfig> lanes) {
+        this.lanes = lanes;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dispatch.model;
+
+import java.util.Objects;
+
+public class SmsLaneConfig {
+    /**
+     * 权重, 多个通道同时排队时按权重比例分配并发
+     */
+    private int weight = 1;
+
+    /**
+     * 通道最大并发数, 0表示不单独限制
+     * 低优先级通道应小于总并发数, 为高优先级通道保留空闲并发
+     */
+    private int maxConcurrency;
+
+    /**
+     * 排队上限, 超出后拒绝
+     */
+    private int queueCapacity = 10000;
+
+    public SmsLaneConfig() {
+    }
+
+    public SmsLaneConfig(int weight, int maxConcurrency, int queueCapacity) {
+        this.weight = weight;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        SmsLaneConfig that = (SmsLaneConfig) object;
+        return weight == that.weight && maxConcurrency == that.maxConcurrency && queueCapacity == that.queueCapacity;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(weight, maxConcurrency, queueCapacity);
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email;
+
+import cn.hutool.v7.extra.mail.InternalMailUtil;
+import jakarta.mail.internet.InternetAddress;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 邮件地址解析缓存
+ * <p>
+ * 以原始地址字符串与编码为键缓存{@link InternalMailUtil#parseAddress(String, Charset)}的结果,
+ * 避免发件人、回复地址与常用收件人每封邮件重复解析和编码显示名称.
+ * {@link InternetAddress}是可变对象, 每次返回缓存内容的副本. 缓存数量超出上限时清理部分条目.
+ */
+public class AddressCache {
+
+    private static final AddressCache INSTANCE = new AddressCache(4096);
+
+    private final ConcurrentHashMap<Key, InternetAddress[]> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize 最多缓存的地址字符串数
+     */
+    public AddressCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("缓存数量必须大于0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 全局地址缓存, 最多缓存4096个地址字符串
+     */
+    public static AddressCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 解析地址, 一个字符串中可以包含多个以逗号分隔的地址
+     *
+     * @param address 地址字符串
+     * @param charset 显示名称的编码
+     * @return 地址列表
+     */
+    public InternetAddress[] parse(String address, Charset charset) {
+        return copy(get(address, charset));
+    }
+
+    /**
+     * 解析多个地址字符串
+     *
+     * @param addresses 地址字符串列表
+     * @param charset   显示名称的编码
+     * @return 地址列表
+     */
+    public InternetAddress[] parse(String[] addresses, Charset charset) {
+        if (addresses == null || addresses.length == 0) {
+            return new InternetAddress[0];
+        }
+        if (addresses.length == 1) {
+            return parse(addresses[0], charset);
+        }
+        List<InternetAddress> result = new ArrayList<>(addresses.length);
+        for (String address : addresses) {
+            for (InternetAddress internetAddress : get(address, charset)) {
+                result.add((InternetAddress) internetAddress.clone());
+            }
+        }
+        return result.toArray(InternetAddress[]::new);
+    }
+
+    /**
+     * 解析第一个地址
+     *
+     * @param address 地址字符串
+     * @param charset 显示名称的编码
+     * @return 地址
+     */
+    public InternetAddress parseFirst(String address, Charset charset) {
+        InternetAddress[] parsed = get(address, charset);
+        if (parsed.length == 0) {
+            return InternalMailUtil.parseFirstAddress(address, charset);
+        }
+        return (InternetAddress) parsed[0].clone();
+    }
+
+    /**
+     * 当前缓存的地址字符串数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private InternetAddress[] get(String address, Charset charset) {
+        Key key = new Key(address, charset);
+        InternetAddress[] parsed = entries.get(key);
+        if (parsed != null) {
+            hits.incrementAndGet();
+            return parsed;
+        }
+        misses.incrementAndGet();
+        parsed = InternalMailUtil.parseAddress(address, charset);
+        if (parsed == null) {
+            parsed = new InternetAddress[0];
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(key, parsed);
+        return parsed;
+    }
+
+    /**
+     * 清理任意条目至上限的90%
+     */
+    private void evict() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int target = maxSize / 10 * 9;
+            Iterator<Key> iterator = entries.keySet().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static InternetAddress[] copy(InternetAddress[] parsed) {
+        InternetAddress[] copy = new InternetAddress[parsed.length];
+        for (int i = 0; i < parsed.length; i++) {
+            copy[i] = (InternetAddress) parsed[i].clone();
+        }
+        return copy;
+    }
+
+    private record Key(String address, Charset charset) {
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email;
+
+import jakarta.activation.DataHandler;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeUtility;
+import jakarta.mail.internet.PreencodedMimeBodyPart;
+import jakarta.mail.util.ByteArrayDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 附件编码缓存
+ * <p>
+ * 以文件路径、修改时间与大小为键缓存base64编码后的附件内容, 同一附件发送给多个收件人时只编码一次.
+ * 按编码后的总字节数限制容量, 超出时淘汰最久未使用的附件; 文件修改后按新键重新编码, 旧内容随淘汰释放.
+ * 单个超过容量1/4的附件不缓存, 仍通过{@link MappedFileDataSource}流式发送.
+ */
+public class AttachmentCache {
+
+    private static final AttachmentCache INSTANCE = new AttachmentCache(64L * 1024 * 1024);
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxBytes 编码后内容的最大总字节数
+     */
+    public AttachmentCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于0");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 全局附件缓存, 容量64MB
+     */
+    public static AttachmentCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 创建已编码的附件
+     *
+     * @param dataSource 文件附件
+     * @return 已编码的附件, 文件过大不缓存时返回{@code null}
+     * @throws MessagingException 读取或编码异常
+     */
+    public MimeBodyPart createBodyPart(MappedFileDataSource dataSource) throws MessagingException {
+        File file = dataSource.getFile();
+        long length = file.length();
+        // base64编码后约为原大小的4/3, 另有每76字符一个换行
+        long encodedLength = length / 57 * 78 + 80;
+        if (encodedLength > maxBytes / 4) {
+            return null;
+        }
+
+        Key key = new Key(file.getAbsolutePath(), file.lastModified(), length);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            entry = new Entry(dataSource.getContentType(), encode(dataSource, (int) encodedLength));
+            put(key, entry);
+        }
+
+        PreencodedMimeBodyPart bodyPart = new PreencodedMimeBodyPart("base64");
+        bodyPart.setDataHandler(new DataHandler(new ByteArrayDataSource(entry.encoded, entry.contentType)));
+        return bodyPart;
+    }
+
+    /**
+     * 当前缓存的编码后总字节数
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 当前缓存的附件数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.encoded.length;
+        }
+        bytes += entry.encoded.length;
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            bytes -= iterator.next().getValue().encoded.length;
+            iterator.remove();
+        }
+    }
+
+    private static byte[] encode(MappedFileDataSource dataSource, int encodedLength) throws MessagingException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encodedLength);
+        try (InputStream in = dataSource.getInputStream()) {
+            OutputStream encoder = MimeUtility.encode(out, "base64");
+            in.transferTo(encoder);
+            // 与MimeBodyPart一致只flush, close会在末尾额外写入换行
+            encoder.flush();
+        } catch (IOException e) {
+            throw new MessagingException("附件读取失败: " + dataSource.getFile(), e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Key(String path, long lastModified, long length) {
+    }
+
+    private record Entry(String contentType, byte[] encoded) {
+    }
+}
@@ -16,18 +16,36 @@
 
 package com.zhengshuyun.oksms.email;
 
+import cn.hutool.v7.extra.mail.MailException;
 import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.email.model.MailRecipient;
 import com.zhengshuyun.oksms.email.model.MailSendRequest;
 import com.zhengshuyun.oksms.email.model.MailSendResponse;
+import com.zhengshuyun.oksms.metrics.SmsMetrics;
+import com.zhengshuyun.oksms.util.SmsExecutor;
 import com.zhengshuyun.oktool.core.util.Assert;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
 
+import java.io.File;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
 
 /**
  * 邮件客户端
  */
-public class MailClient {
+public class MailClient implements AutoCloseable {
+
+    /**
+     * 发送指标的结果码
+     */
+    private static final String OK = "OK";
+
+    private static final String INVALID_ADDRESS = "INVALID_ADDRESS";
+
+    private static final String ERROR = "ERROR";
 
     private final MailClientConfig mailClientConfig;
 
@@ -40,14 +58,161 @@ public class MailClient {
      * 发送邮件
      */
     public MailSendResponse send(MailSendRequest request) {
+        return send(buildMessage(request));
+    }
 
+    /**
+     * 编译邮件模板, 同一模板发送多封邮件时只需编译一次
+     *
+     * @param subject 标题, 可包含${name}占位符
+     * @param content 内容, 可包含${name}占位符
+     * @param html    是否为html
+     * @return 邮件模板
+     */
+    public MailTemplate compile(String subject, String content, boolean html) {
+        return new MailTemplate(mailClientConfig, subject, content, html);
+    }
+
+    /**
+     * 使用模板发送邮件
+     */
+    public MailSendResponse send(MailTemplate template, MailRecipient recipient) {
+        return send(template.render(recipient));
+    }
+
+    /**
+     * 异步发送邮件
+     * <p>
+     * 请求由{@link SmsExecutor#getInstance()}在虚拟线程中执行, 调用方线程不会阻塞.
+     */
+    public CompletableFuture<MailSendResponse> sendAsync(MailSendRequest request) {
+        return SmsExecutor.getInstance().submit(SmsExecutor.MAIL, () -> send(request));
+    }
+
+    /**
+     * 批量发送邮件
+     * <p>
+     * 所有邮件在同一个SMTP连接上依次发送, 单个连接的发送数达到上限或连接断开时自动换用新连接.
+     * 单封邮件失败不会中断整个批次, 返回结果与请求一一对应.
+     */
+    public List<MailSendResponse> sendBatch(List<MailSendRequest> requests) {
+        Assert.notEmptyParam(requests, "邮件列表");
+        return sendBatch(requests.size(), index -> buildMessage(requests.get(index)));
+    }
+
+    /**
+     * 使用模板批量发送邮件, 每个收件人只渲染模板中的变量部分
+     * <p>
+     * 连接复用与失败处理同{@link #sendBatch(List)}.
+     */
+    public List<MailSendResponse> sendBatch(MailTemplate template, List<MailRecipient> recipients) {
+        Assert.notNull(template, "邮件模板不能为空");
+        Assert.notEmptyParam(recipients, "收件人列表");
+        return sendBatch(recipients.size(), index -> template.render(recipients.get(index)));
+    }
+
+    private List<MailSendResponse> sendBatch(int size, IntFunction<SMTPMessage> messages) {
+        MailSendResponse[] responses = new MailSendResponse[size];
+        int index = 0;
+        while (index < size) {
+            try (SmtpTransportPool.Lease lease = lease()) {
+                while (index < size && !lease.isExhausted()) {
+                    SMTPMessage message;
+                    try {
+                        message = messages.apply(index);
+                    } catch (RuntimeException e) {
+                        responses[index++] = failure(e);
+                        continue;
+                    }
+
+                    long start = System.nanoTime();
+                    try {
+                        MailSendResponse response = new MailSendResponse();
+                        response.setMsgId(message.send(lease.getTransport()));
+                        record(OK, start);
+                        responses[index++] = response;
+                        lease.markSent();
+                    } catch (SendFailedException e) {
+                        record(INVALID_ADDRESS, start);
+                        responses[index++] = failure(SMTPMessage.wrapException(e));
+                    } catch (MessagingException e) {
+                        // 连接异常, 当前邮件可能已被服务端接收, 不重发; 后续邮件换用新连接
+                        lease.invalidate();
+                        record(ERROR, start);
+                        responses[index++] = failure(SMTPMessage.wrapException(e));
+                    } catch (RuntimeException e) {
+                        lease.invalidate();
+                        record(ERROR, start);
+                        responses[index++] = failure(e);
+                    }
+                }
+            } catch (MessagingException | RuntimeException e) {
+                // 无法建立连接或获取连接超时, 剩余邮件全部失败
+                MailSendResponse response = failure(e instanceof MessagingException me ? SMTPMessage.wrapException(me) : e);
+                while (index < size) {
+                    responses[index++] = response;
+                }
+            }
+        }
+        return List.of(responses);
+    }
+
+    /**
+     * 未启用连接池时每个租约使用独立连接, 归还时关闭
+     */
+    private SmtpTransportPool.Lease lease() throws MessagingException {
+        SmtpTransportPool pool = SmtpTransportPool.getInstance();
+        return mailClientConfig.isTransportPoolEnable() ? pool.lease(mailClientConfig) : pool.leaseUnpooled(mailClientConfig);
+    }
+
+    /**
+     * 关闭该账户的空闲SMTP连接, 关闭后仍可继续使用
+     */
+    @Override
+    public void close() {
+        SmtpTransportPool.getInstance().clear(mailClientConfig);
+    }
+
+    private MailSendResponse send(SMTPMessage message) {
+        long start = System.nanoTime();
+        String outcome = ERROR;
+        String msgId;
+        try {
+            if (mailClientConfig.isTransportPoolEnable()) {
+                try {
+                    msgId = SmtpTransportPool.getInstance().execute(mailClientConfig, message::send);
+                } catch (MessagingException e) {
+                    throw SMTPMessage.wrapException(e);
+                }
+            } else {
+                msgId = message.send();
+            }
+            outcome = OK;
+        } catch (MailException e) {
+            if (e.getCause() instanceof SendFailedException) {
+                outcome = INVALID_ADDRESS;
+            }
+            throw e;
+        } finally {
+            record(outcome, start);
+        }
+
+        MailSendResponse mailSendResponse = new MailSendResponse();
+        mailSendResponse.setMsgId(msgId);
+        return mailSendResponse;
+    }
+
+    private SMTPMessage buildMessage(MailSendRequest request) {
         Assert.notEmptyParam(request.getTos(), "收信人");
         List<String> tos = request.getTos();
         List<String> ccs = Optional.ofNullable(request.getCcs()).orElse(List.of());
         List<String> bccs = Optional.ofNullable(request.getBccs()).orElse(List.of());
         List<String> reply = Optional.ofNullable(request.getReplys()).orElse(List.of());
+        List<File> files = Optional.ofNullable(request.getFiles()).orElse(List.of());
 
-        String msgId = SMTPMessage.of(mailClientConfig, mailClientConfig.isUseGlobalSession(), mailClientConfig.getDebugOutput())
+        return SMTPMessage.of(mailClientConfig, mailClientConfig.isUseGlobalSession(), mailClientConfig.getDebugOutput())
+                // 附件编码缓存
+                .setAttachmentCache(mailClientConfig.isAttachmentCacheEnable() ? AttachmentCache.getInstance() : null)
                 // 标题
                 .setTitle(request.getSubject())
                 // 收件人
@@ -58,12 +223,20 @@ public class MailClient {
                 .setBccs(bccs.toArray(String[]::new))
                 // 回复地址(reply-to)
                 .setReply(reply.toArray(String[]::new))
-                // 内容和附件
+                // 内容
                 .setContent(request.getContent(), request.isHtml())
-                .send();
+                // 附件
+                .addFiles(files.toArray(File[]::new));
+    }
 
-        MailSendResponse mailSendResponse = new MailSendResponse();
-        mailSendResponse.setMsgId(msgId);
-        return mailSendResponse;
+    private static void record(String outcome, long start) {
+        SmsMetrics.getInstance().recordSend(SmsExecutor.MAIL, null, outcome, System.nanoTime() - start);
+    }
+
+    private static MailSendResponse failure(Exception e) {
+        MailSendResponse response = new MailSendResponse();
+        response.setSuccess(false);
+        response.setErrorMessage(e.getMessage());
+        return response;
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email;
+
+import cn.hutool.v7.core.text.StrUtil;
+import cn.hutool.v7.extra.mail.MailException;
+import cn.hutool.v7.extra.mail.MailUtil;
+import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.email.model.MailRecipient;
+import com.zhengshuyun.oktool.core.util.Assert;
+import jakarta.mail.Address;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeUtility;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 邮件模板
+ * <p>
+ * 标题与正文中的{@code ${name}}占位符在编译时拆分为静态片段, 渲染时只拼接变量值.
+ * 发件人、Session与正文内容类型在编译时确定, 无变量的标题预先编码, 每封邮件不再重复解析.
+ * 变量值按{@link String#valueOf(Object)}原样输出, 缺失的变量输出为空, HTML正文中的变量需调用方自行转义.
+ * 通过{@link MailClient#compile(String, String, boolean)}创建.
+ */
+public class MailTemplate {
+
+    private final MailClientConfig config;
+
+    private final Session session;
+
+    private final Address from;
+
+    private final Template subject;
+
+    private final Template content;
+
+    /**
+     * 无变量时预先编码的标题
+     */
+    private final String encodedSubject;
+
+    private final String contentType;
+
+    MailTemplate(MailClientConfig config, String subject, String content, boolean html) {
+        this.config = config;
+        this.session = MailUtil.getSession(config, config.isUseGlobalSession());
+        if (null != config.getDebugOutput()) {
+            session.setDebugOut(config.getDebugOutput());
+        }
+        this.from = StrUtil.isEmpty(config.getFrom()) ? null : AddressCache.getInstance().parseFirst(config.getFrom(), config.getCharset());
+        this.subject = Template.compile(subject);
+        this.content = Template.compile(content);
+        this.encodedSubject = this.subject.isStatic() ? encodeSubject(this.subject.render(null), config.getCharset()) : null;
+        this.contentType = SMTPMessage.contentType(config.getCharset(), html);
+    }
+
+    /**
+     * 渲染标题
+     *
+     * @param params 模板变量
+     * @return 标题
+     */
+    public String renderSubject(Map<String, ?> params) {
+        return subject.render(params);
+    }
+
+    /**
+     * 渲染正文
+     *
+     * @param params 模板变量
+     * @return 正文
+     */
+    public String renderContent(Map<String, ?> params) {
+        return content.render(params);
+    }
+
+    /**
+     * 构建收件人的邮件
+     */
+    SMTPMessage render(MailRecipient recipient) {
+        Assert.notNull(recipient, "收件人不能为空");
+        Assert.notEmptyParam(recipient.getTos(), "收信人");
+        Map<String, Object> params = recipient.getParams();
+
+        SMTPMessage message = new SMTPMessage(config, session, from);
+        if (encodedSubject != null) {
+            message.setEncodedTitle(encodedSubject);
+        } else {
+            message.setTitle(subject.render(params));
+        }
+        return message
+                .setTos(recipient.getTos().toArray(String[]::new))
+                .setContentWithType(content.render(params), contentType);
+    }
+
+    private static String encodeSubject(String subject, Charset charset) {
+        try {
+            // 与MimeMessage.setSubject的编码方式一致
+            return MimeUtility.fold(9, MimeUtility.encodeText(subject, charset == null ? null : charset.name(), null));
+        } catch (UnsupportedEncodingException e) {
+            throw new MailException(e);
+        }
+    }
+
+    /**
+     * 编译后的文本, {@code texts}比{@code names}多一个元素, 两者交替拼接
+     */
+    private static final class Template {
+        private static final String PREFIX = "${";
+        private static final char SUFFIX = '}';
+
+        private final String[] texts;
+        private final String[] names;
+        private final int staticLength;
+
+        private Template(String[] texts, String[] names) {
+            this.texts = texts;
+            this.names = names;
+            int length = 0;
+            for (String text : texts) {
+                length += text.length();
+            }
+            this.staticLength = length;
+        }
+
+        static Template compile(String source) {
+            if (source == null) {
+                return new Template(new String[]{StrUtil.EMPTY}, new String[0]);
+            }
+            List<String> texts = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int from = 0;
+            int start;
+            while ((start = source.indexOf(PREFIX, from)) >= 0) {
+                int end = source.indexOf(SUFFIX, start + PREFIX.length());
+                if (end < 0) {
+                    break;
+                }
+                texts.add(source.substring(from, start));
+                names.add(source.substring(start + PREFIX.length(), end).trim());
+                from = end + 1;
+            }
+            texts.add(source.substring(from));
+            return new Template(texts.toArray(String[]::new), names.toArray(String[]::new));
+        }
+
+        boolean isStatic() {
+            return names.length == 0;
+        }
+
+        String render(Map<String, ?> params) {
+            if (names.length == 0) {
+                return texts[0];
+            }
+            StringBuilder builder = new StringBuilder(staticLength + names.length * 16);
+            for (int i = 0; i < names.length; i++) {
+                builder.append(texts[i]);
+                Object value = params == null ? null : params.get(names[i]);
+                if (value != null) {
+                    builder.append(value);
+                }
+            }
+            return builder.append(texts[names.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email;
+
+import jakarta.activation.DataSource;
+import jakarta.activation.FileTypeMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射文件数据源
+ * <p>
+ * 按固定大小的窗口映射文件, 编码时逐块从映射区读取, 文件内容不会整体复制到堆中.
+ * 每次{@link #getInputStream()}都会重新打开文件, 连接重试时可以重复读取.
+ */
+public class MappedFileDataSource implements DataSource {
+
+    /**
+     * 单次映射的窗口大小
+     */
+    private static final int WINDOW_SIZE = 4 * 1024 * 1024;
+
+    private final File file;
+
+    private final String name;
+
+    private String contentType;
+
+    /**
+     * @param file 文件, 内容类型在首次使用时按扩展名检测
+     */
+    public MappedFileDataSource(File file) {
+        this(file, file.getName(), null);
+    }
+
+    /**
+     * @param file        文件
+     * @param name        附件名称
+     * @param contentType 内容类型, 为null时按扩展名检测
+     */
+    public MappedFileDataSource(File file, String name, String contentType) {
+        this.file = file;
+        this.name = name;
+        this.contentType = contentType;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new MappedInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        throw new IOException("不支持写入: " + file);
+    }
+
+    @Override
+    public String getContentType() {
+        if (contentType == null) {
+            contentType = FileTypeMap.getDefaultFileTypeMap().getContentType(file);
+        }
+        return contentType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 按窗口依次映射文件的输入流
+     */
+    private static final class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        private MappedByteBuffer window;
+
+        private MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextWindow()) {
+                return -1;
+            }
+            return window.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextWindow()) {
+                return -1;
+            }
+            int count = Math.min(len, window.remaining());
+            window.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return window == null ? 0 : window.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+
+        private boolean nextWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            if (position >= size) {
+                return false;
+            }
+            long length = Math.min(WINDOW_SIZE, size - position);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return true;
+        }
+    }
+}
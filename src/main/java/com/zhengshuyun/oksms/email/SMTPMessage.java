@@ -19,18 +19,17 @@ package com.zhengshuyun.oksms.email;
 import cn.hutool.v7.core.array.ArrayUtil;
 import cn.hutool.v7.core.date.DateUtil;
 import cn.hutool.v7.core.io.IORuntimeException;
-import cn.hutool.v7.core.io.IoUtil;
-import cn.hutool.v7.core.io.file.FileUtil;
 import cn.hutool.v7.core.text.StrUtil;
 import cn.hutool.v7.core.util.ObjUtil;
 import cn.hutool.v7.extra.mail.InternalMailUtil;
 import cn.hutool.v7.extra.mail.MailAccount;
 import cn.hutool.v7.extra.mail.MailException;
 import cn.hutool.v7.extra.mail.MailUtil;
+import com.zhengshuyun.oksms.metrics.SmsMetrics;
+import com.zhengshuyun.oksms.util.SmsExecutor;
 import jakarta.activation.DataHandler;
 import jakarta.activation.DataSource;
 import jakarta.activation.FileDataSource;
-import jakarta.activation.FileTypeMap;
 import jakarta.mail.*;
 import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
@@ -76,6 +75,10 @@ public class SMTPMessage extends MimeMessage {
 	 * 正文、附件和图片的混合部分
 	 */
 	private final Multipart multipart;
+	/**
+	 * 附件编码缓存，为null时不缓存
+	 */
+	private AttachmentCache attachmentCache;
 
 	/**
 	 * 构造
@@ -90,6 +93,29 @@ public class SMTPMessage extends MimeMessage {
 		init();
 	}
 
+	/**
+	 * 构造，使用已解析的发件人，避免每封邮件重复解析
+	 *
+	 * @param mailAccount 邮件账户
+	 * @param session     Session
+	 * @param from        发件人，null则从Session中自动获取
+	 */
+	public SMTPMessage(final MailAccount mailAccount, final Session session, final Address from) {
+		super(session);
+		this.mailAccount = mailAccount;
+		multipart = new MimeMultipart();
+		try {
+			if (null == from) {
+				super.setFrom();
+			} else {
+				super.setFrom(from);
+			}
+			super.setSentDate(DateUtil.now());
+		} catch (final MessagingException e) {
+			throw new MailException(e);
+		}
+	}
+
 	/**
 	 * 初始化
 	 */
@@ -101,7 +127,7 @@ public class SMTPMessage extends MimeMessage {
 				// 用户未提供发送方，则从Session中自动获取
 				super.setFrom();
 			} else {
-				super.setFrom(InternalMailUtil.parseFirstAddress(from, this.mailAccount.getCharset()));
+				super.setFrom(AddressCache.getInstance().parseFirst(from, this.mailAccount.getCharset()));
 			}
 			// 默认发送时间
 			super.setSentDate(DateUtil.now());
@@ -126,6 +152,21 @@ public class SMTPMessage extends MimeMessage {
 		return this;
 	}
 
+	/**
+	 * 设置已编码的标题
+	 *
+	 * @param encodedTitle 按RFC 2047编码并折行后的标题
+	 * @return this
+	 */
+	SMTPMessage setEncodedTitle(final String encodedTitle) {
+		try {
+			super.setHeader("Subject", encodedTitle);
+		} catch (final MessagingException e) {
+			throw new MailException(e);
+		}
+		return this;
+	}
+
 	// region ----- setRecipients
 
 	/**
@@ -168,7 +209,7 @@ public class SMTPMessage extends MimeMessage {
 	 */
 	public SMTPMessage setRecipients(final Message.RecipientType type, final String... addresses) {
 		try {
-			super.setRecipients(type, InternalMailUtil.parseAddressFromStrs(addresses, this.mailAccount.getCharset()));
+			super.setRecipients(type, AddressCache.getInstance().parse(addresses, this.mailAccount.getCharset()));
 		} catch (final MessagingException e) {
 			throw new MailException(e);
 		}
@@ -184,7 +225,7 @@ public class SMTPMessage extends MimeMessage {
 	 */
 	public SMTPMessage setReply(final String... reply) {
 		try {
-			super.setReplyTo(InternalMailUtil.parseAddressFromStrs(reply, this.mailAccount.getCharset()));
+			super.setReplyTo(AddressCache.getInstance().parse(reply, this.mailAccount.getCharset()));
 		} catch (final MessagingException e) {
 			throw new MailException(e);
 		}
@@ -207,6 +248,33 @@ public class SMTPMessage extends MimeMessage {
 		return this;
 	}
 
+	/**
+	 * 设置附件编码缓存，需在添加附件之前设置，之后添加的文件附件会复用已缓存的编码结果
+	 *
+	 * @param attachmentCache 附件编码缓存，null表示不缓存
+	 * @return this
+	 */
+	public SMTPMessage setAttachmentCache(final AttachmentCache attachmentCache) {
+		this.attachmentCache = attachmentCache;
+		return this;
+	}
+
+	/**
+	 * 设置邮件内容
+	 *
+	 * @param content     内容
+	 * @param contentType 完整的内容类型，如"text/html; charset=UTF-8"
+	 * @return this
+	 */
+	SMTPMessage setContentWithType(final String content, final String contentType) {
+		try {
+			super.setContent(buildContent(content, contentType));
+		} catch (final MessagingException e) {
+			throw new MailException(e);
+		}
+		return this;
+	}
+
 	// region ----- addAttachments
 
 	/**
@@ -228,17 +296,12 @@ public class SMTPMessage extends MimeMessage {
 	 * @return this
 	 */
 	public SMTPMessage addImage(final String cid, final File imageFile) {
-		InputStream in = null;
-		try {
-			in = FileUtil.getInputStream(imageFile);
-			return addImage(cid, in, FileTypeMap.getDefaultFileTypeMap().getContentType(imageFile));
-		} finally {
-			IoUtil.closeQuietly(in);
-		}
+		// 发送时从文件映射区读取，不复制到堆中
+		return addAttachments(new MappedFileDataSource(imageFile, cid, null));
 	}
 
 	/**
-	 * 增加图片，图片的键对应到邮件模板中的占位字符串
+	 * 增加图片，图片的键对应到邮件模板中的占位字符串，图片流会被完整读入内存，大图片建议使用{@link #addImage(String, File)}
 	 *
 	 * @param cid         图片与占位符，占位符格式为cid:${cid}
 	 * @param imageStream 图片流，不关闭
@@ -257,7 +320,8 @@ public class SMTPMessage extends MimeMessage {
 	}
 
 	/**
-	 * 设置文件类型附件，文件可以是图片文件，此时自动设置cid（正文中引用图片），默认cid为文件名
+	 * 设置文件类型附件，文件可以是图片文件，此时自动设置cid（正文中引用图片），默认cid为文件名<br>
+	 * 文件通过{@link MappedFileDataSource}按块读取编码，不会整体读入内存
 	 *
 	 * @param files 附件文件列表
 	 * @return this
@@ -269,7 +333,7 @@ public class SMTPMessage extends MimeMessage {
 
 		final DataSource[] attachments = new DataSource[files.length];
 		for (int i = 0; i < files.length; i++) {
-			attachments[i] = new FileDataSource(files[i]);
+			attachments[i] = new MappedFileDataSource(files[i]);
 		}
 		return addAttachments(attachments);
 	}
@@ -333,14 +397,45 @@ public class SMTPMessage extends MimeMessage {
 		try {
 			return doSend();
 		} catch (final MessagingException e) {
-			if (e instanceof SendFailedException) {
-				// 当地址无效时，显示更加详细的无效地址信息
-				final Address[] invalidAddresses = ((SendFailedException) e).getInvalidAddresses();
-				final String msg = StrUtil.format("Invalid Addresses: {}", ArrayUtil.toString(invalidAddresses));
-				throw new MailException(msg, e);
+			throw wrapException(e);
+		}
+	}
+
+	/**
+	 * 使用已连接的{@link Transport}发送，发送完成后不关闭连接
+	 *
+	 * @param transport 已连接的Transport
+	 * @return message-id
+	 * @throws MessagingException 发送异常
+	 */
+	public String send(final Transport transport) throws MessagingException {
+		saveChanges();
+		final long start = System.nanoTime();
+		try {
+			transport.sendMessage(this, getAllRecipients());
+		} finally {
+			SmsMetrics.getInstance().recordTransfer(SmsExecutor.MAIL, System.nanoTime() - start);
+		}
+		return getMessageID();
+	}
+
+	/**
+	 * 包装发送异常
+	 *
+	 * @param e 发送异常
+	 * @return 邮件异常
+	 */
+	static MailException wrapException(final MessagingException e) {
+		if (e instanceof SendFailedException) {
+			// 当地址无效时，显示更加详细的无效地址信息
+			final Address[] invalidAddresses = ((SendFailedException) e).getInvalidAddresses();
+			if (invalidAddresses != null) {
+				SmsMetrics.getInstance().recordInvalidAddresses(invalidAddresses.length);
 			}
-			throw new MailException(e);
+			final String msg = StrUtil.format("Invalid Addresses: {}", ArrayUtil.toString(invalidAddresses));
+			return new MailException(msg, e);
 		}
+		return new MailException(e);
 	}
 
     /**
@@ -353,16 +448,39 @@ public class SMTPMessage extends MimeMessage {
      * @throws MessagingException 消息异常
      */
     private Multipart buildContent(final String content, final Charset charset, final boolean isHtml) throws MessagingException {
-        final String charsetStr = null != charset ? charset.name() : MimeUtility.getDefaultJavaCharset();
+        return buildContent(content, contentType(charset, isHtml));
+    }
+
+    /**
+     * 构建邮件信息主体
+     *
+     * @param content     内容, {@code null}则使用{@link StrUtil#EMPTY}替换
+     * @param contentType 完整的内容类型
+     * @return 邮件信息主体
+     * @throws MessagingException 消息异常
+     */
+    private Multipart buildContent(final String content, final String contentType) throws MessagingException {
         // 内容如果是null会抛异常, 使用空字符串代替
         final String contentStr = content == null ? StrUtil.EMPTY : content;
         // 正文
         final MimeBodyPart body = new MimeBodyPart();
-        body.setContent(contentStr, StrUtil.format("text/{}; charset={}", isHtml ? "html" : "plain", charsetStr));
+        body.setContent(contentStr, contentType);
         addBodyPart(body, 0);
         return this.multipart;
     }
 
+    /**
+     * 正文的内容类型
+     *
+     * @param charset 编码，{@code null}则使用{@link MimeUtility#getDefaultJavaCharset()}
+     * @param isHtml  是否为HTML
+     * @return 内容类型
+     */
+    static String contentType(final Charset charset, final boolean isHtml) {
+        final String charsetStr = null != charset ? charset.name() : MimeUtility.getDefaultJavaCharset();
+        return StrUtil.format("text/{}; charset={}", isHtml ? "html" : "plain", charsetStr);
+    }
+
 	/**
 	 * 执行发送
 	 *
@@ -370,8 +488,29 @@ public class SMTPMessage extends MimeMessage {
 	 * @throws MessagingException 发送异常
 	 */
 	private String doSend() throws MessagingException {
-		Transport.send(this);
-		return getMessageID();
+		// 等同于Transport.send(this), 分开连接与传输以便分别记录耗时
+		final Transport transport = getSession().getTransport();
+		final long start = System.nanoTime();
+		transport.connect();
+		SmsMetrics.getInstance().recordConnect(SmsExecutor.MAIL, System.nanoTime() - start);
+		final String messageId;
+		try {
+			messageId = send(transport);
+		} catch (final MessagingException | RuntimeException e) {
+			// 关闭连接失败不能掩盖发送异常
+			try {
+				transport.close();
+			} catch (final MessagingException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+		try {
+			transport.close();
+		} catch (final MessagingException ignored) {
+			// 邮件已被服务端接收, QUIT失败不影响发送结果
+		}
+		return messageId;
 	}
 
 	/**
@@ -382,24 +521,33 @@ public class SMTPMessage extends MimeMessage {
 	 * @return 邮件信息主体
 	 */
 	private MimeBodyPart buildBodyPart(final DataSource attachment, final Charset charset) {
-		final MimeBodyPart bodyPart = new MimeBodyPart();
-
 		try {
-			bodyPart.setDataHandler(new DataHandler(attachment));
+			MimeBodyPart bodyPart = null;
+			if (null != this.attachmentCache && attachment instanceof MappedFileDataSource) {
+				bodyPart = this.attachmentCache.createBodyPart((MappedFileDataSource) attachment);
+			}
+			if (null == bodyPart) {
+				bodyPart = new MimeBodyPart();
+				bodyPart.setDataHandler(new DataHandler(attachment));
+				if (attachment instanceof MappedFileDataSource) {
+					// 指定编码，避免发送前为检测编码完整读取一遍文件
+					bodyPart.setHeader("Content-Transfer-Encoding", "base64");
+				}
+			}
 			String nameEncoded = attachment.getName();
 			if (this.mailAccount.isEncodefilename()) {
 				nameEncoded = InternalMailUtil.encodeText(nameEncoded, charset);
 			}
 			// 普通附件文件名
 			bodyPart.setFileName(nameEncoded);
-			if (StrUtil.startWith(attachment.getContentType(), "image/")) {
+			if (StrUtil.startWith(bodyPart.getDataHandler().getContentType(), "image/")) {
 				// 图片附件，用于正文中引用图片
 				bodyPart.setContentID(nameEncoded);
 				bodyPart.setDisposition(MimeBodyPart.INLINE);
 			}
+			return bodyPart;
 		} catch (final MessagingException e) {
 			throw new MailException(e);
 		}
-		return bodyPart;
 	}
 }
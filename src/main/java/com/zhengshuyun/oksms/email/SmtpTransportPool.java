@@ -0,0 +1,388 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email;
+
+import cn.hutool.v7.extra.mail.MailException;
+import cn.hutool.v7.extra.mail.MailUtil;
+import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.metrics.SmsMetrics;
+import com.zhengshuyun.oksms.util.SmsExecutor;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SMTP连接池
+ * <p>
+ * 按账户、影响Session的连接参数及连接池配置缓存已连接的{@link Transport}, 复用TCP连接、TLS握手与AUTH认证结果.
+ * 复用前通过NOOP检测连接可用性, 空闲超时或发送数达到上限的连接会被关闭重建.
+ */
+public class SmtpTransportPool {
+
+    private static final SmtpTransportPool INSTANCE = new SmtpTransportPool();
+
+    /**
+     * 空闲连接清理周期(毫秒)
+     */
+    private static final long EVICT_INTERVAL = 30000;
+
+    private final ConcurrentHashMap<Key, Partition> partitions = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService evictor;
+
+    /**
+     * 全局连接池
+     */
+    public static SmtpTransportPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 借出连接执行操作, 操作完成后归还连接
+     * <p>
+     * 复用的连接在借出时已通过NOOP检测. 发送过程中失败时关闭该连接, 不使用新连接重发,
+     * 服务端可能已在连接断开前接收了邮件, 重发会导致重复邮件.
+     *
+     * @param config   邮箱配置
+     * @param callback 连接操作
+     * @return 操作结果
+     * @throws MessagingException 发送异常
+     */
+    public <T> T execute(MailClientConfig config, TransportCallback<T> callback) throws MessagingException {
+        Partition partition = partition(config);
+        PooledTransport pooled = partition.borrow();
+        try {
+            T result = callback.doInTransport(pooled.transport);
+            pooled.messages++;
+            partition.release(pooled, true);
+            return result;
+        } catch (SendFailedException e) {
+            // 地址无效不影响连接本身
+            partition.release(pooled, true);
+            throw e;
+        } catch (MessagingException | RuntimeException e) {
+            partition.release(pooled, false);
+            throw e;
+        }
+    }
+
+    /**
+     * 借出一个连接, 用于在同一连接上连续发送多封邮件, 使用完毕后需调用{@link Lease#close()}归还
+     *
+     * @param config 邮箱配置
+     * @return 连接租约
+     * @throws MessagingException 建立连接异常
+     */
+    public Lease lease(MailClientConfig config) throws MessagingException {
+        Partition partition = partition(config);
+        return new Lease(partition, partition.borrow());
+    }
+
+    /**
+     * 建立一个不放入连接池的连接, 归还时关闭, 用于未启用连接池时的批量发送
+     *
+     * @param config 邮箱配置
+     * @return 连接租约
+     * @throws MessagingException 建立连接异常
+     */
+    public Lease leaseUnpooled(MailClientConfig config) throws MessagingException {
+        Partition partition = new Partition(config);
+        partition.retired = true;
+        return new Lease(partition, partition.borrow());
+    }
+
+    /**
+     * 关闭指定账户的全部空闲连接, 借出中的连接在归还时关闭
+     *
+     * @param config 邮箱配置
+     */
+    public void clear(MailClientConfig config) {
+        Partition partition = partitions.remove(Key.of(config));
+        if (partition != null) {
+            partition.retire();
+        }
+    }
+
+    /**
+     * 清理所有账户中空闲超时的连接
+     */
+    public void evictIdle() {
+        for (Partition partition : partitions.values()) {
+            partition.evictIdle();
+        }
+    }
+
+    /**
+     * 当前的分区数, 每组不同的连接配置对应一个分区
+     */
+    int getPartitions() {
+        return partitions.size();
+    }
+
+    private Partition partition(MailClientConfig config) {
+        Key key = Key.of(config);
+        Partition partition = partitions.get(key);
+        if (partition != null) {
+            return partition;
+        }
+        startEvictor();
+        return partitions.computeIfAbsent(key, k -> new Partition(config));
+    }
+
+    private void startEvictor() {
+        if (evictor != null) {
+            return;
+        }
+        synchronized (this) {
+            if (evictor == null) {
+                ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "oksms-smtp-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                executor.scheduleWithFixedDelay(this::evictIdle, EVICT_INTERVAL, EVICT_INTERVAL, TimeUnit.MILLISECONDS);
+                evictor = executor;
+            }
+        }
+    }
+
+    private static void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException ignored) {
+            // 连接可能已经断开
+        }
+    }
+
+    /**
+     * 连接操作
+     */
+    @FunctionalInterface
+    public interface TransportCallback<T> {
+        T doInTransport(Transport transport) throws MessagingException;
+    }
+
+    /**
+     * 连接租约
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Partition partition;
+        private final PooledTransport pooled;
+        private boolean broken;
+        private boolean closed;
+
+        private Lease(Partition partition, PooledTransport pooled) {
+            this.partition = partition;
+            this.pooled = pooled;
+        }
+
+        public Transport getTransport() {
+            return pooled.transport;
+        }
+
+        /**
+         * 是否为复用的连接
+         */
+        public boolean isReused() {
+            return pooled.reused;
+        }
+
+        /**
+         * 记录一次成功发送
+         */
+        public void markSent() {
+            pooled.messages++;
+        }
+
+        /**
+         * 当前连接的发送数是否已达上限
+         */
+        public boolean isExhausted() {
+            return broken || pooled.messages >= partition.config.getTransportMaxMessages();
+        }
+
+        /**
+         * 标记连接不可用, 归还时将被关闭
+         */
+        public void invalidate() {
+            broken = true;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                partition.release(pooled, !broken);
+            }
+        }
+    }
+
+    /**
+     * 分区键, 包含影响Session的全部连接参数与连接池参数, 修改任一参数后使用新的分区
+     * <p>
+     * 密码按内容比较, 相同配置分别创建的客户端共用同一分区.
+     */
+    private record Key(String host, Integer port, Boolean auth, String authMechanisms, String user, String pass,
+                       String from, boolean debug, boolean starttlsEnable, Boolean sslEnable, String sslProtocols,
+                       String socketFactoryClass, boolean socketFactoryFallback, int socketFactoryPort,
+                       long timeout, long connectionTimeout, long writeTimeout, Map<String, Object> customProperty,
+                       boolean useGlobalSession, PrintStream debugOutput,
+                       int maxSize, long idleTimeout, int maxMessages, long borrowTimeout) {
+        static Key of(MailClientConfig config) {
+            return new Key(config.getHost(), config.getPort(), config.isAuth(), config.getAuthMechanisms(), config.getUser(),
+                    config.getPass() == null ? null : String.valueOf(config.getPass()),
+                    config.getFrom(), config.isDebug(), config.isStarttlsEnable(), config.isSslEnable(), config.getSslProtocols(),
+                    config.getSocketFactoryClass(), config.isSocketFactoryFallback(), config.getSocketFactoryPort(),
+                    config.getTimeout(), config.getConnectionTimeout(), config.getWriteTimeout(), new HashMap<>(config.getCustomProperty()),
+                    config.isUseGlobalSession(), config.getDebugOutput(),
+                    config.getTransportPoolMaxSize(), config.getTransportIdleTimeout(),
+                    config.getTransportMaxMessages(), config.getTransportBorrowTimeout());
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private boolean reused;
+        private int messages;
+        private long lastUsed;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    /**
+     * 单个账户的连接集合
+     */
+    private static final class Partition {
+        private final MailClientConfig config;
+        private final Semaphore permits;
+        private final ConcurrentLinkedDeque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+
+        /**
+         * 已移出连接池, 归还的连接直接关闭
+         */
+        private volatile boolean retired;
+
+        private Partition(MailClientConfig config) {
+            this.config = config;
+            this.permits = new Semaphore(Math.max(1, config.getTransportPoolMaxSize()));
+        }
+
+        private PooledTransport borrow() throws MessagingException {
+            acquire();
+            try {
+                PooledTransport pooled;
+                while ((pooled = idle.pollFirst()) != null) {
+                    if (isExpired(pooled, System.currentTimeMillis())) {
+                        closeQuietly(pooled.transport);
+                        continue;
+                    }
+                    // SMTPTransport.isConnected() 会发送NOOP检测连接
+                    if (pooled.transport.isConnected()) {
+                        pooled.reused = true;
+                        return pooled;
+                    }
+                    closeQuietly(pooled.transport);
+                }
+                return connect();
+            } catch (MessagingException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void release(PooledTransport pooled, boolean reusable) {
+            try {
+                if (!retired && reusable && pooled.messages < config.getTransportMaxMessages()) {
+                    pooled.lastUsed = System.currentTimeMillis();
+                    idle.offerFirst(pooled);
+                    // 与retire()并发时由归还方关闭
+                    if (retired && idle.removeFirstOccurrence(pooled)) {
+                        closeQuietly(pooled.transport);
+                    }
+                } else {
+                    closeQuietly(pooled.transport);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void retire() {
+            retired = true;
+            closeIdle();
+        }
+
+        private void acquire() {
+            try {
+                if (!permits.tryAcquire(config.getTransportBorrowTimeout(), TimeUnit.MILLISECONDS)) {
+                    throw new MailException("获取SMTP连接超时: {}:{}", config.getHost(), config.getPort());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailException(e);
+            }
+        }
+
+        private PooledTransport connect() throws MessagingException {
+            Session session = MailUtil.getSession(config, config.isUseGlobalSession());
+            if (null != config.getDebugOutput()) {
+                session.setDebugOut(config.getDebugOutput());
+            }
+            Transport transport = session.getTransport();
+            long start = System.nanoTime();
+            transport.connect();
+            SmsMetrics.getInstance().recordConnect(SmsExecutor.MAIL, System.nanoTime() - start);
+            return new PooledTransport(transport);
+        }
+
+        private boolean isExpired(PooledTransport pooled, long now) {
+            return now - pooled.lastUsed > config.getTransportIdleTimeout();
+        }
+
+        private void evictIdle() {
+            long now = System.currentTimeMillis();
+            Iterator<PooledTransport> iterator = idle.descendingIterator();
+            while (iterator.hasNext()) {
+                PooledTransport pooled = iterator.next();
+                if (isExpired(pooled, now) && idle.removeLastOccurrence(pooled)) {
+                    closeQuietly(pooled.transport);
+                }
+            }
+        }
+
+        private void closeIdle() {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                closeQuietly(pooled.transport);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.zhengshuyun.oksms.email.model;
 import cn.hutool.v7.extra.mail.MailAccount;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.Objects;
 
 public class MailClientConfig extends MailAccount {
@@ -33,6 +34,45 @@ public class MailClientConfig extends MailAccount {
      */
     private PrintStream debugOutput;
 
+    /**
+     * 是否复用SMTP连接
+     */
+    private boolean transportPoolEnable = true;
+
+    /**
+     * 每个账户的最大SMTP连接数
+     */
+    private int transportPoolMaxSize = 8;
+
+    /**
+     * 空闲连接超时时间(毫秒)
+     */
+    private long transportIdleTimeout = 60000;
+
+    /**
+     * 单个连接最多发送的邮件数, 达到后关闭重建
+     */
+    private int transportMaxMessages = 100;
+
+    /**
+     * 获取连接的最大等待时间(毫秒)
+     */
+    private long transportBorrowTimeout = 10000;
+
+    /**
+     * 是否缓存文件附件的编码结果, 适用于同一附件发送给大量收件人
+     */
+    private boolean attachmentCacheEnable;
+
+    /**
+     * SMTP超时时间(毫秒), 父类不提供读取方法, 在此记录以参与配置比较
+     */
+    private long timeout;
+
+    private long connectionTimeout;
+
+    private long writeTimeout;
+
     public boolean isUseGlobalSession() {
         return useGlobalSession;
     }
@@ -49,15 +89,93 @@ public class MailClientConfig extends MailAccount {
         this.debugOutput = debugOutput;
     }
 
+    public boolean isTransportPoolEnable() {
+        return transportPoolEnable;
+    }
+
+    public void setTransportPoolEnable(boolean transportPoolEnable) {
+        this.transportPoolEnable = transportPoolEnable;
+    }
+
+    public int getTransportPoolMaxSize() {
+        return transportPoolMaxSize;
+    }
+
+    public void setTransportPoolMaxSize(int transportPoolMaxSize) {
+        this.transportPoolMaxSize = transportPoolMaxSize;
+    }
+
+    public long getTransportIdleTimeout() {
+        return transportIdleTimeout;
+    }
+
+    public void setTransportIdleTimeout(long transportIdleTimeout) {
+        this.transportIdleTimeout = transportIdleTimeout;
+    }
+
+    public int getTransportMaxMessages() {
+        return transportMaxMessages;
+    }
+
+    public void setTransportMaxMessages(int transportMaxMessages) {
+        this.transportMaxMessages = transportMaxMessages;
+    }
+
+    public long getTransportBorrowTimeout() {
+        return transportBorrowTimeout;
+    }
+
+    public void setTransportBorrowTimeout(long transportBorrowTimeout) {
+        this.transportBorrowTimeout = transportBorrowTimeout;
+    }
+
+    public boolean isAttachmentCacheEnable() {
+        return attachmentCacheEnable;
+    }
+
+    public void setAttachmentCacheEnable(boolean attachmentCacheEnable) {
+        this.attachmentCacheEnable = attachmentCacheEnable;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public MailAccount setTimeout(long timeout) {
+        this.timeout = timeout;
+        return super.setTimeout(timeout);
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    @Override
+    public MailAccount setConnectionTimeout(long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+        return super.setConnectionTimeout(connectionTimeout);
+    }
+
+    public long getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    @Override
+    public MailAccount setWriteTimeout(long writeTimeout) {
+        this.writeTimeout = writeTimeout;
+        return super.setWriteTimeout(writeTimeout);
+    }
+
     @Override
     public boolean equals(Object object) {
         if (object == null || getClass() != object.getClass()) return false;
         MailClientConfig that = (MailClientConfig) object;
-        return useGlobalSession == that.useGlobalSession && Objects.equals(debugOutput, that.debugOutput);
+        return Objects.equals(getHost(), that.getHost()) && Objects.equals(getPort(), that.getPort()) && Objects.equals(isAuth(), that.isAuth()) && Objects.equals(getAuthMechanisms(), that.getAuthMechanisms()) && Objects.equals(getUser(), that.getUser()) && Arrays.equals(getPass(), that.getPass()) && Objects.equals(getFrom(), that.getFrom()) && isDebug() == that.isDebug() && Objects.equals(getCharset(), that.getCharset()) && isEncodefilename() == that.isEncodefilename() && isStarttlsEnable() == that.isStarttlsEnable() && Objects.equals(isSslEnable(), that.isSslEnable()) && Objects.equals(getSslProtocols(), that.getSslProtocols()) && Objects.equals(getSocketFactoryClass(), that.getSocketFactoryClass()) && isSocketFactoryFallback() == that.isSocketFactoryFallback() && getSocketFactoryPort() == that.getSocketFactoryPort() && timeout == that.timeout && connectionTimeout == that.connectionTimeout && writeTimeout == that.writeTimeout && Objects.equals(getCustomProperty(), that.getCustomProperty()) && useGlobalSession == that.useGlobalSession && transportPoolEnable == that.transportPoolEnable && transportPoolMaxSize == that.transportPoolMaxSize && transportIdleTimeout == that.transportIdleTimeout && transportMaxMessages == that.transportMaxMessages && transportBorrowTimeout == that.transportBorrowTimeout && attachmentCacheEnable == that.attachmentCacheEnable && Objects.equals(debugOutput, that.debugOutput);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(useGlobalSession, debugOutput);
+        return Objects.hash(getHost(), getPort(), isAuth(), getAuthMechanisms(), getUser(), Arrays.hashCode(getPass()), getFrom(), isDebug(), getCharset(), isEncodefilename(), isStarttlsEnable(), isSslEnable(), getSslProtocols(), getSocketFactoryClass(), isSocketFactoryFallback(), getSocketFactoryPort(), timeout, connectionTimeout, writeTimeout, getCustomProperty(), useGlobalSession, debugOutput, transportPoolEnable, transportPoolMaxSize, transportIdleTimeout, transportMaxMessages, transportBorrowTimeout, attachmentCacheEnable);
     }
 }
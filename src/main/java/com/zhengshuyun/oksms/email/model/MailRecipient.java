@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class MailRecipient {
+    /**
+     * 收信人
+     */
+    private List<String> tos;
+
+    /**
+     * 模板变量, 对应模板中的${name}占位符
+     * 示例：{"name":"张三","code":"123456"}
+     */
+    private Map<String, Object> params;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        MailRecipient that = (MailRecipient) object;
+        return Objects.equals(tos, that.tos) && Objects.equals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tos, params);
+    }
+
+    public List<String> getTos() {
+        return tos;
+    }
+
+    public void setTos(List<String> tos) {
+        this.tos = tos;
+    }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, Object> params) {
+        this.params = params;
+    }
+}
@@ -21,16 +21,26 @@ import java.util.Objects;
 public class MailSendResponse {
     private String msgId;
 
+    /**
+     * 是否发送成功
+     */
+    private boolean success = true;
+
+    /**
+     * 失败原因, 发送成功时为null
+     */
+    private String errorMessage;
+
     @Override
     public boolean equals(Object object) {
         if (object == null || getClass() != object.getClass()) return false;
         MailSendResponse that = (MailSendResponse) object;
-        return Objects.equals(msgId, that.msgId);
+        return success == that.success && Objects.equals(msgId, that.msgId) && Objects.equals(errorMessage, that.errorMessage);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(msgId);
+        return Objects.hash(msgId, success, errorMessage);
     }
 
     public String getMsgId() {
@@ -40,4 +50,20 @@ public class MailSendResponse {
     public void setMsgId(String msgId) {
         this.msgId = msgId;
     }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
 }
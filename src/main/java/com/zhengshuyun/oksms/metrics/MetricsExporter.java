@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.metrics;
+
+import java.util.Map;
+
+/**
+ * 指标导出
+ * <p>
+ * 由使用方对接自己的监控系统, 如Micrometer或Prometheus客户端, 本库不依赖任何监控实现.
+ */
+public interface MetricsExporter {
+
+    /**
+     * 导出计数器
+     *
+     * @param name  指标名
+     * @param tags  标签
+     * @param value 累计值
+     */
+    void counter(String name, Map<String, String> tags, long value);
+
+    /**
+     * 导出直方图
+     *
+     * @param name      指标名
+     * @param tags      标签
+     * @param histogram 直方图
+     */
+    void histogram(String name, Map<String, String> tags, LatencyHistogram histogram);
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 发送指标
+ * <p>
+ * 各客户端在发送路径上记录按服务商、模板与结果码分组的延迟, 以及限流、无效地址计数与SMTP建连、传输耗时.
+ * 指标按名称逐级查找, 首次出现的组合之后不再分配对象. 通过{@link #export(MetricsExporter)}导出.
+ * <p>
+ * 模板与结果码来自调用方与服务商, 每个服务商最多记录{@link #MAX_TEMPLATES}个模板, 每个模板最多{@link #MAX_OUTCOMES}个结果码,
+ * 超出的归入{@link #OTHER}, 直方图数量有上限.
+ */
+public class SmsMetrics {
+
+    public static final String SEND_LATENCY = "oksms.send.latency";
+
+    public static final String CONNECT_LATENCY = "oksms.connect.latency";
+
+    public static final String TRANSFER_LATENCY = "oksms.transfer.latency";
+
+    public static final String THROTTLED = "oksms.throttled";
+
+    public static final String RATE_LIMITED = "oksms.rate.limited";
+
+    public static final String INVALID_ADDRESSES = "oksms.invalid.addresses";
+
+    public static final String QUEUE_DELAY = "oksms.queue.delay";
+
+    public static final String RETRIES = "oksms.retries";
+
+    public static final String HEDGES = "oksms.hedges";
+
+    public static final String RETRY_BUDGET_EXHAUSTED = "oksms.retry.budget.exhausted";
+
+    /**
+     * 发送抛出异常时的结果码
+     */
+    public static final String EXCEPTION = "EXCEPTION";
+
+    /**
+     * 超出数量上限的模板或结果码
+     */
+    public static final String OTHER = "other";
+
+    /**
+     * 每个服务商最多记录的模板数
+     */
+    public static final int MAX_TEMPLATES = 256;
+
+    /**
+     * 每个模板最多记录的结果码数
+     */
+    public static final int MAX_OUTCOMES = 32;
+
+    private static final SmsMetrics INSTANCE = new SmsMetrics();
+
+    /**
+     * 服务商 -> 模板 -> 结果码 -> 直方图
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>>> sends = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LatencyHistogram> connects = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LatencyHistogram> transfers = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LatencyHistogram> queueDelays = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LongAdder> throttled = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LongAdder> rateLimited = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LongAdder> retries = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LongAdder> hedges = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LongAdder> retryBudgetExhausted = new ConcurrentHashMap<>();
+
+    private final LongAdder invalidAddresses = new LongAdder();
+
+    /**
+     * 全局指标
+     */
+    public static SmsMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 记录一次发送
+     *
+     * @param provider 服务商
+     * @param template 模板, 没有模板时为null
+     * @param outcome  结果码, 如阿里云的"OK"; 抛出异常时为{@link #EXCEPTION}
+     * @param nanos    耗时(纳秒)
+     */
+    public void recordSend(String provider, String template, String outcome, long nanos) {
+        getSendLatency(provider, template, outcome).record(nanos);
+    }
+
+    /**
+     * 记录服务商返回的限流
+     */
+    public void recordThrottled(String provider) {
+        counter(throttled, provider).increment();
+    }
+
+    /**
+     * 记录被本地频率限制拒绝的请求
+     */
+    public void recordRateLimited(String provider) {
+        counter(rateLimited, provider).increment();
+    }
+
+    /**
+     * 记录一次重试
+     */
+    public void recordRetry(String provider) {
+        counter(retries, provider).increment();
+    }
+
+    /**
+     * 记录一次对冲请求
+     */
+    public void recordHedge(String provider) {
+        counter(hedges, provider).increment();
+    }
+
+    /**
+     * 记录因重试预算耗尽而放弃的重试
+     */
+    public void recordRetryBudgetExhausted(String provider) {
+        counter(retryBudgetExhausted, provider).increment();
+    }
+
+    /**
+     * 记录无效的邮件地址
+     *
+     * @param count 地址数
+     */
+    public void recordInvalidAddresses(int count) {
+        invalidAddresses.add(count);
+    }
+
+    /**
+     * 记录建立连接(含TLS握手与认证)的耗时
+     */
+    public void recordConnect(String provider, long nanos) {
+        histogram(connects, provider).record(nanos);
+    }
+
+    /**
+     * 记录在已建立的连接上传输一条消息的耗时
+     */
+    public void recordTransfer(String provider, long nanos) {
+        histogram(transfers, provider).record(nanos);
+    }
+
+    /**
+     * 记录任务在调度通道中的排队时间
+     *
+     * @param lane 通道
+     */
+    public void recordQueueDelay(String lane, long nanos) {
+        histogram(queueDelays, lane).record(nanos);
+    }
+
+    /**
+     * 发送延迟直方图, 模板或结果码超出数量上限时返回{@link #OTHER}分组
+     */
+    public LatencyHistogram getSendLatency(String provider, String template, String outcome) {
+        ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>> templates = sends.get(provider);
+        if (templates == null) {
+            templates = sends.computeIfAbsent(provider, key -> new ConcurrentHashMap<>());
+        }
+        ConcurrentHashMap<String, LatencyHistogram> outcomes = bounded(templates, template == null ? "" : template, MAX_TEMPLATES, ConcurrentHashMap::new);
+        if (outcomes == null) {
+            outcomes = templates.computeIfAbsent(OTHER, key -> new ConcurrentHashMap<>());
+        }
+        LatencyHistogram histogram = bounded(outcomes, outcome == null ? "" : outcome, MAX_OUTCOMES, LatencyHistogram::new);
+        return histogram != null ? histogram : histogram(outcomes, OTHER);
+    }
+
+    public LatencyHistogram getConnectLatency(String provider) {
+        return histogram(connects, provider);
+    }
+
+    public LatencyHistogram getTransferLatency(String provider) {
+        return histogram(transfers, provider);
+    }
+
+    public LatencyHistogram getQueueDelay(String lane) {
+        return histogram(queueDelays, lane);
+    }
+
+    public long getThrottled(String provider) {
+        return sum(throttled, provider);
+    }
+
+    public long getRateLimited(String provider) {
+        return sum(rateLimited, provider);
+    }
+
+    public long getRetries(String provider) {
+        return sum(retries, provider);
+    }
+
+    public long getHedges(String provider) {
+        return sum(hedges, provider);
+    }
+
+    public long getRetryBudgetExhausted(String provider) {
+        return sum(retryBudgetExhausted, provider);
+    }
+
+    public long getInvalidAddresses() {
+        return invalidAddresses.sum();
+    }
+
+    /**
+     * 导出全部指标
+     */
+    public void export(MetricsExporter exporter) {
+        sends.forEach((provider, templates) -> templates.forEach((template, outcomes) -> outcomes.forEach((outcome, histogram) ->
+                exporter.histogram(SEND_LATENCY, Map.of("provider", provider, "template", template, "outcome", outcome), histogram))));
+        connects.forEach((provider, histogram) -> exporter.histogram(CONNECT_LATENCY, Map.of("provider", provider), histogram));
+        transfers.forEach((provider, histogram) -> exporter.histogram(TRANSFER_LATENCY, Map.of("provider", provider), histogram));
+        queueDelays.forEach((lane, histogram) -> exporter.histogram(QUEUE_DELAY, Map.of("lane", lane), histogram));
+        throttled.forEach((provider, adder) -> exporter.counter(THROTTLED, Map.of("provider", provider), adder.sum()));
+        rateLimited.forEach((provider, adder) -> exporter.counter(RATE_LIMITED, Map.of("provider", provider), adder.sum()));
+        retries.forEach((provider, adder) -> exporter.counter(RETRIES, Map.of("provider", provider), adder.sum()));
+        hedges.forEach((provider, adder) -> exporter.counter(HEDGES, Map.of("provider", provider), adder.sum()));
+        retryBudgetExhausted.forEach((provider, adder) -> exporter.counter(RETRY_BUDGET_EXHAUSTED, Map.of("provider", provider), adder.sum()));
+        exporter.counter(INVALID_ADDRESSES, Map.of(), invalidAddresses.sum());
+    }
+
+    /**
+     * 查找或创建分组, 已有分组数达到上限时不再创建, 返回null
+     * <p>
+     * 并发创建时数量可能略超上限, 不超过并发线程数.
+     */
+    private static <V> V bounded(ConcurrentHashMap<String, V> groups, String key, int limit, Supplier<V> factory) {
+        V group = groups.get(key);
+        if (group != null) {
+            return group;
+        }
+        if (groups.size() >= limit) {
+            return null;
+        }
+        return groups.computeIfAbsent(key, k -> factory.get());
+    }
+
+    private static LatencyHistogram histogram(ConcurrentHashMap<String, LatencyHistogram> histograms, String key) {
+        LatencyHistogram histogram = histograms.get(key);
+        return histogram != null ? histogram : histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    private static long sum(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        LongAdder adder = counters.get(key);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        LongAdder adder = counters.get(key);
+        return adder != null ? adder : counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.outbox;
+
+import cn.hutool.v7.core.text.StrUtil;
+import com.zhengshuyun.oksms.outbox.model.OutboxConfig;
+import com.zhengshuyun.oktool.core.util.Assert;
+import com.zhengshuyun.oktool.core.util.JacksonUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 发件箱
+ * <p>
+ * 消息先序列化为JSON追加到本地内存映射日志, 再由后台线程投递给注册的处理器(如{@code AliyunSmsClient::send}),
+ * 调用方不再等待服务商响应. 投递进度定期保存, 进程重启后从保存的进度重新投递, 因此同一消息可能被投递多次.
+ * <p>
+ * 使用方式: 构造后通过{@link #register}为每个主题注册处理器, 调用{@link #start()}开始投递未完成的消息, 然后{@link #enqueue}.
+ */
+public class Outbox implements AutoCloseable {
+
+    private final OutboxConfig config;
+
+    private final OutboxLog log;
+
+    private final ConcurrentHashMap<String, Registration<?>> registrations = new ConcurrentHashMap<>();
+
+    /**
+     * 已分发但尚未投递完成的记录偏移量
+     */
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+
+    private final Semaphore workers;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Object flushMonitor = new Object();
+
+    private volatile FailureHandler failureHandler = (topic, payload, e) -> {
+    };
+
+    /**
+     * 下一条待分发记录的偏移量
+     */
+    private volatile long dispatched;
+
+    /**
+     * 已落盘数据的结束偏移量, 由flushMonitor保护
+     */
+    private long durable;
+
+    private boolean flushRequested;
+
+    private long checkpoint;
+
+    private volatile boolean running;
+
+    private Thread dispatcher;
+
+    private Thread flusher;
+
+    public Outbox(OutboxConfig config) {
+        Assert.notNull(config, "发件箱配置不能为空");
+        if (StrUtil.isBlank(config.getDirectory())) {
+            throw new IllegalArgumentException("发件箱目录不能为空");
+        }
+        this.config = config;
+        this.workers = new Semaphore(Math.max(1, config.getWorkers()));
+        try {
+            this.log = new OutboxLog(Path.of(config.getDirectory()), config.getSegmentSize());
+            this.checkpoint = Math.max(log.readCheckpoint(), log.start());
+        } catch (IOException e) {
+            throw new RuntimeException("发件箱打开失败: " + e.getMessage(), e);
+        }
+        this.dispatched = checkpoint;
+        this.durable = log.end();
+    }
+
+    /**
+     * 注册主题的处理器, 需在{@link #start()}之前注册
+     *
+     * @param topic   主题, 如"aliyun"
+     * @param type    消息类型
+     * @param handler 处理器
+     */
+    public <T> void register(String topic, Class<T> type, OutboxHandler<T> handler) {
+        if (StrUtil.isBlank(topic)) {
+            throw new IllegalArgumentException("主题不能为空");
+        }
+        Assert.notNull(type, "消息类型不能为空");
+        Assert.notNull(handler, "处理器不能为空");
+        registrations.put(topic, new Registration<>(type, handler));
+    }
+
+    /**
+     * 设置投递失败的处理器, 消息达到最大投递次数或主题未注册时调用
+     */
+    public void setFailureHandler(FailureHandler failureHandler) {
+        Assert.notNull(failureHandler, "失败处理器不能为空");
+        this.failureHandler = failureHandler;
+    }
+
+    /**
+     * 开始投递, 包括上次运行时未完成的消息
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher = Thread.ofPlatform().name("oksms-outbox-dispatcher").daemon().start(this::dispatch);
+        flusher = Thread.ofPlatform().name("oksms-outbox-flusher").daemon().start(this::flush);
+    }
+
+    /**
+     * 消息入队
+     * <p>
+     * 消息写入日志后返回, {@link OutboxConfig#isSyncEnqueue()}为true时等待本条消息落盘.
+     *
+     * @param topic   已注册的主题
+     * @param message 消息, 如{@code AliyunSmsSendRequest}
+     * @return 消息在日志中的偏移量
+     */
+    public long enqueue(String topic, Object message) {
+        if (!registrations.containsKey(topic)) {
+            throw new IllegalArgumentException("主题未注册: " + topic);
+        }
+        Assert.notNull(message, "消息不能为空");
+
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] json = JacksonUtil.writeValueAsString(message).getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(Short.BYTES + topicBytes.length + json.length)
+                .putShort((short) topicBytes.length)
+                .put(topicBytes)
+                .put(json)
+                .array();
+
+        long offset;
+        try {
+            offset = log.append(payload);
+        } catch (IOException e) {
+            throw new RuntimeException("发件箱写入失败: " + e.getMessage(), e);
+        }
+        LockSupport.unpark(dispatcher);
+        if (config.isSyncEnqueue()) {
+            awaitDurable(offset + OutboxLog.HEADER_SIZE + payload.length);
+        }
+        return offset;
+    }
+
+    /**
+     * 尚未投递完成的消息数据量(字节)
+     */
+    public long getBacklog() {
+        return log.end() - currentCheckpoint();
+    }
+
+    /**
+     * 停止投递, 等待进行中的消息投递完成并保存进度. 未投递的消息在下次启动后继续投递
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            running = false;
+        }
+        if (dispatcher != null) {
+            LockSupport.unpark(dispatcher);
+            joinQuietly(dispatcher);
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher != null) {
+            synchronized (flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+            joinQuietly(flusher);
+        }
+        try {
+            saveCheckpoint();
+            log.close();
+        } catch (IOException e) {
+            throw new RuntimeException("发件箱关闭失败: " + e.getMessage(), e);
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            long offset = dispatched;
+            if (offset >= log.end()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            OutboxLog.Record record = log.read(offset);
+            if (record.payload() == null) {
+                dispatched = record.next();
+                continue;
+            }
+            try {
+                workers.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // 先登记再推进分发位置, 保证计算进度时不会遗漏该记录
+            inFlight.add(record.offset());
+            dispatched = record.next();
+            executor.execute(() -> {
+                boolean done = true;
+                try {
+                    done = deliver(record.payload());
+                } catch (RuntimeException e) {
+                    // 失败处理器抛出异常时视为已处理, 避免进度停在该消息上
+                } finally {
+                    if (done) {
+                        inFlight.remove(record.offset());
+                    }
+                    workers.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 投递消息
+     *
+     * @return 是否已完成, 关闭时未完成重试的消息返回false, 进度不会越过该消息
+     */
+    private boolean deliver(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int topicLength = buffer.getShort();
+        String topic = new String(payload, Short.BYTES, topicLength, StandardCharsets.UTF_8);
+        String json = new String(payload, Short.BYTES + topicLength, payload.length - Short.BYTES - topicLength, StandardCharsets.UTF_8);
+
+        Registration<?> registration = registrations.get(topic);
+        if (registration == null) {
+            failureHandler.onFailure(topic, json, new IllegalStateException("主题未注册: " + topic));
+            return true;
+        }
+        int maxAttempts = Math.max(1, config.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                registration.handle(json);
+                return true;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    failureHandler.onFailure(topic, json, e);
+                    return true;
+                }
+                if (!running) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(config.getRetryInterval());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * 组提交: 每个周期或有入队请求等待时执行一次fsync, 唤醒所有已落盘的等待者, 并定期保存进度
+     */
+    private void flush() {
+        long lastCheckpoint = System.currentTimeMillis();
+        while (running) {
+            synchronized (flushMonitor) {
+                if (!flushRequested) {
+                    try {
+                        flushMonitor.wait(Math.max(1, config.getFlushInterval()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                flushRequested = false;
+            }
+
+            long end = log.end();
+            log.force();
+            synchronized (flushMonitor) {
+                durable = Math.max(durable, end);
+                flushMonitor.notifyAll();
+            }
+
+            long now = System.currentTimeMillis();
+            if (now - lastCheckpoint >= config.getCheckpointInterval()) {
+                lastCheckpoint = now;
+                try {
+                    saveCheckpoint();
+                } catch (IOException | RuntimeException e) {
+                    // 保存失败时下次重试, 重启后最多重复投递上次保存之后的消息
+                }
+            }
+        }
+    }
+
+    private void awaitDurable(long end) {
+        synchronized (flushMonitor) {
+            flushRequested = true;
+            flushMonitor.notifyAll();
+            while (durable < end) {
+                if (!running) {
+                    // 未启动后台线程时直接落盘
+                    log.force();
+                    durable = Math.max(durable, log.end());
+                    return;
+                }
+                try {
+                    flushMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("等待发件箱落盘被中断", e);
+                }
+            }
+        }
+    }
+
+    private long currentCheckpoint() {
+        // 先读分发位置再读进行中的最小偏移量, 两者之间完成分发的记录仍会被包含
+        long offset = dispatched;
+        Long first = inFlight.isEmpty() ? null : inFlight.ceiling(Long.MIN_VALUE);
+        return first == null ? offset : Math.min(offset, first);
+    }
+
+    private synchronized void saveCheckpoint() throws IOException {
+        long offset = currentCheckpoint();
+        if (offset <= checkpoint) {
+            return;
+        }
+        log.writeCheckpoint(offset);
+        checkpoint = offset;
+        log.deleteBefore(offset);
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 投递失败处理
+     */
+    @FunctionalInterface
+    public interface FailureHandler {
+
+        /**
+         * @param topic   主题
+         * @param payload 消息JSON
+         * @param e       最后一次失败的异常
+         */
+        void onFailure(String topic, String payload, Throwable e);
+    }
+
+    private record Registration<T>(Class<T> type, OutboxHandler<T> handler) {
+        void handle(String json) throws Exception {
+            handler.handle(JacksonUtil.readValue(json, type));
+        }
+    }
+}
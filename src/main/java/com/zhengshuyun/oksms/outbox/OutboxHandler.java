@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.outbox;
+
+/**
+ * 发件箱消息处理
+ *
+ * @param <T> 消息类型
+ */
+@FunctionalInterface
+public interface OutboxHandler<T> {
+
+    /**
+     * 投递消息, 抛出异常时按配置重试
+     *
+     * @param message 消息
+     * @throws Exception 投递失败
+     */
+    void handle(T message) throws Exception;
+}
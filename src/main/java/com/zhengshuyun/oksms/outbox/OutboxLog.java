@@ -0,0 +1,339 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 仅追加的分段日志
+ * <p>
+ * 每个段是固定大小的内存映射文件, 逻辑偏移量 = 段序号 * 段大小 + 段内位置.
+ * 记录格式为 [长度(4)][CRC32C(4)][内容], 先写内容与校验值, 最后写长度; 长度为0表示尚未写入, -1表示后续记录在下一段.
+ * 重启时从最后一段开头扫描到第一条无效记录, 确定写入位置.
+ * <p>
+ * 打开时对目录中的lock文件加排他锁, 同一目录同时只能被一个发件箱使用.
+ */
+final class OutboxLog implements AutoCloseable {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final int ROLL = -1;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String CHECKPOINT = "checkpoint";
+
+    private static final String LOCK = "lock";
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final FileChannel lockChannel;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment active;
+
+    private volatile long end;
+
+    OutboxLog(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("日志段大小过小: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.lockChannel = lock(directory);
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            closeSegments();
+            lockChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 锁定目录, 锁已被其他进程或本进程内的其他发件箱持有时立即失败
+     */
+    private static FileChannel lock(Path directory) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("发件箱目录已被占用: " + directory);
+        }
+        return channel;
+    }
+
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long index = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            segments.put(index, open(index));
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, open(0));
+        }
+        active = segments.lastEntry().getValue();
+        end = recover(active);
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @param payload 内容
+     * @return 记录的偏移量
+     */
+    synchronized long append(byte[] payload) throws IOException {
+        int size = HEADER_SIZE + payload.length;
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("消息大小超过日志段大小: " + payload.length);
+        }
+        // 上一条记录恰好写满活动段时, 位置等于段大小
+        int position = (int) (end - active.index * segmentSize);
+        if (position + size > segmentSize) {
+            if (position + Integer.BYTES <= segmentSize) {
+                active.buffer.putInt(position, ROLL);
+            }
+            // 切换前将旧段落盘, 之后只需对活动段fsync
+            active.buffer.force();
+            active = open(active.index + 1);
+            segments.put(active.index, active);
+            position = 0;
+            end = active.index * segmentSize;
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        MappedByteBuffer buffer = active.buffer;
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+
+        long offset = end;
+        end = offset + size;
+        return offset;
+    }
+
+    /**
+     * 已写入数据的结束偏移量
+     */
+    long end() {
+        return end;
+    }
+
+    /**
+     * 第一个段的起始偏移量
+     */
+    long start() {
+        return segments.firstKey() * segmentSize;
+    }
+
+    /**
+     * 读取记录
+     *
+     * @param offset 偏移量, 必须小于{@link #end()}
+     * @return 记录, 偏移量处为段结束标记时返回内容为null的记录
+     */
+    Record read(long offset) {
+        Segment segment = segments.get(offset / segmentSize);
+        if (segment == null) {
+            throw new IllegalStateException("日志段不存在: " + offset);
+        }
+        int position = position(offset);
+        int length = position + Integer.BYTES <= segmentSize ? segment.buffer.getInt(position) : ROLL;
+        if (length == ROLL) {
+            return new Record(offset, null, (segment.index + 1) * segmentSize);
+        }
+        byte[] payload = new byte[length];
+        segment.buffer.get(position + HEADER_SIZE, payload);
+        return new Record(offset, payload, offset + HEADER_SIZE + length);
+    }
+
+    /**
+     * 将活动段写入磁盘
+     */
+    void force() {
+        Segment segment = active;
+        segment.buffer.force();
+    }
+
+    /**
+     * 删除偏移量之前的完整日志段
+     */
+    void deleteBefore(long offset) {
+        long index = offset / segmentSize;
+        for (Map.Entry<Long, Segment> entry : segments.headMap(index).entrySet()) {
+            Segment segment = entry.getValue();
+            if (segment == active) {
+                break;
+            }
+            segments.remove(entry.getKey());
+            try {
+                segment.channel.close();
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 读取投递进度, 不存在时返回-1
+     */
+    long readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT);
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length != Long.BYTES) {
+            return -1;
+        }
+        long value = 0;
+        for (byte b : bytes) {
+            value = (value << 8) | (b & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * 原子地保存投递进度
+     */
+    void writeCheckpoint(long offset) throws IOException {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[i] = (byte) offset;
+            offset >>>= 8;
+        }
+        Path tmp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(bytes));
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        List<IOException> errors = closeSegments();
+        try {
+            // 关闭通道同时释放目录锁
+            lockChannel.close();
+        } catch (IOException e) {
+            errors.add(e);
+        }
+        if (!errors.isEmpty()) {
+            throw errors.getFirst();
+        }
+    }
+
+    private List<IOException> closeSegments() {
+        List<IOException> errors = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                errors.add(e);
+            }
+        }
+        segments.clear();
+        return errors;
+    }
+
+    private int position(long offset) {
+        return (int) (offset % segmentSize);
+    }
+
+    private Segment open(long index) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(index, path, channel, buffer);
+    }
+
+    /**
+     * 扫描段内的有效记录, 返回写入位置
+     */
+    private long recover(Segment segment) {
+        int position = 0;
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_SIZE <= segmentSize) {
+            int length = segment.buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_SIZE, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        // 清除未完整写入的记录长度, 避免与之后追加的记录混淆
+        if (position + Integer.BYTES <= segmentSize) {
+            segment.buffer.putInt(position, 0);
+        }
+        return segment.index * segmentSize + position;
+    }
+
+    /**
+     * 日志记录
+     *
+     * @param offset  偏移量
+     * @param payload 内容, 段结束标记时为null
+     * @param next    下一条记录的偏移量
+     */
+    record Record(long offset, byte[] payload, long next) {
+    }
+
+    private record Segment(long index, Path path, FileChannel channel, MappedByteBuffer buffer) {
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.outbox.model;
+
+import java.util.Objects;
+
+public class OutboxConfig {
+    /**
+     * 日志文件目录
+     */
+    private String directory;
+
+    /**
+     * 单个日志段文件大小(字节), 单条消息不能超过该大小
+     */
+    private int segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * 入队时是否等待数据落盘
+     * 为false时消息写入内存映射区即返回, 进程崩溃不丢失, 操作系统崩溃或断电可能丢失最近{@link #flushInterval}内的消息
+     */
+    private boolean syncEnqueue;
+
+    /**
+     * 落盘周期(毫秒), 同一周期内的入队请求合并为一次fsync
+     */
+    private long flushInterval = 10;
+
+    /**
+     * 同时投递的最大消息数
+     */
+    private int workers = 16;
+
+    /**
+     * 单条消息的最大投递次数, 全部失败后交给失败处理器并不再投递
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 投递失败后的重试间隔(毫秒)
+     */
+    private long retryInterval = 1000;
+
+    /**
+     * 保存投递进度的周期(毫秒), 重启后从最近一次保存的进度重新投递
+     */
+    private long checkpointInterval = 1000;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        OutboxConfig that = (OutboxConfig) object;
+        return segmentSize == that.segmentSize && syncEnqueue == that.syncEnqueue && flushInterval == that.flushInterval && workers == that.workers && maxAttempts == that.maxAttempts && retryInterval == that.retryInterval && checkpointInterval == that.checkpointInterval && Objects.equals(directory, that.directory);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(directory, segmentSize, syncEnqueue, flushInterval, workers, maxAttempts, retryInterval, checkpointInterval);
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public boolean isSyncEnqueue() {
+        return syncEnqueue;
+    }
+
+    public void setSyncEnqueue(boolean syncEnqueue) {
+        this.syncEnqueue = syncEnqueue;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(long retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+}
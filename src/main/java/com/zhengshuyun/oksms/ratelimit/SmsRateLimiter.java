@@ -0,0 +1,305 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.ratelimit;
+
+import com.zhengshuyun.oksms.ratelimit.model.SmsRateLimiterConfig;
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 短信发送频率限制
+ * <p>
+ * 在发起HTTP请求之前按账户、模板与号码限制发送频率, 避免请求到达服务商后才被流控拒绝.
+ * 令牌桶采用GCRA算法, 每个桶只有一个理论到达时间, 通过CAS更新, 不加锁.
+ * 号码的桶在配额完全恢复后与新建的桶等价, 可以移除. 每登记一个新号码时顺带检查少量已跟踪的号码并移除这类号码,
+ * 清理分摊到各次请求; 达到跟踪上限且找不到可移除的号码时拒绝新号码, 不会移除仍在限制中的号码, 内存占用有上限.
+ */
+public class SmsRateLimiter {
+
+    /**
+     * 每登记一个新号码时检查的号码数
+     */
+    private static final int EVICT_STEP = 16;
+
+    /**
+     * 达到跟踪上限时最多检查的号码数
+     */
+    private static final int EVICT_SCAN = 1024;
+
+    private final long origin = System.nanoTime();
+
+    private final Gcra accountRate;
+
+    private final AtomicLongArray accountCell = new AtomicLongArray(1);
+
+    private final Gcra templateRate;
+
+    private final ConcurrentHashMap<String, AtomicLongArray> templateCells = new ConcurrentHashMap<>();
+
+    private final Gcra[] phoneRates;
+
+    private final ConcurrentHashMap<String, AtomicLongArray> phoneCells = new ConcurrentHashMap<>();
+
+    private final int maxPhoneEntries;
+
+    private final long maxDelayNanos;
+
+    /**
+     * 保护清理位置
+     */
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    /**
+     * 清理位置, 遍历结束后从头开始
+     */
+    private Iterator<Map.Entry<String, AtomicLongArray>> cursor;
+
+    public SmsRateLimiter(SmsRateLimiterConfig config) {
+        Assert.notNull(config, "限流配置不能为空");
+        this.accountRate = config.getAccountQps() > 0 ? Gcra.of(config.getAccountQps(), TimeUnit.SECONDS) : null;
+        this.templateRate = config.getTemplateQps() > 0 ? Gcra.of(config.getTemplateQps(), TimeUnit.SECONDS) : null;
+
+        List<Gcra> phoneRates = new ArrayList<>(3);
+        if (config.getPhonePerMinute() > 0) {
+            phoneRates.add(Gcra.of(config.getPhonePerMinute(), TimeUnit.MINUTES));
+        }
+        if (config.getPhonePerHour() > 0) {
+            phoneRates.add(Gcra.of(config.getPhonePerHour(), TimeUnit.HOURS));
+        }
+        if (config.getPhonePerDay() > 0) {
+            phoneRates.add(Gcra.of(config.getPhonePerDay(), TimeUnit.DAYS));
+        }
+        this.phoneRates = phoneRates.toArray(Gcra[]::new);
+        this.maxPhoneEntries = Math.max(1, config.getMaxPhoneEntries());
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxDelay());
+    }
+
+    /**
+     * 获取发送配额
+     * <p>
+     * 任一号码或模板、账户超出限制时整个请求被拒绝, 已占用的配额会被归还.
+     * 配置了最大等待时间时, 在等待时间内可以恢复的请求会阻塞到配额可用, 等待被中断时归还配额并抛出异常.
+     *
+     * @param phoneNumbers 手机号码
+     * @param templateCode 模板
+     * @throws SmsRateLimitException 超出限制
+     */
+    public void acquire(Collection<String> phoneNumbers, String templateCode) {
+        long now = System.nanoTime() - origin;
+        Reservations reservations = new Reservations(2 + phoneNumbers.size() * phoneRates.length);
+        long wait = 0;
+
+        if (accountRate != null) {
+            wait = reserve(reservations, accountRate, accountCell, 0, now, wait, "账户");
+        }
+        if (templateRate != null && templateCode != null) {
+            AtomicLongArray cell = templateCells.computeIfAbsent(templateCode, key -> new AtomicLongArray(1));
+            wait = reserve(reservations, templateRate, cell, 0, now, wait, templateCode);
+        }
+        if (phoneRates.length > 0) {
+            for (String phoneNumber : phoneNumbers) {
+                AtomicLongArray cells = phoneCell(phoneNumber, now);
+                if (cells == null) {
+                    reservations.cancel();
+                    throw new SmsRateLimitException("跟踪的号码数已达上限: " + phoneNumber);
+                }
+                for (int i = 0; i < phoneRates.length; i++) {
+                    wait = reserve(reservations, phoneRates[i], cells, i, now, wait, phoneNumber);
+                }
+                // 与清理并发时该号码可能刚被移除, 重新登记, 保证已占用的配额被记录
+                if (phoneCells.get(phoneNumber) != cells) {
+                    phoneCells.putIfAbsent(phoneNumber, cells);
+                }
+            }
+        }
+
+        if (wait > 0) {
+            await(reservations, now + wait);
+        }
+    }
+
+    /**
+     * 等待到占用的配额可用, 虚假唤醒时继续等待
+     *
+     * @param deadline 配额可用的时间, 相对origin的纳秒数
+     */
+    private void await(Reservations reservations, long deadline) {
+        long remaining;
+        while ((remaining = deadline - (System.nanoTime() - origin)) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                reservations.cancel();
+                Thread.currentThread().interrupt();
+                throw new SmsRateLimitException("等待发送配额被中断");
+            }
+        }
+    }
+
+    /**
+     * 当前跟踪的号码数
+     */
+    public int getPhoneEntries() {
+        return phoneCells.size();
+    }
+
+    private long reserve(Reservations reservations, Gcra rate, AtomicLongArray cells, int index, long now, long wait, String target) {
+        long reserved = rate.reserve(cells, index, now, maxDelayNanos);
+        if (reserved < 0) {
+            reservations.cancel();
+            throw new SmsRateLimitException("短信发送频率超出限制: " + target);
+        }
+        reservations.add(rate, cells, index);
+        return Math.max(wait, reserved);
+    }
+
+    /**
+     * @return 达到跟踪上限且没有可移除的号码时返回null
+     */
+    private AtomicLongArray phoneCell(String phoneNumber, long now) {
+        AtomicLongArray cells = phoneCells.get(phoneNumber);
+        if (cells != null) {
+            return cells;
+        }
+        if (sweepLock.tryLock()) {
+            try {
+                evict(now, EVICT_STEP);
+            } finally {
+                sweepLock.unlock();
+            }
+        }
+        if (phoneCells.size() >= maxPhoneEntries) {
+            sweepLock.lock();
+            try {
+                for (int scanned = 0; scanned < EVICT_SCAN && phoneCells.size() >= maxPhoneEntries; scanned += EVICT_STEP) {
+                    evict(now, EVICT_STEP);
+                }
+                if (phoneCells.size() >= maxPhoneEntries) {
+                    return null;
+                }
+            } finally {
+                sweepLock.unlock();
+            }
+        }
+        return phoneCells.computeIfAbsent(phoneNumber, key -> new AtomicLongArray(phoneRates.length));
+    }
+
+    /**
+     * 从上次的位置继续检查号码, 移除配额已完全恢复的号码
+     *
+     * @param budget 检查的号码数
+     */
+    private void evict(long now, int budget) {
+        for (int i = 0; i < budget; i++) {
+            if (cursor == null || !cursor.hasNext()) {
+                cursor = phoneCells.entrySet().iterator();
+                if (!cursor.hasNext()) {
+                    break;
+                }
+            }
+            Map.Entry<String, AtomicLongArray> entry = cursor.next();
+            if (isIdle(entry.getValue(), now)) {
+                phoneCells.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static boolean isIdle(AtomicLongArray cells, long now) {
+        for (int i = 0; i < cells.length(); i++) {
+            if (cells.get(i) > now) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * GCRA参数
+     *
+     * @param interval  每个配额的间隔(纳秒)
+     * @param tolerance 允许的突发量(纳秒)
+     */
+    private record Gcra(long interval, long tolerance) {
+
+        static Gcra of(double permits, TimeUnit period) {
+            long interval = Math.max(1, (long) (period.toNanos(1) / permits));
+            long burst = Math.max(1, (long) permits);
+            return new Gcra(interval, interval * (burst - 1));
+        }
+
+        /**
+         * 占用一个配额
+         *
+         * @return 需要等待的纳秒数, 超过最大等待时间时返回-1且不占用
+         */
+        long reserve(AtomicLongArray cells, int index, long now, long maxWait) {
+            while (true) {
+                long tat = cells.get(index);
+                long base = Math.max(tat, now);
+                long wait = base - tolerance - now;
+                if (wait > maxWait) {
+                    return -1;
+                }
+                if (cells.compareAndSet(index, tat, base + interval)) {
+                    return Math.max(0, wait);
+                }
+            }
+        }
+
+        void cancel(AtomicLongArray cells, int index) {
+            cells.addAndGet(index, -interval);
+        }
+    }
+
+    /**
+     * 单次请求已占用的配额, 用于失败时归还
+     */
+    private static final class Reservations {
+        private final Gcra[] rates;
+        private final AtomicLongArray[] cells;
+        private final int[] indexes;
+        private int size;
+
+        private Reservations(int capacity) {
+            rates = new Gcra[capacity];
+            cells = new AtomicLongArray[capacity];
+            indexes = new int[capacity];
+        }
+
+        private void add(Gcra rate, AtomicLongArray cell, int index) {
+            rates[size] = rate;
+            cells[size] = cell;
+            indexes[size] = index;
+            size++;
+        }
+
+        private void cancel() {
+            for (int i = 0; i < size; i++) {
+                rates[i].cancel(cells[i], indexes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.ratelimit.model;
+
+import java.util.Objects;
+
+public class SmsRateLimiterConfig {
+    /**
+     * 账户每秒最大请求数, 0表示不限制
+     */
+    private double accountQps;
+
+    /**
+     * 每个模板每秒最大请求数, 0表示不限制
+     */
+    private double templateQps;
+
+    /**
+     * 同一号码每分钟最多发送条数, 0表示不限制
+     * 默认值与阿里云验证码类短信的默认流控一致
+     */
+    private int phonePerMinute = 1;
+
+    /**
+     * 同一号码每小时最多发送条数, 0表示不限制
+     */
+    private int phonePerHour = 5;
+
+    /**
+     * 同一号码每天最多发送条数, 0表示不限制
+     */
+    private int phonePerDay = 10;
+
+    /**
+     * 最多跟踪的号码数, 达到上限后移除已恢复配额的号码, 没有可移除的号码时拒绝新号码;
+     * 应不小于最长限制周期内发送的不同号码数
+     */
+    private int maxPhoneEntries = 1_000_000;
+
+    /**
+     * 超出限制时最多等待的时间(毫秒), 需要等待更久时直接拒绝; 0表示不等待
+     */
+    private long maxDelay;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        SmsRateLimiterConfig that = (SmsRateLimiterConfig) object;
+        return Double.compare(accountQps, that.accountQps) == 0 && Double.compare(templateQps, that.templateQps) == 0 && phonePerMinute == that.phonePerMinute && phonePerHour == that.phonePerHour && phonePerDay == that.phonePerDay && maxPhoneEntries == that.maxPhoneEntries && maxDelay == that.maxDelay;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountQps, templateQps, phonePerMinute, phonePerHour, phonePerDay, maxPhoneEntries, maxDelay);
+    }
+
+    public double getAccountQps() {
+        return accountQps;
+    }
+
+    public void setAccountQps(double accountQps) {
+        this.accountQps = accountQps;
+    }
+
+    public double getTemplateQps() {
+        return templateQps;
+    }
+
+    public void setTemplateQps(double templateQps) {
+        this.templateQps = templateQps;
+    }
+
+    public int getPhonePerMinute() {
+        return phonePerMinute;
+    }
+
+    public void setPhonePerMinute(int phonePerMinute) {
+        this.phonePerMinute = phonePerMinute;
+    }
+
+    public int getPhonePerHour() {
+        return phonePerHour;
+    }
+
+    public void setPhonePerHour(int phonePerHour) {
+        this.phonePerHour = phonePerHour;
+    }
+
+    public int getPhonePerDay() {
+        return phonePerDay;
+    }
+
+    public void setPhonePerDay(int phonePerDay) {
+        this.phonePerDay = phonePerDay;
+    }
+
+    public int getMaxPhoneEntries() {
+        return maxPhoneEntries;
+    }
+
+    public void setMaxPhoneEntries(int maxPhoneEntries) {
+        this.maxPhoneEntries = maxPhoneEntries;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(long maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试预算
+ * <p>
+ * 每个请求存入{@code ratio}个令牌, 每次重试取出1个令牌, 另外每秒补充保底令牌.
+ * 服务商整体故障时重试量被限制在请求量的固定比例内, 避免重试放大故障.
+ */
+class RetryBudget {
+
+    /**
+     * 令牌以千分之一为单位计数
+     */
+    private static final long UNIT = 1000;
+
+    private final long deposit;
+
+    private final long reserve;
+
+    private final long capacity;
+
+    private final AtomicLong balance = new AtomicLong();
+
+    private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+
+    RetryBudget(double ratio, int minPerSecond) {
+        this.deposit = (long) (ratio * UNIT);
+        this.reserve = minPerSecond * UNIT;
+        // 最多积累10秒的保底令牌, 避免长时间空闲后允许大量重试
+        this.capacity = Math.max(reserve * 10, 10 * UNIT);
+    }
+
+    /**
+     * 记录一个请求
+     */
+    void deposit() {
+        if (deposit > 0) {
+            add(deposit);
+        }
+    }
+
+    /**
+     * 取出一次重试的令牌
+     *
+     * @return 预算不足时返回false
+     */
+    boolean withdraw() {
+        long now = System.nanoTime() / 1_000_000_000L;
+        long last = second.get();
+        if (now != last && second.compareAndSet(last, now)) {
+            add(reserve);
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - UNIT));
+        return true;
+    }
+
+    private void add(long tokens) {
+        balance.accumulateAndGet(tokens, (current, delta) -> Math.min(capacity, current + delta));
+    }
+}
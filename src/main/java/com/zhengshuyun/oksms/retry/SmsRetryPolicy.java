@@ -0,0 +1,238 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.retry;
+
+import com.zhengshuyun.oksms.metrics.SmsMetrics;
+import com.zhengshuyun.oksms.retry.model.SmsRetryConfig;
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 短信发送重试策略
+ * <p>
+ * 将失败分为临时失败(超时、连接重置、系统错误、流控)与永久失败(模板错误、号码无效等), 只重试临时失败.
+ * 重试间隔使用去相关抖动(decorrelated jitter): 每次在[基础间隔, 上次间隔*3]之间随机, 不超过上限.
+ * 所有请求共享{@link RetryBudget}, 预算耗尽时不再重试.
+ * <p>
+ * 读超时时请求可能已被服务商处理, 重试可能导致用户收到两条相同短信; 未识别的错误码一律视为永久失败.
+ * <p>
+ * 对冲请求: 指定模板的请求超过{@link SmsRetryConfig#getHedgeDelay()}未返回时再发送一个相同请求, 取先成功的结果.
+ * 对冲请求同样消耗重试预算, 用户可能收到两条相同的短信, 只适合验证码等对延迟敏感的场景.
+ */
+public class SmsRetryPolicy {
+
+    private static final ExecutorService HEDGE_EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("oksms-hedge-", 0).factory());
+
+    private final int maxAttempts;
+
+    private final long baseDelay;
+
+    private final long maxDelay;
+
+    private final Set<String> transientCodes;
+
+    private final long hedgeDelay;
+
+    private final Set<String> hedgeTemplateCodes;
+
+    private final RetryBudget budget;
+
+    public SmsRetryPolicy(SmsRetryConfig config) {
+        Assert.notNull(config, "重试配置不能为空");
+        if (config.getMaxAttempts() <= 0) {
+            throw new IllegalArgumentException("最多尝试次数必须大于0");
+        }
+        if (config.getBaseDelay() < 0 || config.getMaxDelay() < config.getBaseDelay()) {
+            throw new IllegalArgumentException("重试间隔上限不能小于基础间隔");
+        }
+        this.maxAttempts = config.getMaxAttempts();
+        this.baseDelay = config.getBaseDelay();
+        this.maxDelay = config.getMaxDelay();
+        this.transientCodes = config.getTransientCodes() == null ? Set.of() : Set.copyOf(config.getTransientCodes());
+        this.hedgeDelay = config.getHedgeDelay();
+        this.hedgeTemplateCodes = config.getHedgeTemplateCodes() == null ? Set.of() : Set.copyOf(config.getHedgeTemplateCodes());
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getMinRetriesPerSecond());
+    }
+
+    /**
+     * 按策略执行发送
+     *
+     * @param provider     服务商, 用于记录指标
+     * @param templateCode 模板, 用于判断是否对冲
+     * @param call         一次发送, 失败时抛出RuntimeException
+     * @param resultCode   从发送结果中取错误码
+     * @param errorCode    从异常中取服务商错误码, 没有时返回null
+     * @return 最后一次发送的结果
+     */
+    public <T> T execute(String provider, String templateCode, Supplier<T> call,
+                         Function<T, String> resultCode, Function<Throwable, String> errorCode) {
+        budget.deposit();
+        boolean hedge = isHedged(templateCode);
+        long delay = baseDelay;
+        for (int attempt = 1; ; attempt++) {
+            T result = null;
+            RuntimeException error = null;
+            try {
+                result = hedge ? hedged(provider, call, resultCode) : call.get();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+
+            boolean retryable = error != null ? isTransient(error, errorCode) : isTransient(resultCode.apply(result));
+            if (!retryable || attempt >= maxAttempts) {
+                return complete(result, error);
+            }
+            if (!budget.withdraw()) {
+                SmsMetrics.getInstance().recordRetryBudgetExhausted(provider);
+                return complete(result, error);
+            }
+
+            delay = Math.min(maxDelay, ThreadLocalRandom.current().nextLong(baseDelay, Math.max(baseDelay, delay * 3) + 1));
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return complete(result, error);
+            }
+            SmsMetrics.getInstance().recordRetry(provider);
+        }
+    }
+
+    /**
+     * 按策略执行的最长耗时(毫秒): 每次尝试均超时, 且每次重试等待最长间隔
+     *
+     * @param attemptTimeout 单次发送的最长耗时(毫秒)
+     */
+    public long getMaxDuration(long attemptTimeout) {
+        return maxAttempts * attemptTimeout + (maxAttempts - 1) * maxDelay;
+    }
+
+    /**
+     * 错误码是否为临时失败
+     */
+    public boolean isTransient(String code) {
+        return code != null && transientCodes.contains(code);
+    }
+
+    /**
+     * 异常是否为临时失败, 依次检查异常链上的服务商错误码与网络异常类型
+     */
+    public boolean isTransient(Throwable e, Function<Throwable, String> errorCode) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            String code = errorCode == null ? null : errorCode.apply(cause);
+            if (code != null) {
+                return isTransient(code);
+            }
+            if (cause instanceof SocketTimeoutException
+                    || cause instanceof HttpTimeoutException
+                    || cause instanceof ConnectException
+                    || cause instanceof NoRouteToHostException) {
+                return true;
+            }
+            if (cause instanceof SocketException && cause.getMessage() != null
+                    && cause.getMessage().contains("Connection reset")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 模板是否启用对冲请求
+     */
+    public boolean isHedged(String templateCode) {
+        return hedgeDelay > 0 && templateCode != null && hedgeTemplateCodes.contains(templateCode);
+    }
+
+    private <T> T hedged(String provider, Supplier<T> call, Function<T, String> resultCode) {
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(call, HEDGE_EXECUTOR);
+        try {
+            return primary.get(hedgeDelay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 继续发送对冲请求
+        } catch (ExecutionException e) {
+            return join(primary);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("发送被中断", e);
+        }
+        if (!budget.withdraw()) {
+            SmsMetrics.getInstance().recordRetryBudgetExhausted(provider);
+            return join(primary);
+        }
+        SmsMetrics.getInstance().recordHedge(provider);
+        CompletableFuture<T> secondary = CompletableFuture.supplyAsync(call, HEDGE_EXECUTOR);
+
+        // 取先成功的结果, 两个请求都失败时取后返回的结果
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(2);
+        for (CompletableFuture<T> future : List.of(primary, secondary)) {
+            future.whenComplete((result, error) -> {
+                if (error == null && !isTransient(resultCode.apply(result))) {
+                    winner.complete(result);
+                } else if (remaining.decrementAndGet() == 0) {
+                    if (error != null) {
+                        winner.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    } else {
+                        winner.complete(result);
+                    }
+                }
+            });
+        }
+        return join(winner);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("发送被中断", e);
+        }
+    }
+
+    private static <T> T complete(T result, RuntimeException error) {
+        if (error != null) {
+            throw error;
+        }
+        return result;
+    }
+}
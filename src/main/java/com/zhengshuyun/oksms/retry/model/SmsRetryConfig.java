@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.retry.model;
+
+import java.util.Objects;
+import java.util.Set;
+
+public class SmsRetryConfig {
+    /**
+     * 最多尝试次数(含首次请求)
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 首次重试的最小间隔(毫秒)
+     */
+    private long baseDelay = 100;
+
+    /**
+     * 重试间隔上限(毫秒)
+     */
+    private long maxDelay = 2000;
+
+    /**
+     * 重试预算: 每个请求可积累的重试次数, 0.1表示重试量最多约为请求量的10%
+     */
+    private double budgetRatio = 0.1;
+
+    /**
+     * 请求量很小时每秒保底允许的重试次数
+     */
+    private int minRetriesPerSecond = 10;
+
+    /**
+     * 可重试的错误码, 未列出的错误码视为永久失败
+     */
+    private Set<String> transientCodes = Set.of(
+            "isp.SYSTEM_ERROR",
+            "isp.GATEWAY_ERROR",
+            "ServiceUnavailable",
+            "InternalError",
+            "Throttling",
+            "Throttling.User",
+            "Throttling.Api");
+
+    /**
+     * 对冲请求的等待时间(毫秒), 首个请求超过该时间未返回时再发送一个相同请求, 取先成功的结果; 0表示不对冲
+     */
+    private long hedgeDelay;
+
+    /**
+     * 启用对冲请求的模板, 一般只用于验证码等对延迟敏感的短信
+     */
+    private Set<String> hedgeTemplateCodes = Set.of();
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        SmsRetryConfig that = (SmsRetryConfig) object;
+        return maxAttempts == that.maxAttempts && baseDelay == that.baseDelay && maxDelay == that.maxDelay && Double.compare(budgetRatio, that.budgetRatio) == 0 && minRetriesPerSecond == that.minRetriesPerSecond && hedgeDelay == that.hedgeDelay && Objects.equals(transientCodes, that.transientCodes) && Objects.equals(hedgeTemplateCodes, that.hedgeTemplateCodes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxAttempts, baseDelay, maxDelay, budgetRatio, minRetriesPerSecond, transientCodes, hedgeDelay, hedgeTemplateCodes);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getBaseDelay() {
+        return baseDelay;
+    }
+
+    public void setBaseDelay(long baseDelay) {
+        this.baseDelay = baseDelay;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    public void setMaxDelay(long maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
+    public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+        this.minRetriesPerSecond = minRetriesPerSecond;
+    }
+
+    public Set<String> getTransientCodes() {
+        return transientCodes;
+    }
+
+    public void setTransientCodes(Set<String> transientCodes) {
+        this.transientCodes = transientCodes;
+    }
+
+    public long getHedgeDelay() {
+        return hedgeDelay;
+    }
+
+    public void setHedgeDelay(long hedgeDelay) {
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    public Set<String> getHedgeTemplateCodes() {
+        return hedgeTemplateCodes;
+    }
+
+    public void setHedgeTemplateCodes(Set<String> hedgeTemplateCodes) {
+        this.hedgeTemplateCodes = hedgeTemplateCodes;
+    }
+}
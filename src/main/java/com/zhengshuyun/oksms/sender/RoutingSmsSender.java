@@ -0,0 +1,341 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.sender;
+
+import com.zhengshuyun.oksms.ratelimit.SmsRateLimitException;
+import com.zhengshuyun.oksms.retry.model.SmsRetryConfig;
+import com.zhengshuyun.oksms.sender.model.SmsSendRequest;
+import com.zhengshuyun.oksms.sender.model.SmsSendResponse;
+import com.zhengshuyun.oksms.util.SmsExecutor;
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多服务商路由
+ * <p>
+ * 按服务商统计最近请求的p99延迟与错误率, 流量按权重 (1 - 错误率)^2 / p99 分配给更快、更健康的服务商.
+ * 返回临时错误码(如isp.SYSTEM_ERROR、InternalError)的响应同样计入错误率.
+ * 单次请求异常时, 在同一次调用内依次转移到其他服务商; 参数错误、频率限制等本地拒绝直接抛出, 不转移.
+ * <p>
+ * 超时的请求会被中断并释放并发许可, 但请求可能已经发出, 服务商仍会下发. 超时后转移会导致用户收到两条短信,
+ * 因此只有{@link SmsSendRequest#isTimeoutFailoverEnable()}为true的请求(如验证码)在超时后转移, 其余请求直接抛出超时异常.
+ */
+public class RoutingSmsSender implements SmsSender {
+
+    /**
+     * 每个服务商保留的延迟样本数
+     */
+    private static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * p99重新计算的间隔
+     */
+    private static final long P99_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 无样本时假定的p99延迟, 使新加入的服务商也能分到流量
+     */
+    private static final long DEFAULT_P99_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * 错误率滑动平均系数
+     */
+    private static final double ERROR_ALPHA = 0.05;
+
+    /**
+     * 最低流量占比, 保证降级的服务商恢复后能被重新发现
+     */
+    private static final double MIN_WEIGHT_RATIO = 0.02;
+
+    private final List<Route> routes;
+
+    /**
+     * 单个服务商的请求超时时间(毫秒)
+     */
+    private long attemptTimeout = 3000;
+
+    /**
+     * 计入服务商错误率的临时错误码, 默认与{@link SmsRetryConfig#getTransientCodes()}相同
+     */
+    private Set<String> transientCodes = new SmsRetryConfig().getTransientCodes();
+
+    public RoutingSmsSender(List<? extends SmsSender> senders) {
+        Assert.notEmptyParam(senders, "服务商");
+        List<Route> routes = new ArrayList<>(senders.size());
+        for (SmsSender sender : senders) {
+            routes.add(new Route(sender));
+        }
+        this.routes = List.copyOf(routes);
+    }
+
+    @Override
+    public String getName() {
+        return "routing";
+    }
+
+    @Override
+    public SmsSendResponse send(SmsSendRequest request) {
+        Exception lastException = null;
+        for (Route route : order()) {
+            long start = System.nanoTime();
+            CompletableFuture<SmsSendResponse> future = SmsExecutor.getInstance()
+                    .submit(route.sender.getName(), () -> route.sender.send(request));
+            try {
+                SmsSendResponse response = future.get(attemptTimeout, TimeUnit.MILLISECONDS);
+                route.record(System.nanoTime() - start, isProviderError(response));
+                return response;
+            } catch (TimeoutException e) {
+                // 中断请求以释放并发许可, 已发出的请求仍可能被下发
+                future.cancel(true);
+                route.record(System.nanoTime() - start, true);
+                if (!request.isTimeoutFailoverEnable()) {
+                    throw new RuntimeException("短信发送超时, 服务商可能仍会下发: " + route.sender.getName(), e);
+                }
+                lastException = e;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                if (isLocalRejection(cause)) {
+                    // 本地校验或限流拒绝, 换用其他服务商会绕过限制, 也不计入服务商错误率
+                    throw (RuntimeException) cause;
+                }
+                route.record(System.nanoTime() - start, true);
+                if (isTimeout(cause) && !request.isTimeoutFailoverEnable()) {
+                    throw cause instanceof RuntimeException runtimeException
+                            ? runtimeException
+                            : new RuntimeException("短信发送超时, 服务商可能仍会下发: " + route.sender.getName(), cause);
+                }
+                lastException = cause instanceof Exception exception ? exception : e;
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("短信发送被中断", e);
+            }
+        }
+        throw new RuntimeException("短信发送失败, 所有服务商均不可用: " + lastException.getMessage(), lastException);
+    }
+
+    /**
+     * 服务商最近请求的p99延迟(毫秒)
+     */
+    public long getLatencyP99(String provider) {
+        return TimeUnit.NANOSECONDS.toMillis(route(provider).p99());
+    }
+
+    /**
+     * 服务商最近请求的错误率
+     */
+    public double getErrorRate(String provider) {
+        return route(provider).errorRate();
+    }
+
+    public long getAttemptTimeout() {
+        return attemptTimeout;
+    }
+
+    public void setAttemptTimeout(long attemptTimeout) {
+        this.attemptTimeout = attemptTimeout;
+    }
+
+    public Set<String> getTransientCodes() {
+        return transientCodes;
+    }
+
+    /**
+     * 设置计入服务商错误率的临时错误码, 错误码本身或以"错误码."开头的子错误码(如InternalError.Timeout)均计入
+     */
+    public void setTransientCodes(Set<String> transientCodes) {
+        Assert.notNull(transientCodes, "临时错误码不能为空");
+        this.transientCodes = Set.copyOf(transientCodes);
+    }
+
+    /**
+     * 按权重随机选出首选服务商, 其余服务商按权重从高到低作为转移顺序
+     */
+    private List<Route> order() {
+        int size = routes.size();
+        if (size == 1) {
+            return routes;
+        }
+        double[] weights = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = routes.get(i).weight();
+            total += weights[i];
+        }
+        if (total <= 0) {
+            // 全部服务商均不健康时平均分配
+            Arrays.fill(weights, 1);
+            total = size;
+        }
+        double floor = total * MIN_WEIGHT_RATIO;
+        total = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = Math.max(weights[i], floor);
+            total += weights[i];
+        }
+
+        int first = size - 1;
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < size; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                first = i;
+                break;
+            }
+        }
+
+        Integer[] indexes = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, Comparator.comparingDouble(i -> -weights[i]));
+        List<Route> ordered = new ArrayList<>(size);
+        ordered.add(routes.get(first));
+        for (Integer index : indexes) {
+            if (index != first) {
+                ordered.add(routes.get(index));
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 发起请求前在本地拒绝的异常: 参数校验失败、频率限制、重复请求
+     * <p>
+     * 超时、网络异常与服务商错误均被客户端包装为其他异常, 仍然转移到下一个服务商.
+     */
+    private static boolean isLocalRejection(Throwable e) {
+        return e instanceof SmsRateLimitException
+                || e instanceof IllegalArgumentException
+                || e instanceof IllegalStateException;
+    }
+
+    /**
+     * 服务商返回的临时错误, 如系统错误、服务不可用, 说明服务商当前不健康
+     */
+    private boolean isProviderError(SmsSendResponse response) {
+        if (response == null) {
+            return true;
+        }
+        String code = response.getCode();
+        if (response.isSuccess() || code == null) {
+            return false;
+        }
+        for (String transientCode : transientCodes) {
+            if (code.equals(transientCode) || code.startsWith(transientCode + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 客户端的读取超时, 请求可能已被服务商处理; 连接超时时请求未发出, 不在此列
+     */
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) {
+                return cause.getMessage() == null || !cause.getMessage().toLowerCase().contains("connect timed out");
+            }
+            if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Route route(String provider) {
+        for (Route route : routes) {
+            if (route.sender.getName().equals(provider)) {
+                return route;
+            }
+        }
+        throw new IllegalArgumentException("未知的服务商: " + provider);
+    }
+
+    /**
+     * 单个服务商及其统计
+     */
+    private static final class Route {
+        private final SmsSender sender;
+        private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+        private final AtomicLong sampleCount = new AtomicLong();
+        private final AtomicLong errorRateBits = new AtomicLong(Double.doubleToLongBits(0));
+        private volatile long cachedP99 = DEFAULT_P99_NANOS;
+        private volatile long cachedAt;
+
+        private Route(SmsSender sender) {
+            this.sender = sender;
+            this.cachedAt = System.nanoTime() - P99_REFRESH_NANOS;
+        }
+
+        private void record(long latencyNanos, boolean error) {
+            long index = sampleCount.getAndIncrement();
+            samples.lazySet((int) (index % SAMPLE_SIZE), latencyNanos);
+
+            double sample = error ? 1 : 0;
+            long prev;
+            long next;
+            do {
+                prev = errorRateBits.get();
+                double rate = Double.longBitsToDouble(prev);
+                next = Double.doubleToLongBits(rate + ERROR_ALPHA * (sample - rate));
+            } while (!errorRateBits.compareAndSet(prev, next));
+        }
+
+        private double errorRate() {
+            return Double.longBitsToDouble(errorRateBits.get());
+        }
+
+        private long p99() {
+            long now = System.nanoTime();
+            if (now - cachedAt < P99_REFRESH_NANOS) {
+                return cachedP99;
+            }
+            int count = (int) Math.min(sampleCount.get(), SAMPLE_SIZE);
+            if (count > 0) {
+                long[] sorted = new long[count];
+                for (int i = 0; i < count; i++) {
+                    sorted[i] = samples.get(i);
+                }
+                Arrays.sort(sorted);
+                cachedP99 = Math.max(1, sorted[(int) Math.ceil(count * 0.99) - 1]);
+            }
+            cachedAt = now;
+            return cachedP99;
+        }
+
+        private double weight() {
+            double health = 1 - errorRate();
+            return health * health / p99();
+        }
+    }
+}
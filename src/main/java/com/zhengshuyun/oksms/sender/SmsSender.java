@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.sender;
+
+import com.zhengshuyun.oksms.sender.model.SmsSendRequest;
+import com.zhengshuyun.oksms.sender.model.SmsSendResponse;
+
+/**
+ * 短信发送服务商
+ * <p>
+ * 屏蔽各服务商请求模型的差异, 供{@link RoutingSmsSender}在多个服务商之间路由与故障转移.
+ */
+public interface SmsSender {
+
+    /**
+     * 服务商名称, 用于统计与按服务商覆盖模板
+     */
+    String getName();
+
+    /**
+     * 发送短信
+     * <p>
+     * 服务商返回的业务错误以{@link SmsSendResponse#isSuccess()}为false返回, 网络等异常直接抛出.
+     */
+    SmsSendResponse send(SmsSendRequest request);
+}
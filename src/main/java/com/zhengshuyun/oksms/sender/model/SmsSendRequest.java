@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.sender.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class SmsSendRequest {
+    /**
+     * 接收短信的手机号码
+     * 国内号码可不带前缀, 国际/港澳台号码需带国际区号
+     */
+    private List<String> phoneNumbers;
+
+    /**
+     * 短信签名名称
+     */
+    private String signName;
+
+    /**
+     * 短信模板, 阿里云为模板Code, 腾讯云为模板ID
+     */
+    private String templateCode;
+
+    /**
+     * 短信模板变量, 腾讯云按顺序取值, 需使用有序的Map
+     */
+    private Map<String, Object> templateParam;
+
+    /**
+     * 按服务商覆盖短信签名, 键为{@link com.zhengshuyun.oksms.sender.SmsSender#getName()}
+     */
+    private Map<String, String> providerSignNames;
+
+    /**
+     * 按服务商覆盖短信模板, 键为{@link com.zhengshuyun.oksms.sender.SmsSender#getName()}
+     */
+    private Map<String, String> providerTemplateCodes;
+
+    /**
+     * 服务商超时后是否转移到其他服务商重发
+     * 超时的请求可能仍会被下发, 转移后用户可能收到两条短信, 只适合验证码等重复接收可以接受的短信
+     */
+    private boolean timeoutFailoverEnable;
+
+    /**
+     * 获取指定服务商使用的短信签名
+     */
+    public String resolveSignName(String provider) {
+        return providerSignNames == null ? signName : providerSignNames.getOrDefault(provider, signName);
+    }
+
+    /**
+     * 获取指定服务商使用的短信模板
+     */
+    public String resolveTemplateCode(String provider) {
+        return providerTemplateCodes == null ? templateCode : providerTemplateCodes.getOrDefault(provider, templateCode);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        SmsSendRequest that = (SmsSendRequest) object;
+        return Objects.equals(phoneNumbers, that.phoneNumbers) && Objects.equals(signName, that.signName) && Objects.equals(templateCode, that.templateCode) && Objects.equals(templateParam, that.templateParam) && Objects.equals(providerSignNames, that.providerSignNames) && Objects.equals(providerTemplateCodes, that.providerTemplateCodes) && timeoutFailoverEnable == that.timeoutFailoverEnable;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(phoneNumbers, signName, templateCode, templateParam, providerSignNames, providerTemplateCodes, timeoutFailoverEnable);
+    }
+
+    public List<String> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    public void setPhoneNumbers(List<String> phoneNumbers) {
+        this.phoneNumbers = phoneNumbers;
+    }
+
+    public String getSignName() {
+        return signName;
+    }
+
+    public void setSignName(String signName) {
+        this.signName = signName;
+    }
+
+    public String getTemplateCode() {
+        return templateCode;
+    }
+
+    public void setTemplateCode(String templateCode) {
+        this.templateCode = templateCode;
+    }
+
+    public Map<String, Object> getTemplateParam() {
+        return templateParam;
+    }
+
+    public void setTemplateParam(Map<String, Object> templateParam) {
+        this.templateParam = templateParam;
+    }
+
+    public Map<String, String> getProviderSignNames() {
+        return providerSignNames;
+    }
+
+    public void setProviderSignNames(Map<String, String> providerSignNames) {
+        this.providerSignNames = providerSignNames;
+    }
+
+    public Map<String, String> getProviderTemplateCodes() {
+        return providerTemplateCodes;
+    }
+
+    public void setProviderTemplateCodes(Map<String, String> providerTemplateCodes) {
+        this.providerTemplateCodes = providerTemplateCodes;
+    }
+
+    public boolean isTimeoutFailoverEnable() {
+        return timeoutFailoverEnable;
+    }
+
+    public void setTimeoutFailoverEnable(boolean timeoutFailoverEnable) {
+        this.timeoutFailoverEnable = timeoutFailoverEnable;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.sender.model;
+
+import java.util.Objects;
+
+public class SmsSendResponse {
+    /**
+     * 实际发送的服务商
+     */
+    private String provider;
+
+    /**
+     * 是否发送成功
+     */
+    private boolean success;
+
+    /**
+     * 服务商返回的状态码
+     */
+    private String code;
+
+    /**
+     * 服务商返回的描述
+     */
+    private String message;
+
+    /**
+     * 回执ID, 阿里云为BizId, 腾讯云为逗号分隔的SerialNo
+     */
+    private String bizId;
+
+    /**
+     * 请求ID
+     */
+    private String requestId;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        SmsSendResponse that = (SmsSendResponse) object;
+        return success == that.success && Objects.equals(provider, that.provider) && Objects.equals(code, that.code) && Objects.equals(message, that.message) && Objects.equals(bizId, that.bizId) && Objects.equals(requestId, that.requestId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(provider, success, code, message, bizId, requestId);
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getBizId() {
+        return bizId;
+    }
+
+    public void setBizId(String bizId) {
+        this.bizId = bizId;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(String requestId) {
+        this.requestId = requestId;
+    }
+}
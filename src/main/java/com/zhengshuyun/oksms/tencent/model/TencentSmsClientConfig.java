@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.tencent.model;
+
+import java.util.Objects;
+
+public class TencentSmsClientConfig {
+    private String secretId;
+    private String secretKey;
+
+    /**
+     * 地域, 支持的地域列表参考 https://cloud.tencent.com/document/api/382/52071
+     */
+    private String region = "ap-guangzhou";
+
+    private String endpoint = "sms.tencentcloudapi.com";
+
+    /**
+     * 短信应用ID, 在短信控制台添加应用后生成, 示例如1400006666
+     */
+    private String sdkAppId;
+
+    /**
+     * 连接超时时间(秒)
+     */
+    private int connectTimeout = 10;
+
+    /**
+     * 读取超时时间(秒)
+     */
+    private int readTimeout = 10;
+
+    /**
+     * 写入超时时间(秒)
+     */
+    private int writeTimeout = 10;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        TencentSmsClientConfig that = (TencentSmsClientConfig) object;
+        return connectTimeout == that.connectTimeout && readTimeout == that.readTimeout && writeTimeout == that.writeTimeout && Objects.equals(secretId, that.secretId) && Objects.equals(secretKey, that.secretKey) && Objects.equals(region, that.region) && Objects.equals(endpoint, that.endpoint) && Objects.equals(sdkAppId, that.sdkAppId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(secretId, secretKey, region, endpoint, sdkAppId, connectTimeout, readTimeout, writeTimeout);
+    }
+
+    public String getSecretId() {
+        return secretId;
+    }
+
+    public void setSecretId(String secretId) {
+        this.secretId = secretId;
+    }
+
+    public String getSecretKey() {
+        return secretKey;
+    }
+
+    public void setSecretKey(String secretKey) {
+        this.secretKey = secretKey;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getSdkAppId() {
+        return sdkAppId;
+    }
+
+    public void setSdkAppId(String sdkAppId) {
+        this.sdkAppId = sdkAppId;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public int getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(int writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
+}
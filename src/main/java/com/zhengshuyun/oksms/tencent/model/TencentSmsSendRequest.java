@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.tencent.model;
+
+import java.util.List;
+import java.util.Objects;
+
+public class TencentSmsSendRequest {
+    /**
+     * 接收短信的手机号码, 采用 E.164 标准, +[国家或地区码][手机号]
+     * 示例如：+8613711112222
+     * 单次请求上限为 200 个手机号码, 超出时自动拆分为多次请求
+     */
+    private List<String> phoneNumbers;
+
+    /**
+     * 短信签名内容, 必须填写已审核通过的签名
+     * 例如：整数软件
+     */
+    private String signName;
+
+    /**
+     * 模板 ID, 必须填写已审核通过的模板 ID
+     * 示例：449739
+     */
+    private String templateId;
+
+    /**
+     * 模板参数, 个数需要与模板的变量个数保持一致, 若无模板参数则为空
+     */
+    private List<String> templateParams;
+
+    /**
+     * 用户的 session 内容, 服务端会原样返回, 可以为空
+     */
+    private String sessionContext;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        TencentSmsSendRequest that = (TencentSmsSendRequest) object;
+        return Objects.equals(phoneNumbers, that.phoneNumbers) && Objects.equals(signName, that.signName) && Objects.equals(templateId, that.templateId) && Objects.equals(templateParams, that.templateParams) && Objects.equals(sessionContext, that.sessionContext);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(phoneNumbers, signName, templateId, templateParams, sessionContext);
+    }
+
+    public List<String> getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    public void setPhoneNumbers(List<String> phoneNumbers) {
+        this.phoneNumbers = phoneNumbers;
+    }
+
+    public String getSignName() {
+        return signName;
+    }
+
+    public void setSignName(String signName) {
+        this.signName = signName;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public List<String> getTemplateParams() {
+        return templateParams;
+    }
+
+    public void setTemplateParams(List<String> templateParams) {
+        this.templateParams = templateParams;
+    }
+
+    public String getSessionContext() {
+        return sessionContext;
+    }
+
+    public void setSessionContext(String sessionContext) {
+        this.sessionContext = sessionContext;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.tencent.model;
+
+import java.util.List;
+import java.util.Objects;
+
+public class TencentSmsSendResponse {
+    /**
+     * 每次请求的ID, 号码超过单次上限拆分发送时有多个
+     */
+    private List<String> requestIds;
+
+    /**
+     * 每个号码的发送状态
+     */
+    private List<TencentSmsSendStatus> sendStatuses;
+
+    /**
+     * 是否全部号码发送成功
+     */
+    public boolean isAllOk() {
+        if (sendStatuses == null) {
+            return false;
+        }
+        for (TencentSmsSendStatus sendStatus : sendStatuses) {
+            if (!"Ok".equals(sendStatus.getCode())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        TencentSmsSendResponse that = (TencentSmsSendResponse) object;
+        return Objects.equals(requestIds, that.requestIds) && Objects.equals(sendStatuses, that.sendStatuses);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(requestIds, sendStatuses);
+    }
+
+    public List<String> getRequestIds() {
+        return requestIds;
+    }
+
+    public void setRequestIds(List<String> requestIds) {
+        this.requestIds = requestIds;
+    }
+
+    public List<TencentSmsSendStatus> getSendStatuses() {
+        return sendStatuses;
+    }
+
+    public void setSendStatuses(List<TencentSmsSendStatus> sendStatuses) {
+        this.sendStatuses = sendStatuses;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.tencent.model;
+
+import java.util.Objects;
+
+public class TencentSmsSendStatus {
+    /**
+     * 发送流水号
+     */
+    private String serialNo;
+
+    /**
+     * 手机号码, E.164 标准
+     */
+    private String phoneNumber;
+
+    /**
+     * 计费条数
+     */
+    private Long fee;
+
+    /**
+     * 用户 session 内容
+     */
+    private String sessionContext;
+
+    /**
+     * 短信请求错误码, Ok 表示成功
+     */
+    private String code;
+
+    /**
+     * 短信请求错误码描述
+     */
+    private String message;
+
+    /**
+     * 国家码或地区码, 例如 CN
+     */
+    private String isoCode;
+
+    @Override
+    public boolean equals(Object object) {
+        if (object == null || getClass() != object.getClass()) return false;
+        TencentSmsSendStatus that = (TencentSmsSendStatus) object;
+        return Objects.equals(serialNo, that.serialNo) && Objects.equals(phoneNumber, that.phoneNumber) && Objects.equals(fee, that.fee) && Objects.equals(sessionContext, that.sessionContext) && Objects.equals(code, that.code) && Objects.equals(message, that.message) && Objects.equals(isoCode, that.isoCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(serialNo, phoneNumber, fee, sessionContext, code, message, isoCode);
+    }
+
+    public String getSerialNo() {
+        return serialNo;
+    }
+
+    public void setSerialNo(String serialNo) {
+        this.serialNo = serialNo;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+
+    public Long getFee() {
+        return fee;
+    }
+
+    public void setFee(Long fee) {
+        this.fee = fee;
+    }
+
+    public String getSessionContext() {
+        return sessionContext;
+    }
+
+    public void setSessionContext(String sessionContext) {
+        this.sessionContext = sessionContext;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getIsoCode() {
+        return isoCode;
+    }
+
+    public void setIsoCode(String isoCode) {
+        this.isoCode = isoCode;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 客户端缓存
+ * <p>
+ * 以配置对象的{@code equals}/{@code hashCode}为键, 每个配置只创建一个客户端, 空闲超时的客户端会被移除并关闭.
+ * 客户端被移除后按配置重新创建, 创建后在客户端上单独设置的内容不会保留, 此类客户端不会被移除.
+ * 配置对象放入缓存后不应再修改.
+ *
+ * @param <K> 配置类型
+ * @param <C> 客户端类型
+ */
+public class ClientRegistry<K, C extends AutoCloseable> {
+
+    private final ConcurrentHashMap<K, Entry<C>> entries = new ConcurrentHashMap<>();
+
+    private final Function<K, C> factory;
+
+    private final long idleTimeout;
+
+    private final Predicate<C> evictable;
+
+    private volatile ScheduledExecutorService evictor;
+
+    /**
+     * @param factory     客户端构造方法
+     * @param idleTimeout 空闲超时时间(毫秒)
+     */
+    public ClientRegistry(Function<K, C> factory, long idleTimeout) {
+        this(factory, idleTimeout, client -> true);
+    }
+
+    /**
+     * @param factory     客户端构造方法
+     * @param idleTimeout 空闲超时时间(毫秒)
+     * @param evictable   客户端能否在空闲超时后移除, 持有无法从配置重建的设置时应返回false
+     */
+    public ClientRegistry(Function<K, C> factory, long idleTimeout, Predicate<C> evictable) {
+        this.factory = factory;
+        this.idleTimeout = idleTimeout;
+        this.evictable = evictable;
+    }
+
+    /**
+     * 获取客户端, 不存在时创建
+     *
+     * @param config 配置
+     * @return 客户端
+     */
+    public C get(K config) {
+        Entry<C> entry = entries.get(config);
+        if (entry == null) {
+            startEvictor();
+            entry = entries.computeIfAbsent(config, key -> new Entry<>(factory.apply(key)));
+        }
+        entry.lastAccess = System.currentTimeMillis();
+        return entry.client;
+    }
+
+    /**
+     * 当前缓存的客户端数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 移除并关闭空闲超时且可以重建的客户端
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        entries.forEach((config, entry) -> {
+            if (now - entry.lastAccess > idleTimeout && evictable.test(entry.client) && entries.remove(config, entry)) {
+                closeQuietly(entry.client);
+            }
+        });
+    }
+
+    /**
+     * 移除并关闭全部客户端
+     */
+    public void clear() {
+        entries.forEach((config, entry) -> {
+            if (entries.remove(config, entry)) {
+                closeQuietly(entry.client);
+            }
+        });
+    }
+
+    private void startEvictor() {
+        if (evictor != null) {
+            return;
+        }
+        synchronized (this) {
+            if (evictor == null) {
+                ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "oksms-client-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                long period = Math.max(1000, idleTimeout / 2);
+                executor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+                evictor = executor;
+            }
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable client) {
+        try {
+            client.close();
+        } catch (Exception ignored) {
+            // 关闭失败不影响缓存清理
+        }
+    }
+
+    private static final class Entry<C> {
+        private final C client;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Entry(C client) {
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 手机号码规范化
+ * <p>
+ * 将+86、0086、86前缀及无前缀的号码解析为E.164数值(不含+), 逐字符解析, 不使用正则, 不产生中间字符串.
+ * 同一号码的不同写法解析结果相同, 批量号码用基本类型散列集合去重, 避免同一用户在一次请求中被重复计费.
+ */
+public final class PhoneNumberNormalizer {
+
+    /**
+     * 中国大陆国际区号
+     */
+    public static final int CHINA = 86;
+
+    /**
+     * 国内手机号码位数
+     */
+    private static final int NATIONAL_DIGITS = 11;
+
+    private static final long NATIONAL = 100_000_000_000L;
+
+    /**
+     * E.164号码(含国际区号)的位数范围
+     */
+    private static final int MIN_DIGITS = 7;
+
+    private static final int MAX_DIGITS = 15;
+
+    private PhoneNumberNormalizer() {
+    }
+
+    /**
+     * 解析为E.164数值
+     * <p>
+     * 支持的写法:
+     * <ul>
+     * <li>国内号码: 13800000000、8613800000000、+8613800000000、008613800000000</li>
+     * <li>国际/港澳台号码: 85212345678、+85212345678、0085212345678</li>
+     * </ul>
+     * 号码中的空格与连字符被忽略. 国内号码必须为1开头、第二位为3~9的11位手机号码.
+     *
+     * @param phoneNumber 手机号码
+     * @return E.164数值, 如8613800000000
+     * @throws IllegalArgumentException 号码格式错误
+     */
+    public static long parse(CharSequence phoneNumber) {
+        if (phoneNumber == null) {
+            throw new IllegalArgumentException("手机号码不能为空");
+        }
+        int length = phoneNumber.length();
+        int i = 0;
+        while (i < length && isSeparator(phoneNumber.charAt(i))) {
+            i++;
+        }
+        boolean international = false;
+        if (i < length && phoneNumber.charAt(i) == '+') {
+            international = true;
+            i++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int leadingZeros = 0;
+        // 前两位数字, 用于识别国内号码
+        long prefix = 0;
+        for (; i < length; i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == 0 && c == '0') {
+                    // +后不能为0, 无+时仅允许00国际前缀
+                    if (international || ++leadingZeros > 2) {
+                        throw malformed(phoneNumber);
+                    }
+                    continue;
+                }
+                if (++digits > MAX_DIGITS) {
+                    throw malformed(phoneNumber);
+                }
+                value = value * 10 + (c - '0');
+                if (digits == 2) {
+                    prefix = value;
+                }
+            } else if (!isSeparator(c)) {
+                throw malformed(phoneNumber);
+            }
+        }
+        if (leadingZeros == 2) {
+            international = true;
+        } else if (leadingZeros == 1) {
+            throw malformed(phoneNumber);
+        }
+
+        if (!international && prefix / 10 == 1) {
+            // 无前缀且1开头的只能是国内号码
+            if (digits != NATIONAL_DIGITS || !isMobile(value)) {
+                throw malformed(phoneNumber);
+            }
+            return CHINA * NATIONAL + value;
+        }
+        if (prefix == CHINA) {
+            if (digits != NATIONAL_DIGITS + 2 || !isMobile(value % NATIONAL)) {
+                throw malformed(phoneNumber);
+            }
+        } else if (digits < MIN_DIGITS) {
+            throw malformed(phoneNumber);
+        }
+        return value;
+    }
+
+    /**
+     * 是否为国内号码
+     */
+    public static boolean isDomestic(long e164) {
+        return e164 / NATIONAL == CHINA;
+    }
+
+    /**
+     * 格式化为阿里云短信号码格式, 国内号码为11位号码, 国际号码为国际区号+号码
+     */
+    public static String format(long e164) {
+        return Long.toString(isDomestic(e164) ? e164 % NATIONAL : e164);
+    }
+
+    /**
+     * 解析并去重, 保持号码首次出现的顺序
+     *
+     * @param phoneNumbers 手机号码
+     * @return 规范化结果
+     * @throws IllegalArgumentException 存在格式错误的号码
+     */
+    public static Result normalize(Collection<? extends CharSequence> phoneNumbers) {
+        if (phoneNumbers == null || phoneNumbers.isEmpty()) {
+            throw new IllegalArgumentException("手机号码不能为空");
+        }
+        int size = phoneNumbers.size();
+        long[] numbers = new long[size];
+        // 开放寻址散列表, 0表示空位(E.164数值不为0)
+        long[] table = size == 1 ? null : new long[Integer.highestOneBit(size * 2 - 1) << 1];
+        int count = 0;
+        int domestic = 0;
+        for (CharSequence phoneNumber : phoneNumbers) {
+            long number = parse(phoneNumber);
+            if (table != null && !add(table, number)) {
+                continue;
+            }
+            numbers[count++] = number;
+            if (isDomestic(number)) {
+                domestic++;
+            }
+        }
+        return new Result(count == size ? numbers : Arrays.copyOf(numbers, count), domestic, size - count);
+    }
+
+    /**
+     * @return 号码已存在时返回false
+     */
+    private static boolean add(long[] table, long number) {
+        int mask = table.length - 1;
+        int i = (int) ((number * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (table[i] != 0) {
+            if (table[i] == number) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = number;
+        return true;
+    }
+
+    /**
+     * 中国大陆手机号码: 1开头, 第二位为3~9
+     */
+    private static boolean isMobile(long national) {
+        long prefix = national / (NATIONAL / 100);
+        return prefix >= 13 && prefix <= 19;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-';
+    }
+
+    private static IllegalArgumentException malformed(CharSequence phoneNumber) {
+        return new IllegalArgumentException("手机号码格式错误: " + phoneNumber);
+    }
+
+    /**
+     * 规范化结果
+     */
+    public static final class Result {
+
+        private final long[] numbers;
+
+        private final int domestic;
+
+        private final int duplicates;
+
+        private Result(long[] numbers, int domestic, int duplicates) {
+            this.numbers = numbers;
+            this.domestic = domestic;
+            this.duplicates = duplicates;
+        }
+
+        /**
+         * 去重后的号码数
+         */
+        public int size() {
+            return numbers.length;
+        }
+
+        /**
+         * 去除的重复号码数
+         */
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * 去重后的E.164数值, 保持首次出现的顺序
+         */
+        public long[] getNumbers() {
+            return numbers.clone();
+        }
+
+        /**
+         * 国内号码
+         */
+        public long[] getDomestic() {
+            return filter(true, domestic);
+        }
+
+        /**
+         * 国际/港澳台号码
+         */
+        public long[] getInternational() {
+            return filter(false, numbers.length - domestic);
+        }
+
+        /**
+         * 以逗号拼接为阿里云短信号码格式, 直接写入数字, 不生成单个号码的字符串
+         */
+        public String join() {
+            StringBuilder builder = new StringBuilder(numbers.length * (NATIONAL_DIGITS + 1));
+            for (int i = 0; i < numbers.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                long number = numbers[i];
+                builder.append(isDomestic(number) ? number % NATIONAL : number);
+            }
+            return builder.toString();
+        }
+
+        /**
+         * 阿里云短信号码格式的号码列表
+         */
+        public List<String> toList() {
+            List<String> phoneNumbers = new ArrayList<>(numbers.length);
+            for (long number : numbers) {
+                phoneNumbers.add(format(number));
+            }
+            return phoneNumbers;
+        }
+
+        private long[] filter(boolean domestic, int size) {
+            long[] result = new long[size];
+            int count = 0;
+            for (long number : numbers) {
+                if (isDomestic(number) == domestic) {
+                    result[count++] = number;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.util;
+
+import com.zhengshuyun.oktool.core.util.Assert;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 发送执行器
+ * <p>
+ * 默认每次发送使用一个虚拟线程, 并按服务商使用信号量限制同时进行中的请求数, 避免超出服务商的QPS限制.
+ * 通过{@link SmsUtil}构造的客户端共享{@link #getInstance()}.
+ */
+public class SmsExecutor {
+
+    public static final String ALIYUN = "aliyun";
+
+    public static final String TENCENT = "tencent";
+
+    public static final String MAIL = "mail";
+
+    /**
+     * 未单独配置的服务商默认并发数
+     */
+    public static final int DEFAULT_PERMITS = 256;
+
+    private static final SmsExecutor INSTANCE = new SmsExecutor(Executors.newVirtualThreadPerTaskExecutor());
+
+    private final ExecutorService executor;
+
+    private final ConcurrentHashMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor 执行发送的线程池
+     */
+    public SmsExecutor(ExecutorService executor) {
+        Assert.notNull(executor, "线程池不能为空");
+        this.executor = executor;
+    }
+
+    /**
+     * 全局共享执行器
+     */
+    public static SmsExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 设置服务商的最大并发数, 已在进行中的请求不受影响
+     *
+     * @param provider 服务商, 如{@link #ALIYUN}
+     * @param permits  最大并发数
+     */
+    public void setPermits(String provider, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("并发数必须大于0");
+        }
+        this.permits.put(provider, new Semaphore(permits));
+    }
+
+    /**
+     * 提交发送任务
+     * <p>
+     * 任务在执行线程中等待并发许可, 调用方线程不会阻塞. 任务成功或失败都会完成返回的future.
+     * 取消返回的future时中断执行中的任务, 释放并发许可; 已发出的请求仍可能被服务商处理.
+     *
+     * @param provider 服务商
+     * @param task     发送任务
+     * @return 发送结果
+     */
+    public <T> CompletableFuture<T> submit(String provider, Callable<T> task) {
+        Semaphore semaphore = permits.computeIfAbsent(provider, key -> new Semaphore(DEFAULT_PERMITS));
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            Future<?> running = executor.submit(() -> {
+                try {
+                    semaphore.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    semaphore.release();
+                }
+            });
+            future.whenComplete((result, e) -> {
+                if (future.isCancelled()) {
+                    running.cancel(true);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 关闭执行器, 全局共享执行器不应关闭
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
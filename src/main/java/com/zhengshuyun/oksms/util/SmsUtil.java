@@ -19,11 +19,20 @@ package com.zhengshuyun.oksms.util;
 import cn.hutool.v7.core.util.RandomUtil;
 import com.zhengshuyun.oksms.aliyun.AliyunSmsClient;
 import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.dispatch.SmsDispatcher;
 import com.zhengshuyun.oksms.email.MailClient;
 import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.tencent.TencentSmsClient;
+import com.zhengshuyun.oksms.tencent.model.TencentSmsClientConfig;
 
 public class SmsUtil {
 
+    /**
+     * 缓存客户端的空闲超时时间(毫秒)
+     */
+    private static final long CLIENT_IDLE_TIMEOUT = 30 * 60 * 1000;
+
+
     /**
      * 邮箱客户端
      */
@@ -38,6 +47,58 @@ public class SmsUtil {
         return new AliyunSmsClient(config);
     }
 
+    /**
+     * 腾讯云短信客户端
+     */
+    public static TencentSmsClient tencentSms(TencentSmsClientConfig config) {
+        return new TencentSmsClient(config);
+    }
+
+    /**
+     * 邮箱客户端, 相同配置复用同一个客户端
+     * <p>
+     * 配置对象作为缓存键, 传入后不应再修改.
+     */
+    public static MailClient cachedMail(MailClientConfig config) {
+        // 客户端构造时会补全配置, 需在作为缓存键之前完成
+        config.defaultIfEmpty();
+        return MailClients.REGISTRY.get(config);
+    }
+
+    /**
+     * 阿里云短信客户端, 相同配置复用同一个客户端
+     * <p>
+     * 配置对象作为缓存键, 传入后不应再修改. 设置了频率限制、请求去重或重试策略的客户端不会因空闲被移除.
+     */
+    public static AliyunSmsClient cachedAliyunSms(AliyunSmsClientConfig config) {
+        return AliyunSmsClients.REGISTRY.get(config);
+    }
+
+    /**
+     * 腾讯云短信客户端, 相同配置复用同一个客户端
+     * <p>
+     * 配置对象作为缓存键, 传入后不应再修改.
+     */
+    public static TencentSmsClient cachedTencentSms(TencentSmsClientConfig config) {
+        return TencentSmsClients.REGISTRY.get(config);
+    }
+
+    /**
+     * 异步发送执行器, 所有客户端的异步发送共享此执行器
+     * <p>
+     * 可通过{@link SmsExecutor#setPermits(String, int)}按服务商限制并发数.
+     */
+    public static SmsExecutor executor() {
+        return SmsExecutor.getInstance();
+    }
+
+    /**
+     * 分通道发送调度器, 验证码与营销群发分开排队, 互不阻塞
+     */
+    public static SmsDispatcher dispatcher() {
+        return SmsDispatcher.getInstance();
+    }
+
     /**
      * 短信验证码
      */
@@ -51,4 +112,19 @@ public class SmsUtil {
     public static String smsCode6() {
         return String.valueOf(RandomUtil.randomInt(100000, 999999));
     }
+
+    // 各服务商依赖均为可选, 缓存延迟到首次使用时创建, 避免加载未引入依赖的客户端类
+
+    private static final class MailClients {
+        private static final ClientRegistry<MailClientConfig, MailClient> REGISTRY = new ClientRegistry<>(MailClient::new, CLIENT_IDLE_TIMEOUT);
+    }
+
+    private static final class AliyunSmsClients {
+        private static final ClientRegistry<AliyunSmsClientConfig, AliyunSmsClient> REGISTRY = new ClientRegistry<>(AliyunSmsClient::new, CLIENT_IDLE_TIMEOUT,
+                client -> client.getRateLimiter() == null && client.getDeduplicator() == null && client.getRetryPolicy() == null);
+    }
+
+    private static final class TencentSmsClients {
+        private static final ClientRegistry<TencentSmsClientConfig, TencentSmsClient> REGISTRY = new ClientRegistry<>(TencentSmsClient::new, CLIENT_IDLE_TIMEOUT);
+    }
 }
@@ -17,13 +17,20 @@
 package com.zhengshuyun.oksms;
 
 import com.zhengshuyun.oksms.aliyun.AliyunSmsClient;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsBatchRecipient;
 import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendBatchRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendBatchResponse;
 import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
 import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
 import com.zhengshuyun.oksms.email.MailClient;
 import com.zhengshuyun.oksms.email.model.MailClientConfig;
 import com.zhengshuyun.oksms.email.model.MailSendRequest;
 import com.zhengshuyun.oksms.email.model.MailSendResponse;
+import com.zhengshuyun.oksms.tencent.TencentSmsClient;
+import com.zhengshuyun.oksms.tencent.model.TencentSmsClientConfig;
+import com.zhengshuyun.oksms.tencent.model.TencentSmsSendRequest;
+import com.zhengshuyun.oksms.tencent.model.TencentSmsSendResponse;
 import com.zhengshuyun.oksms.util.SmsUtil;
 import com.zhengshuyun.oktool.core.util.JacksonUtil;
 import org.junit.jupiter.api.Disabled;
@@ -33,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class OkSmsTest {
 
@@ -56,6 +64,51 @@ public class OkSmsTest {
         log.info("短信下发结果: {}", JacksonUtil.writeValueAsString(aliyunSmsSendResponse));
     }
 
+    @Test
+    @Disabled
+    void sendAliyunSmsBatch() {
+        AliyunSmsClientConfig aliyunSmsClientConfig = new AliyunSmsClientConfig();
+        aliyunSmsClientConfig.setAccessKeyId("");
+        aliyunSmsClientConfig.setAccessKeySecret("");
+
+        // 超过100个号码时自动拆分发送
+        List<AliyunSmsBatchRecipient> recipients = Stream.of("", "")
+                .map(phoneNumber -> {
+                    AliyunSmsBatchRecipient recipient = new AliyunSmsBatchRecipient();
+                    recipient.setPhoneNumber(phoneNumber);
+                    recipient.setSignName("整数软件");
+                    recipient.setTemplateParam(Map.of("code", SmsUtil.smsCode4()));
+                    return recipient;
+                })
+                .toList();
+
+        AliyunSmsSendBatchRequest aliyunSmsSendBatchRequest = new AliyunSmsSendBatchRequest();
+        aliyunSmsSendBatchRequest.setTemplateCode("SMS_305130820");
+        aliyunSmsSendBatchRequest.setRecipients(recipients);
+
+        AliyunSmsSendBatchResponse aliyunSmsSendBatchResponse = SmsUtil.aliyunSms(aliyunSmsClientConfig).sendBatch(aliyunSmsSendBatchRequest);
+        log.info("短信批量下发结果: {}", JacksonUtil.writeValueAsString(aliyunSmsSendBatchResponse));
+    }
+
+    @Test
+    @Disabled
+    void sendTencentSms() {
+        TencentSmsClientConfig tencentSmsClientConfig = new TencentSmsClientConfig();
+        tencentSmsClientConfig.setSecretId("");
+        tencentSmsClientConfig.setSecretKey("");
+        tencentSmsClientConfig.setSdkAppId("");
+
+        TencentSmsSendRequest tencentSmsSendRequest = new TencentSmsSendRequest();
+        tencentSmsSendRequest.setPhoneNumbers(List.of("+86"));
+        tencentSmsSendRequest.setSignName("整数软件");
+        tencentSmsSendRequest.setTemplateId("");
+        tencentSmsSendRequest.setTemplateParams(List.of(SmsUtil.smsCode4()));
+
+        TencentSmsClient tencentSmsClient = SmsUtil.cachedTencentSms(tencentSmsClientConfig);
+        TencentSmsSendResponse tencentSmsSendResponse = tencentSmsClient.send(tencentSmsSendRequest);
+        log.info("短信下发结果: {}", JacksonUtil.writeValueAsString(tencentSmsSendResponse));
+    }
+
     @Test
     @Disabled
     void sendMail() {
@@ -81,4 +134,31 @@ public class OkSmsTest {
         log.info(JacksonUtil.writeValueAsString(mailSendResponse));
     }
 
+    @Test
+    @Disabled
+    void sendMailBatch() {
+        MailClientConfig mailClientConfig = new MailClientConfig();
+        mailClientConfig.setHost("smtpdm.aliyun.com");
+        mailClientConfig.setPort(465);
+        mailClientConfig.setAuth(true);
+        mailClientConfig.setSslEnable(true);
+        mailClientConfig.setFrom("整数软件<system@mail.toint.cn>");
+        mailClientConfig.setUser("system@mail.toint.cn");
+        mailClientConfig.setPass("".toCharArray());
+
+        List<MailSendRequest> requests = Stream.of("599818663@qq.com", "invalid-address")
+                .map(to -> {
+                    MailSendRequest request = new MailSendRequest();
+                    request.setTos(List.of(to));
+                    request.setSubject("hello world");
+                    request.setContent("hello " + to);
+                    return request;
+                })
+                .toList();
+
+        // 同一连接依次发送, 单封失败不影响其他邮件
+        List<MailSendResponse> responses = SmsUtil.mail(mailClientConfig).sendBatch(requests);
+        log.info(JacksonUtil.writeValueAsString(responses));
+    }
+
 }
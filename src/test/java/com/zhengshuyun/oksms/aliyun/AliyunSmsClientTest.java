@@ -0,0 +1,232 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.aliyun.dysmsapi20170525.Client;
+import com.aliyun.dysmsapi20170525.models.SendSmsRequest;
+import com.aliyun.dysmsapi20170525.models.SendSmsResponse;
+import com.aliyun.dysmsapi20170525.models.SendSmsResponseBody;
+import com.aliyun.teaopenapi.models.Config;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
+import com.zhengshuyun.oksms.breaker.CircuitBreaker;
+import com.zhengshuyun.oksms.breaker.CircuitBreakerOpenException;
+import com.zhengshuyun.oksms.breaker.model.CircuitBreakerConfig;
+import com.zhengshuyun.oksms.util.SmsExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AliyunSmsClientTest {
+
+    private static final String PRIMARY = "primary.example.com";
+
+    private static final String FALLBACK = "fallback.example.com";
+
+    @Test
+    void sendAsyncRejectsBeyondMaxInFlight() throws Exception {
+        AliyunSmsClientConfig config = config();
+        config.setMaxInFlight(1);
+        BlockingClient client = new BlockingClient(config);
+
+        CompletableFuture<AliyunSmsSendResponse> first = client.sendAsync(request());
+        assertTrue(client.started.await(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> client.sendAsync(request()).get());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        client.release.countDown();
+        assertEquals("OK", first.get(5, TimeUnit.SECONDS).getCode());
+        // 完成后归还客户端许可
+        assertEquals("OK", client.sendAsync(request()).get(5, TimeUnit.SECONDS).getCode());
+    }
+
+    @Test
+    void sendAsyncTakesProviderPermit() throws Exception {
+        SmsExecutor.getInstance().setPermits(SmsExecutor.ALIYUN, 1);
+        try {
+            BlockingClient client = new BlockingClient(config());
+            CompletableFuture<AliyunSmsSendResponse> first = client.sendAsync(request());
+            CompletableFuture<AliyunSmsSendResponse> second = client.sendAsync(request());
+            assertTrue(client.started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+
+            // 服务商只有一个许可, 第二个请求排队等待
+            assertEquals(1, client.calls.get());
+            assertFalse(second.isDone());
+            client.release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertEquals(2, client.calls.get());
+        } finally {
+            SmsExecutor.getInstance().setPermits(SmsExecutor.ALIYUN, SmsExecutor.DEFAULT_PERMITS);
+        }
+    }
+
+    @Test
+    void fallsBackToNextEndpointWhenBreakerOpens() {
+        StubEndpoints endpoints = new StubEndpoints(Map.of(PRIMARY, "isp.SYSTEM_ERROR", FALLBACK, "OK"));
+        AliyunSmsClient client = new AliyunSmsClient(breakerConfig(), endpoints);
+
+        // 主域名返回系统错误, 达到阈值后熔断
+        for (int i = 0; i < 2; i++) {
+            assertEquals("isp.SYSTEM_ERROR", client.send(request()).getCode());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreakers().getFirst().getState());
+
+        assertEquals("OK", client.send(request()).getCode());
+        assertEquals(2, endpoints.requests(PRIMARY));
+        assertEquals(1, endpoints.requests(FALLBACK));
+    }
+
+    @Test
+    void failsFastWhenAllEndpointsOpen() {
+        StubEndpoints endpoints = new StubEndpoints(Map.of(PRIMARY, "isp.SYSTEM_ERROR", FALLBACK, "isp.SYSTEM_ERROR"));
+        AliyunSmsClient client = new AliyunSmsClient(breakerConfig(), endpoints);
+        for (int i = 0; i < 4; i++) {
+            client.send(request());
+        }
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> client.send(request()));
+        assertInstanceOf(CircuitBreakerOpenException.class, e.getCause());
+        assertEquals(2, endpoints.requests(PRIMARY));
+        assertEquals(2, endpoints.requests(FALLBACK));
+    }
+
+    @Test
+    void businessErrorsDoNotOpenBreaker() {
+        StubEndpoints endpoints = new StubEndpoints(Map.of(PRIMARY, "isv.MOBILE_NUMBER_ILLEGAL", FALLBACK, "OK"));
+        AliyunSmsClient client = new AliyunSmsClient(breakerConfig(), endpoints);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("isv.MOBILE_NUMBER_ILLEGAL", client.send(request()).getCode());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreakers().getFirst().getState());
+        assertEquals(0, endpoints.requests(FALLBACK));
+    }
+
+    @Test
+    void ignoresFallbackEndpointsWithoutBreaker() {
+        StubEndpoints endpoints = new StubEndpoints(Map.of(PRIMARY, "isp.SYSTEM_ERROR", FALLBACK, "OK"));
+        AliyunSmsClientConfig config = breakerConfig();
+        config.setCircuitBreaker(null);
+        AliyunSmsClient client = new AliyunSmsClient(config, endpoints);
+        for (int i = 0; i < 5; i++) {
+            assertEquals("isp.SYSTEM_ERROR", client.send(request()).getCode());
+        }
+        assertEquals(0, endpoints.requests(FALLBACK));
+    }
+
+    private static AliyunSmsClientConfig breakerConfig() {
+        CircuitBreakerConfig breaker = new CircuitBreakerConfig();
+        breaker.setWindowSize(2);
+        breaker.setMinimumCalls(2);
+        breaker.setOpenDuration(60000);
+
+        AliyunSmsClientConfig config = config();
+        config.setEndpoint(PRIMARY);
+        config.setFallbackEndpoints(List.of(FALLBACK));
+        config.setCircuitBreaker(breaker);
+        return config;
+    }
+
+    private static AliyunSmsClientConfig config() {
+        AliyunSmsClientConfig config = new AliyunSmsClientConfig();
+        config.setAccessKeyId("test");
+        config.setAccessKeySecret("test");
+        return config;
+    }
+
+    private static AliyunSmsSendRequest request() {
+        AliyunSmsSendRequest request = new AliyunSmsSendRequest();
+        request.setPhoneNumbers(List.of("13800000001"));
+        request.setSignName("测试");
+        request.setTemplateCode("SMS_1");
+        return request;
+    }
+
+    /**
+     * 发送在放行前阻塞的客户端
+     */
+    private static final class BlockingClient extends AliyunSmsClient {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private BlockingClient(AliyunSmsClientConfig config) {
+            super(config);
+        }
+
+        @Override
+        public AliyunSmsSendResponse send(AliyunSmsSendRequest request) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            AliyunSmsSendResponse response = new AliyunSmsSendResponse();
+            response.setCode("OK");
+            return response;
+        }
+    }
+
+    /**
+     * 按域名返回固定错误码的Dysms客户端, 不发起HTTP请求
+     */
+    private static final class StubEndpoints implements AliyunSmsClient.ClientFactory {
+        private final Map<String, String> codes;
+        private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+        private StubEndpoints(Map<String, String> codes) {
+            this.codes = codes;
+        }
+
+        private int requests(String endpoint) {
+            return requests.computeIfAbsent(endpoint, key -> new AtomicInteger()).get();
+        }
+
+        @Override
+        public Client create(Config config) throws Exception {
+            String endpoint = config.getEndpoint();
+            AtomicInteger counter = requests.computeIfAbsent(endpoint, key -> new AtomicInteger());
+            return new Client(config) {
+                @Override
+                public SendSmsResponse sendSms(SendSmsRequest request) {
+                    counter.incrementAndGet();
+                    return new SendSmsResponse().setBody(new SendSmsResponseBody()
+                            .setCode(codes.get(endpoint))
+                            .setBizId(endpoint + "-" + counter.get()));
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AliyunSmsCoalescerTest {
+
+    @Test
+    void mergesSameContent() throws Exception {
+        CapturingClient client = new CapturingClient();
+        try (AliyunSmsCoalescer coalescer = new AliyunSmsCoalescer(client, 1000, 2)) {
+            CompletableFuture<AliyunSmsSendResponse> first = coalescer.send(request("13800000001", Map.of("code", "1234")));
+            CompletableFuture<AliyunSmsSendResponse> second = coalescer.send(request("13800000002", Map.of("code", "1234")));
+
+            assertEquals("biz-1", first.get(5, TimeUnit.SECONDS).getBizId());
+            assertEquals("biz-1", second.get(5, TimeUnit.SECONDS).getBizId());
+            assertEquals(1, client.requests.size());
+            assertEquals(List.of("13800000001", "13800000002"), client.requests.getFirst().getPhoneNumbers());
+        }
+    }
+
+    @Test
+    void acceptsNullTemplateParamValues() throws Exception {
+        CapturingClient client = new CapturingClient();
+        Map<String, Object> templateParam = new HashMap<>();
+        templateParam.put("code", "1234");
+        templateParam.put("name", null);
+        try (AliyunSmsCoalescer coalescer = new AliyunSmsCoalescer(client, 1000, 2)) {
+            CompletableFuture<AliyunSmsSendResponse> first = coalescer.send(request("13800000001", templateParam));
+            CompletableFuture<AliyunSmsSendResponse> second = coalescer.send(request("13800000002", new HashMap<>(templateParam)));
+
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+            assertEquals(1, client.requests.size());
+            Map<String, Object> sent = client.requests.getFirst().getTemplateParam();
+            assertEquals("1234", sent.get("code"));
+            assertTrue(sent.containsKey("name"));
+            assertNull(sent.get("name"));
+        }
+    }
+
+    private static AliyunSmsSendRequest request(String phoneNumber, Map<String, Object> templateParam) {
+        AliyunSmsSendRequest request = new AliyunSmsSendRequest();
+        request.setPhoneNumbers(List.of(phoneNumber));
+        request.setSignName("测试");
+        request.setTemplateCode("SMS_1");
+        request.setTemplateParam(templateParam);
+        return request;
+    }
+
+    /**
+     * 记录合并后的请求, 不发起HTTP请求
+     */
+    private static final class CapturingClient extends AliyunSmsClient {
+        private final List<AliyunSmsSendRequest> requests = new CopyOnWriteArrayList<>();
+
+        private CapturingClient() {
+            super(config());
+        }
+
+        private static AliyunSmsClientConfig config() {
+            AliyunSmsClientConfig config = new AliyunSmsClientConfig();
+            config.setAccessKeyId("test");
+            config.setAccessKeySecret("test");
+            return config;
+        }
+
+        @Override
+        public CompletableFuture<AliyunSmsSendResponse> sendAsync(AliyunSmsSendRequest request) {
+            requests.add(request);
+            AliyunSmsSendResponse response = new AliyunSmsSendResponse();
+            response.setCode("OK");
+            response.setBizId("biz-" + requests.size());
+            return CompletableFuture.completedFuture(response);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsRequest;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsResponseBody;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsResponseBody.QuerySendDetailsResponseBodySmsSendDetailDTOs;
+import com.aliyun.dysmsapi20170525.models.QuerySendDetailsResponseBody.QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsReceipt;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsReceiptStatusEnum;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsReceiptTrackerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AliyunSmsReceiptTrackerTest {
+
+    private static final String PHONE = "13800000001";
+
+    private static final String TEMPLATE = "SMS_1";
+
+    private static final long WAITING = 1;
+
+    private static final long FAILED = 2;
+
+    private static final long DELIVERED = 3;
+
+    private static final DateTimeFormatter DETAIL_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final StubClient client = new StubClient();
+
+    @Test
+    void sendsToSamePhoneMatchInOrder() throws Exception {
+        try (AliyunSmsReceiptTracker tracker = tracker(60_000)) {
+            // 两次发送相隔1秒, 交叉配对同样在匹配偏差内, 按时间差就近配对
+            awaitSecondStart();
+            CompletableFuture<AliyunSmsReceipt> first = tracker.track("biz-1", PHONE, TEMPLATE);
+            QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO firstDetail = detail(TEMPLATE, WAITING, 0);
+            client.add(PHONE, firstDetail);
+            Thread.sleep(1000);
+            CompletableFuture<AliyunSmsReceipt> second = tracker.track("biz-2", PHONE, TEMPLATE);
+            client.add(PHONE, detail(TEMPLATE, FAILED, 0));
+            firstDetail.setSendStatus(DELIVERED);
+
+            AliyunSmsReceipt secondReceipt = second.get(10, TimeUnit.SECONDS);
+            AliyunSmsReceipt firstReceipt = first.get(10, TimeUnit.SECONDS);
+            assertEquals(AliyunSmsReceiptStatusEnum.DELIVERED, firstReceipt.getStatus());
+            assertEquals(firstDetail.getSendDate(), firstReceipt.getSendDate());
+            assertEquals(AliyunSmsReceiptStatusEnum.FAILED, secondReceipt.getStatus());
+            assertEquals("biz-2", secondReceipt.getBizId());
+            assertEquals(0, tracker.getOutstanding());
+        }
+    }
+
+    @Test
+    void waitingRecordBlocksEarlierResult() throws Exception {
+        try (AliyunSmsReceiptTracker tracker = tracker(60_000)) {
+            // 同一号码先前已送达但未登记的短信, 与登记的短信同在匹配偏差内
+            client.add(PHONE, detail(TEMPLATE, DELIVERED, 1));
+            CompletableFuture<AliyunSmsReceipt> receipt = tracker.track("biz-1", PHONE, TEMPLATE);
+            QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO waiting = detail(TEMPLATE, WAITING, 0);
+            client.add(PHONE, waiting);
+
+            Thread.sleep(3000);
+            assertFalse(receipt.isDone());
+            assertEquals(1, tracker.getOutstanding());
+
+            waiting.setSendStatus(FAILED);
+            waiting.setErrCode("MK:0001");
+            AliyunSmsReceipt result = receipt.get(10, TimeUnit.SECONDS);
+            assertEquals(AliyunSmsReceiptStatusEnum.FAILED, result.getStatus());
+            assertEquals("MK:0001", result.getErrCode());
+        }
+    }
+
+    @Test
+    void otherTemplateDoesNotMatch() throws Exception {
+        try (AliyunSmsReceiptTracker tracker = tracker(60_000)) {
+            CompletableFuture<AliyunSmsReceipt> receipt = tracker.track("biz-1", PHONE, TEMPLATE);
+            CompletableFuture<AliyunSmsReceipt> anyTemplate = tracker.track("biz-2", "+86 138-0000-0002", null);
+            client.add(PHONE, detail("SMS_2", DELIVERED, 0));
+            client.add("13800000002", detail("SMS_2", DELIVERED, 0));
+
+            AliyunSmsReceipt result = anyTemplate.get(10, TimeUnit.SECONDS);
+            assertEquals(AliyunSmsReceiptStatusEnum.DELIVERED, result.getStatus());
+            assertEquals("13800000002", result.getPhoneNumber());
+            assertNull(result.getTemplateCode());
+            assertFalse(receipt.isDone());
+        }
+    }
+
+    @Test
+    void expiresToUnknown() throws Exception {
+        try (AliyunSmsReceiptTracker tracker = tracker(2000)) {
+            CompletableFuture<AliyunSmsReceipt> receipt = tracker.track("biz-1", PHONE, TEMPLATE);
+            client.add(PHONE, detail(TEMPLATE, WAITING, 0));
+
+            AliyunSmsReceipt result = receipt.get(10, TimeUnit.SECONDS);
+            assertEquals(AliyunSmsReceiptStatusEnum.UNKNOWN, result.getStatus());
+            assertEquals("biz-1", result.getBizId());
+            assertEquals(0, tracker.getOutstanding());
+        }
+    }
+
+    @Test
+    void closeResolvesOutstandingAsUnknown() throws Exception {
+        CompletableFuture<AliyunSmsReceipt> receipt;
+        try (AliyunSmsReceiptTracker tracker = tracker(60_000)) {
+            receipt = tracker.track("biz-1", PHONE, TEMPLATE);
+        }
+        assertEquals(AliyunSmsReceiptStatusEnum.UNKNOWN, receipt.get(1, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void releasedGroupIsReused() throws Exception {
+        try (AliyunSmsReceiptTracker tracker = tracker(60_000)) {
+            CompletableFuture<AliyunSmsReceipt> first = tracker.track("biz-1", PHONE, TEMPLATE);
+            client.add(PHONE, detail(TEMPLATE, DELIVERED, 0));
+            assertEquals(AliyunSmsReceiptStatusEnum.DELIVERED, first.get(10, TimeUnit.SECONDS).getStatus());
+            assertEquals(0, tracker.getOutstanding());
+            int queries = client.queries.get();
+
+            // 分组释放后, 同一号码与其他号码的新登记复用释放的位置, 先前的记录超出匹配偏差后不再参与匹配
+            Thread.sleep(3000);
+            List<CompletableFuture<AliyunSmsReceipt>> receipts = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                String phoneNumber = "1380000000" + i;
+                receipts.add(tracker.track("biz-" + (i + 1), phoneNumber, TEMPLATE));
+                client.add(phoneNumber, detail(TEMPLATE, i == 2 ? FAILED : DELIVERED, 0));
+            }
+            for (int i = 0; i < receipts.size(); i++) {
+                AliyunSmsReceipt receipt = receipts.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals("biz-" + (i + 2), receipt.getBizId());
+                assertEquals(i == 1 ? AliyunSmsReceiptStatusEnum.FAILED : AliyunSmsReceiptStatusEnum.DELIVERED, receipt.getStatus());
+            }
+            assertEquals(0, tracker.getOutstanding());
+            assertFalse(client.queries.get() == queries);
+        }
+    }
+
+    private AliyunSmsReceiptTracker tracker(long maxAge) {
+        AliyunSmsReceiptTrackerConfig config = new AliyunSmsReceiptTrackerConfig();
+        config.setInitialDelay(1000);
+        config.setMaxInterval(1000);
+        config.setMaxAge(maxAge);
+        config.setMatchTolerance(1000);
+        return new AliyunSmsReceiptTracker(client, config);
+    }
+
+    /**
+     * 等到整秒开始处, 登记与发送详情的时间落在同一秒内
+     */
+    private static void awaitSecondStart() throws InterruptedException {
+        while (System.currentTimeMillis() % 1000 > 100) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO detail(String templateCode, long status, int secondsAgo) {
+        QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO detail = new QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO();
+        detail.setTemplateCode(templateCode);
+        detail.setSendStatus(status);
+        detail.setSendDate(LocalDateTime.now(ZoneId.of("Asia/Shanghai")).minusSeconds(secondsAgo).format(DETAIL_DATE));
+        return detail;
+    }
+
+    /**
+     * 按号码返回预置发送详情的客户端
+     */
+    private static final class StubClient extends AliyunSmsClient {
+        private final Map<String, List<QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO>> details = new ConcurrentHashMap<>();
+        private final AtomicInteger queries = new AtomicInteger();
+
+        private StubClient() {
+            super(config());
+        }
+
+        private static AliyunSmsClientConfig config() {
+            AliyunSmsClientConfig config = new AliyunSmsClientConfig();
+            config.setAccessKeyId("test");
+            config.setAccessKeySecret("test");
+            return config;
+        }
+
+        private void add(String phoneNumber, QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO detail) {
+            detail.setPhoneNum(phoneNumber);
+            details.computeIfAbsent(phoneNumber, key -> new CopyOnWriteArrayList<>()).add(detail);
+        }
+
+        @Override
+        QuerySendDetailsResponseBody querySendDetails(QuerySendDetailsRequest request) {
+            queries.incrementAndGet();
+            List<QuerySendDetailsResponseBodySmsSendDetailDTOsSmsSendDetailDTO> list = details.getOrDefault(request.getPhoneNumber(), List.of());
+            return new QuerySendDetailsResponseBody()
+                    .setCode("OK")
+                    .setTotalCount(String.valueOf(list.size()))
+                    .setSmsSendDetailDTOs(new QuerySendDetailsResponseBodySmsSendDetailDTOs().setSmsSendDetailDTO(new ArrayList<>(list)));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.aliyun;
+
+import com.zhengshuyun.oktool.core.util.JacksonUtil;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TemplateParamSerializerTest {
+
+    @Test
+    void escapesLikeJackson() {
+        StringBuilder controls = new StringBuilder();
+        for (char c = 0; c < 0x20; c++) {
+            controls.append(c);
+        }
+        Map<String, Object> templateParam = new LinkedHashMap<>();
+        templateParam.put("controls", controls.toString());
+        templateParam.put("quote", "say \"hi\"");
+        templateParam.put("backslash", "C:\\path\\");
+        templateParam.put("slash", "a/b</script>");
+        templateParam.put("del", "\u007f");
+        templateParam.put("key \"with\"\n escapes", "v");
+        templateParam.put("empty", "");
+        assertParity(templateParam);
+    }
+
+    @Test
+    void keepsNonAsciiLikeJackson() {
+        Map<String, Object> templateParam = new LinkedHashMap<>();
+        templateParam.put("name", "张三");
+        templateParam.put("emoji", "\uD83D\uDE00");
+        templateParam.put("separators", "\u2028\u2029");
+        templateParam.put("latin", "café");
+        templateParam.put("验证码", "1234");
+        assertParity(templateParam);
+    }
+
+    @Test
+    void writesNumbersLikeJackson() {
+        Map<String, Object> templateParam = new LinkedHashMap<>();
+        templateParam.put("int", Integer.MIN_VALUE);
+        templateParam.put("long", Long.MAX_VALUE);
+        templateParam.put("short", (short) -7);
+        templateParam.put("byte", (byte) 8);
+        templateParam.put("big", new BigInteger("123456789012345678901234567890"));
+        templateParam.put("bool", true);
+        templateParam.put("double", 0.1 + 0.2);
+        templateParam.put("doubleWhole", 3.0);
+        templateParam.put("doubleLarge", 1e20);
+        templateParam.put("doubleSmall", 1e-7);
+        templateParam.put("doubleNegativeZero", -0.0);
+        templateParam.put("float", 1.1f);
+        templateParam.put("floatLarge", 3.4e38f);
+        templateParam.put("floatSmall", 1e-7f);
+        assertParity(templateParam);
+    }
+
+    @Test
+    void fallsBackForUnsupportedValues() {
+        Map<String, Object> templateParam = new LinkedHashMap<>();
+        templateParam.put("code", "1234");
+        templateParam.put("missing", null);
+        templateParam.put("nan", Double.NaN);
+        templateParam.put("nested", Map.of("a", 1));
+        templateParam.put("list", List.of("x", "y"));
+        assertParity(templateParam);
+
+        assertParity(new TreeMap<>(Map.of("b", "2", "a", "1")));
+        assertParity(Collections.emptyMap());
+    }
+
+    @Test
+    void cachedInstanceReflectsMutation() {
+        Map<String, Object> templateParam = new LinkedHashMap<>();
+        templateParam.put("code", "1234");
+        // 第二次写入时缓存, 之后命中缓存
+        for (int i = 0; i < 3; i++) {
+            assertParity(templateParam);
+        }
+
+        templateParam.put("code", "5678");
+        assertParity(templateParam);
+        templateParam.put("product", "oksms");
+        assertParity(templateParam);
+        templateParam.remove("code");
+        assertParity(templateParam);
+        templateParam.put("code", null);
+        assertParity(templateParam);
+    }
+
+    @Test
+    void writeAllMatchesJackson() {
+        List<Map<String, Object>> templateParams = new ArrayList<>();
+        templateParams.add(Map.of("code", "1\n2"));
+        templateParams.add(new LinkedHashMap<>(Map.of("amount", 9.5)));
+        assertEquals(JacksonUtil.writeValueAsString(templateParams), TemplateParamSerializer.writeAll(templateParams));
+
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("nested", Map.of("a", 1));
+        templateParams.add(nested);
+        assertEquals(JacksonUtil.writeValueAsString(templateParams), TemplateParamSerializer.writeAll(templateParams));
+    }
+
+    private static void assertParity(Map<String, ?> templateParam) {
+        assertEquals(JacksonUtil.writeValueAsString(templateParam), TemplateParamSerializer.write(templateParam));
+    }
+}
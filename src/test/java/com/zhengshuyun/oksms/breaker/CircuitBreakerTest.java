@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.breaker;
+
+import com.zhengshuyun.oksms.breaker.model.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    void opensAtFailureThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker("test", config(60000));
+        // 未达到最少请求数时不打开
+        for (int i = 0; i < 3; i++) {
+            call(breaker, true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 4次中2次失败, 达到50%
+        call(breaker, false, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void staysClosedBelowThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker("test", config(60000));
+        for (int i = 0; i < 20; i++) {
+            call(breaker, i % 4 == 0, FAST);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensAtSlowCallThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker("test", config(60000));
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false, SLOW);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpensAfterCoolDown() throws InterruptedException {
+        CircuitBreaker breaker = open(config(50));
+        assertFalse(breaker.tryAcquire());
+
+        Thread.sleep(100);
+        // 半开状态只放行halfOpenCalls个试探请求
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void closesAfterSuccessfulTrials() throws InterruptedException {
+        CircuitBreaker breaker = open(config(50));
+        Thread.sleep(100);
+
+        call(breaker, false, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        call(breaker, false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 关闭后重新开始统计
+        for (int i = 0; i < 3; i++) {
+            call(breaker, true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void reopensAfterFailedTrials() throws InterruptedException {
+        CircuitBreaker breaker = open(config(50));
+        Thread.sleep(100);
+
+        call(breaker, true, FAST);
+        call(breaker, false, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    private static CircuitBreaker open(CircuitBreakerConfig config) {
+        CircuitBreaker breaker = new CircuitBreaker("test", config);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failure, long nanos) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(failure, nanos);
+    }
+
+    private static CircuitBreakerConfig config(long openDuration) {
+        CircuitBreakerConfig config = new CircuitBreakerConfig();
+        config.setWindowSize(10);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallDuration(1000);
+        config.setSlowCallRateThreshold(100);
+        config.setOpenDuration(openDuration);
+        config.setHalfOpenCalls(2);
+        return config;
+    }
+}
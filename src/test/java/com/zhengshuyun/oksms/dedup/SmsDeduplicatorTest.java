@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dedup;
+
+import com.zhengshuyun.oksms.dedup.model.SmsDeduplicatorConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmsDeduplicatorTest {
+
+    private static final long WINDOW = 200;
+
+    private static final long FINGERPRINT = SmsDeduplicator.fingerprint("13800000000", "sign", "SMS_1", "{}");
+
+    @Test
+    void fingerprintSeparatesParts() {
+        assertNotEquals(SmsDeduplicator.fingerprint("ab", "c"), SmsDeduplicator.fingerprint("a", "bc"));
+        assertNotEquals(SmsDeduplicator.fingerprint("a", null), SmsDeduplicator.fingerprint(null, "a"));
+        assertEquals(SmsDeduplicator.fingerprint("a", "b"), SmsDeduplicator.fingerprint("a", "b"));
+    }
+
+    @Test
+    void completedRequestIsDuplicate() {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(60000, 0));
+        assertNull(deduplicator.claim(FINGERPRINT));
+        deduplicator.complete(FINGERPRINT, "biz-1");
+        assertEquals("biz-1", deduplicator.claim(FINGERPRINT));
+        assertNull(deduplicator.claim(FINGERPRINT + 1));
+    }
+
+    @Test
+    void cancelAllowsReclaim() {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(60000, 0));
+        assertNull(deduplicator.claim(FINGERPRINT));
+        deduplicator.cancel(FINGERPRINT);
+
+        assertNull(deduplicator.claim(FINGERPRINT));
+        deduplicator.complete(FINGERPRINT, "biz-2");
+        assertEquals("biz-2", deduplicator.claim(FINGERPRINT));
+
+        // 已完成的记录不会被取消
+        deduplicator.cancel(FINGERPRINT);
+        assertEquals("biz-2", deduplicator.claim(FINGERPRINT));
+    }
+
+    @Test
+    void entriesSurviveOneRotation() throws InterruptedException {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(WINDOW, 0));
+        awaitWindowStart();
+        assertNull(deduplicator.claim(FINGERPRINT));
+        deduplicator.complete(FINGERPRINT, "biz-3");
+
+        // 下一个窗口中仍在上一张表内
+        Thread.sleep(WINDOW);
+        assertEquals("biz-3", deduplicator.claim(FINGERPRINT));
+
+        // 再过一个窗口后过期
+        Thread.sleep(WINDOW);
+        assertNull(deduplicator.claim(FINGERPRINT));
+    }
+
+    @Test
+    void entriesExpireAfterSkippedWindows() throws InterruptedException {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(WINDOW, 0));
+        awaitWindowStart();
+        assertNull(deduplicator.claim(FINGERPRINT));
+        deduplicator.complete(FINGERPRINT, "biz-4");
+
+        Thread.sleep(WINDOW * 2);
+        assertNull(deduplicator.claim(FINGERPRINT));
+    }
+
+    @Test
+    void duplicateWaitsForPendingRequest() throws Exception {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(60000, 0));
+        assertNull(deduplicator.claim(FINGERPRINT));
+
+        CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(() -> deduplicator.claim(FINGERPRINT, 5000));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+
+        deduplicator.complete(FINGERPRINT, "biz-5");
+        assertEquals("biz-5", duplicate.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void duplicateReclaimsAfterPendingCancelled() throws Exception {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(60000, 0));
+        assertNull(deduplicator.claim(FINGERPRINT));
+
+        CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(() -> deduplicator.claim(FINGERPRINT, 5000));
+        Thread.sleep(100);
+        deduplicator.cancel(FINGERPRINT);
+
+        // 首次发送失败后, 等待方成为新的发送方
+        assertNull(duplicate.get(5, TimeUnit.SECONDS));
+        deduplicator.complete(FINGERPRINT, "biz-6");
+        assertEquals("biz-6", deduplicator.claim(FINGERPRINT));
+    }
+
+    @Test
+    void pendingTimeoutFromCaller() {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(60000, 0));
+        assertNull(deduplicator.claim(FINGERPRINT));
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> deduplicator.claim(FINGERPRINT, 100));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= 100 && elapsed < 5000, "elapsed " + elapsed);
+    }
+
+    @Test
+    void configuredPendingTimeoutTakesPrecedence() {
+        SmsDeduplicator deduplicator = new SmsDeduplicator(config(60000, 100));
+        assertNull(deduplicator.claim(FINGERPRINT));
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> deduplicator.claim(FINGERPRINT, 60000));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= 100 && elapsed < 5000, "elapsed " + elapsed);
+    }
+
+    private static SmsDeduplicatorConfig config(long window, long pendingTimeout) {
+        SmsDeduplicatorConfig config = new SmsDeduplicatorConfig();
+        config.setWindow(window);
+        config.setMaxEntries(1024);
+        config.setPendingTimeout(pendingTimeout);
+        return config;
+    }
+
+    /**
+     * 等到窗口开始处, 避免测试过程中意外跨过窗口边界
+     */
+    private static void awaitWindowStart() throws InterruptedException {
+        while (System.currentTimeMillis() % WINDOW > WINDOW / 10) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.dispatch;
+
+import com.zhengshuyun.oksms.dispatch.model.SmsDispatcherConfig;
+import com.zhengshuyun.oksms.dispatch.model.SmsLaneConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmsDispatcherTest {
+
+    @Test
+    void dispatchesQueuedLanesByWeight() throws Exception {
+        SmsDispatcher dispatcher = new SmsDispatcher(config(1,
+                new SmsLaneConfig(3, 0, 100), new SmsLaneConfig(1, 0, 100)));
+        try {
+            CountDownLatch gate = new CountDownLatch(1);
+            CompletableFuture<Void> blocker = dispatcher.submit(SmsLane.VERIFICATION, () -> {
+                gate.await();
+                return null;
+            });
+
+            List<SmsLane> started = Collections.synchronizedList(new ArrayList<>());
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                for (SmsLane lane : List.of(SmsLane.TRANSACTIONAL, SmsLane.MARKETING)) {
+                    futures.add(dispatcher.submit(lane, () -> {
+                        started.add(lane);
+                        return null;
+                    }));
+                }
+            }
+            assertEquals(4, dispatcher.getQueueSize(SmsLane.TRANSACTIONAL));
+            assertEquals(4, dispatcher.getQueueSize(SmsLane.MARKETING));
+
+            gate.countDown();
+            blocker.get(5, TimeUnit.SECONDS);
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            // 权重3:1, 前4次调度中交易通知占3次
+            assertEquals(3, Collections.frequency(started.subList(0, 4), SmsLane.TRANSACTIONAL));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void keepsSlotsForVerification() throws Exception {
+        SmsDispatcher dispatcher = new SmsDispatcher(config(2,
+                new SmsLaneConfig(1, 1, 100), new SmsLaneConfig(1, 1, 100)));
+        try {
+            CountDownLatch gate = new CountDownLatch(1);
+            List<CompletableFuture<Void>> blocked = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                blocked.add(dispatcher.submit(SmsLane.MARKETING, () -> {
+                    gate.await();
+                    return null;
+                }));
+            }
+            assertEquals(1, dispatcher.getInFlight(SmsLane.MARKETING));
+            assertEquals(2, dispatcher.getQueueSize(SmsLane.MARKETING));
+
+            // 群发占满自身上限后仍有空闲并发, 验证码立即执行
+            assertEquals("ok", dispatcher.submit(SmsLane.VERIFICATION, () -> "ok").get(5, TimeUnit.SECONDS));
+            assertEquals(1, dispatcher.getInFlight(SmsLane.MARKETING));
+
+            gate.countDown();
+            CompletableFuture.allOf(blocked.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWhenLaneQueueIsFull() throws Exception {
+        SmsDispatcher dispatcher = new SmsDispatcher(config(1,
+                new SmsLaneConfig(1, 0, 1), new SmsLaneConfig(1, 0, 1)));
+        try {
+            CountDownLatch gate = new CountDownLatch(1);
+            CompletableFuture<Void> running = dispatcher.submit(SmsLane.MARKETING, () -> {
+                gate.await();
+                return null;
+            });
+            CompletableFuture<String> queued = dispatcher.submit(SmsLane.MARKETING, () -> "queued");
+            CompletableFuture<String> rejected = dispatcher.submit(SmsLane.MARKETING, () -> "rejected");
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, e.getCause());
+            assertTrue(e.getCause().getMessage().contains("通道排队已满"));
+            assertEquals(1, dispatcher.getQueueSize(SmsLane.MARKETING));
+
+            gate.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static SmsDispatcherConfig config(int maxConcurrency, SmsLaneConfig transactional, SmsLaneConfig marketing) {
+        SmsDispatcherConfig config = new SmsDispatcherConfig();
+        config.setMaxConcurrency(maxConcurrency);
+        config.getLanes().put(SmsLane.TRANSACTIONAL, transactional);
+        config.getLanes().put(SmsLane.MARKETING, marketing);
+        return config;
+    }
+}
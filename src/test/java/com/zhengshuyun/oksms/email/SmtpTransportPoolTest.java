@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.email;
+
+import cn.hutool.v7.extra.mail.MailException;
+import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.email.model.MailSendRequest;
+import com.zhengshuyun.oksms.stub.SmtpStubServer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmtpTransportPoolTest {
+
+    private final SmtpTransportPool pool = SmtpTransportPool.getInstance();
+
+    @Test
+    void sharesTransportForEqualConfigs() throws Exception {
+        try (SmtpStubServer server = new SmtpStubServer()) {
+            int partitions = pool.getPartitions();
+            // 每次创建新的配置对象, 密码数组各不相同
+            MailClient first = new MailClient(config(server));
+            MailClient second = new MailClient(config(server));
+            first.send(request());
+            second.send(request());
+
+            assertEquals(1, server.getConnections());
+            assertEquals(2, server.getMessages());
+            assertEquals(partitions + 1, pool.getPartitions());
+            first.close();
+        }
+    }
+
+    @Test
+    void reusesReturnedTransport() throws Exception {
+        try (SmtpStubServer server = new SmtpStubServer()) {
+            MailClientConfig config = config(server);
+            try (SmtpTransportPool.Lease lease = pool.lease(config)) {
+                assertFalse(lease.isReused());
+            }
+            try (SmtpTransportPool.Lease lease = pool.lease(config)) {
+                assertTrue(lease.isReused());
+            }
+            assertEquals(1, server.getConnections());
+            pool.clear(config);
+        }
+    }
+
+    @Test
+    void recyclesTransportAfterMaxMessages() throws Exception {
+        try (SmtpStubServer server = new SmtpStubServer()) {
+            MailClientConfig config = config(server);
+            config.setTransportMaxMessages(2);
+            MailClient client = new MailClient(config);
+            for (int i = 0; i < 5; i++) {
+                client.send(request());
+            }
+
+            assertEquals(5, server.getMessages());
+            assertEquals(3, server.getConnections());
+            client.close();
+        }
+    }
+
+    @Test
+    void closesExpiredTransport() throws Exception {
+        try (SmtpStubServer server = new SmtpStubServer()) {
+            MailClientConfig config = config(server);
+            config.setTransportIdleTimeout(50);
+            MailClient client = new MailClient(config);
+            client.send(request());
+            Thread.sleep(100);
+            client.send(request());
+
+            assertEquals(2, server.getConnections());
+            client.close();
+        }
+    }
+
+    @Test
+    void timesOutWhenPoolIsExhausted() throws Exception {
+        try (SmtpStubServer server = new SmtpStubServer()) {
+            MailClientConfig config = config(server);
+            config.setTransportPoolMaxSize(1);
+            config.setTransportBorrowTimeout(100);
+            try (SmtpTransportPool.Lease ignored = pool.lease(config)) {
+                long start = System.nanoTime();
+                assertThrows(MailException.class, () -> pool.lease(config));
+                assertTrue(System.nanoTime() - start >= 90_000_000L);
+            }
+            // 归还后可以再次借出
+            try (SmtpTransportPool.Lease lease = pool.lease(config)) {
+                assertTrue(lease.isReused());
+            }
+            pool.clear(config);
+        }
+    }
+
+    private static MailClientConfig config(SmtpStubServer server) {
+        MailClientConfig config = new MailClientConfig();
+        config.setHost("127.0.0.1");
+        config.setPort(server.getPort());
+        config.setAuth(false);
+        config.setFrom("test@localhost");
+        config.setUser("test");
+        config.setPass("secret".toCharArray());
+        return config;
+    }
+
+    private static MailSendRequest request() {
+        MailSendRequest request = new MailSendRequest();
+        request.setTos(List.of("to@localhost"));
+        request.setSubject("test");
+        request.setContent("test");
+        return request;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.load;
+
+import com.zhengshuyun.oksms.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环压测
+ * <p>
+ * 按固定到达率发起请求, 不等待之前的请求完成, 每个请求使用一个虚拟线程.
+ * 延迟从计划发起时间算起, 修正协调遗漏(coordinated omission): 被测系统变慢使请求发起滞后时, 滞后时间同样计入延迟.
+ * 同时记录从实际开始执行算起的服务时间, 两者差距越大说明排队越严重.
+ */
+public class LoadGenerator {
+
+    private final double rate;
+
+    private final Duration duration;
+
+    /**
+     * @param rate     每秒请求数
+     * @param duration 压测时长
+     */
+    public LoadGenerator(double rate, Duration duration) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("到达率必须大于0");
+        }
+        this.rate = rate;
+        this.duration = duration;
+    }
+
+    /**
+     * 执行压测, 等待所有请求完成后返回
+     *
+     * @param task 一次请求, 抛出异常计为失败
+     */
+    public Result run(Callable<?> task) {
+        long interval = (long) (1_000_000_000L / rate);
+        long total = Math.max(1, (long) (rate * duration.toNanos() / 1_000_000_000L));
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long intended = start + i * interval;
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                executor.execute(() -> {
+                    long actual = System.nanoTime();
+                    try {
+                        task.call();
+                    } catch (Exception e) {
+                        errors.increment();
+                    } finally {
+                        long end = System.nanoTime();
+                        latency.record(end - intended);
+                        serviceTime.record(end - actual);
+                    }
+                });
+            }
+        }
+        return new Result(rate, total, errors.sum(), System.nanoTime() - start, latency, serviceTime);
+    }
+
+    /**
+     * 压测结果
+     *
+     * @param rate         目标到达率
+     * @param requests     请求数
+     * @param errors       失败数
+     * @param elapsedNanos 总耗时, 含等待最后的请求完成
+     * @param latency      修正协调遗漏后的延迟
+     * @param serviceTime  服务时间
+     */
+    public record Result(double rate, long requests, long errors, long elapsedNanos,
+                         LatencyHistogram latency, LatencyHistogram serviceTime) {
+
+        /**
+         * 实际吞吐量(每秒完成的请求数)
+         */
+        public double throughput() {
+            return requests * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rate=%.0f/s throughput=%.0f/s requests=%d errors=%d latency(ms) p50=%.2f p99=%.2f p99.9=%.2f max=%.2f service(ms) p50=%.2f p99=%.2f",
+                    rate, throughput(), requests, errors,
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMax()),
+                    millis(serviceTime.getValueAtPercentile(50)), millis(serviceTime.getValueAtPercentile(99)));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
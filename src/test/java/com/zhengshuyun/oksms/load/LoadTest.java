@@ -0,0 +1,152 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.load;
+
+import com.zhengshuyun.oksms.aliyun.AliyunSmsClient;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendResponse;
+import com.zhengshuyun.oksms.email.MailClient;
+import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.email.model.MailSendRequest;
+import com.zhengshuyun.oksms.retry.SmsRetryPolicy;
+import com.zhengshuyun.oksms.retry.model.SmsRetryConfig;
+import com.zhengshuyun.oksms.stub.DysmsStubServer;
+import com.zhengshuyun.oksms.stub.SmtpStubServer;
+import com.zhengshuyun.oksms.stub.StubFaults;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 使用本地桩服务的开环压测, 逐级提高到达率寻找饱和点
+ * <p>
+ * 修正后的延迟随到达率陡增、吞吐量低于到达率时即达到饱和.
+ */
+@Disabled
+public class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final Duration STEP = Duration.ofSeconds(10);
+
+    private static final double[] SMS_RATES = {500, 1000, 2000, 4000, 8000};
+
+    private static final double[] MAIL_RATES = {100, 200, 500, 1000, 2000};
+
+    @Test
+    void aliyunSaturation() throws IOException {
+        StubFaults faults = new StubFaults();
+        faults.setLatency(20);
+        faults.setLatencyJitter(10);
+        try (DysmsStubServer server = new DysmsStubServer(faults)) {
+            AliyunSmsClient client = aliyunClient(server);
+            for (double rate : SMS_RATES) {
+                log.info("aliyun {}", new LoadGenerator(rate, STEP).run(() -> aliyunSend(client)));
+            }
+        }
+    }
+
+    @Test
+    void aliyunFaults() throws IOException {
+        StubFaults faults = new StubFaults();
+        faults.setLatency(20);
+        faults.setLatencyJitter(10);
+        faults.setThrottleRate(0.05);
+        faults.setResetRate(0.01);
+        faults.setSlowReadRate(0.01);
+        try (DysmsStubServer server = new DysmsStubServer(faults)) {
+            AliyunSmsClient client = aliyunClient(server);
+            client.setRetryPolicy(new SmsRetryPolicy(new SmsRetryConfig()));
+            log.info("aliyun faults {}", new LoadGenerator(1000, STEP).run(() -> aliyunSend(client)));
+            log.info("aliyun requests on stub: {}", server.getRequests());
+        }
+    }
+
+    @Test
+    void mailSaturation() throws IOException {
+        StubFaults faults = new StubFaults();
+        faults.setLatency(5);
+        try (SmtpStubServer server = new SmtpStubServer(faults)) {
+            MailClient client = mailClient(server);
+            for (double rate : MAIL_RATES) {
+                log.info("mail {}", new LoadGenerator(rate, STEP).run(() -> client.send(mailRequest())));
+            }
+        }
+    }
+
+    @Test
+    void mailFaults() throws IOException {
+        StubFaults faults = new StubFaults();
+        faults.setLatency(5);
+        faults.setThrottleRate(0.05);
+        faults.setResetRate(0.01);
+        faults.setSlowReadRate(0.01);
+        try (SmtpStubServer server = new SmtpStubServer(faults)) {
+            MailClient client = mailClient(server);
+            log.info("mail faults {}", new LoadGenerator(200, STEP).run(() -> client.send(mailRequest())));
+            log.info("mail connections on stub: {}", server.getConnections());
+        }
+    }
+
+    private static AliyunSmsClient aliyunClient(DysmsStubServer server) {
+        AliyunSmsClientConfig config = new AliyunSmsClientConfig();
+        config.setAccessKeyId("load");
+        config.setAccessKeySecret("load");
+        config.setEndpoint(server.getEndpoint());
+        config.setProtocol("http");
+        config.setReadTimeout(2000);
+        config.setConnectTimeout(1000);
+        return new AliyunSmsClient(config);
+    }
+
+    private static AliyunSmsSendResponse aliyunSend(AliyunSmsClient client) {
+        AliyunSmsSendRequest request = new AliyunSmsSendRequest();
+        request.setPhoneNumbers(List.of("13800000000"));
+        request.setSignName("阿里云短信测试");
+        request.setTemplateCode("SMS_154950909");
+        request.setTemplateParam(Map.of("code", "123456"));
+        AliyunSmsSendResponse response = client.send(request);
+        if (!"OK".equals(response.getCode())) {
+            throw new IllegalStateException(response.getCode());
+        }
+        return response;
+    }
+
+    private static MailClient mailClient(SmtpStubServer server) {
+        MailClientConfig config = new MailClientConfig();
+        config.setHost("127.0.0.1");
+        config.setPort(server.getPort());
+        config.setAuth(false);
+        config.setFrom("load@localhost");
+        return new MailClient(config);
+    }
+
+    private static MailSendRequest mailRequest() {
+        MailSendRequest request = new MailSendRequest();
+        request.setTos(List.of("to@localhost"));
+        request.setSubject("load");
+        request.setContent("load test");
+        return request;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxLogTest {
+
+    /**
+     * 每段可容纳两条20字节的记录
+     */
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void truncatedTailIsDiscarded() throws IOException {
+        long first;
+        long second;
+        long third;
+        try (OutboxLog log = new OutboxLog(directory, 4096)) {
+            first = log.append(bytes("first"));
+            second = log.append(bytes("second"));
+            third = log.append(bytes("third"));
+        }
+        // 模拟写入最后一条记录时崩溃: 内容只写了一部分
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            channel.truncate(third + OutboxLog.HEADER_SIZE + 2);
+        }
+
+        try (OutboxLog log = new OutboxLog(directory, 4096)) {
+            assertEquals(third, log.end());
+            assertArrayEquals(bytes("first"), log.read(first).payload());
+            assertArrayEquals(bytes("second"), log.read(second).payload());
+            // 新记录覆盖残缺的记录
+            assertEquals(third, log.append(bytes("again")));
+        }
+        try (OutboxLog log = new OutboxLog(directory, 4096)) {
+            assertArrayEquals(bytes("again"), log.read(third).payload());
+            assertEquals(third + OutboxLog.HEADER_SIZE + 5, log.end());
+        }
+    }
+
+    @Test
+    void corruptedRecordIsDiscarded() throws IOException {
+        long second;
+        try (OutboxLog log = new OutboxLog(directory, 4096)) {
+            log.append(bytes("first"));
+            second = log.append(bytes("second"));
+        }
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), second + OutboxLog.HEADER_SIZE);
+        }
+        try (OutboxLog log = new OutboxLog(directory, 4096)) {
+            assertEquals(second, log.end());
+        }
+    }
+
+    @Test
+    void recoversAcrossRoll() throws IOException {
+        List<String> written = new ArrayList<>();
+        long end;
+        try (OutboxLog log = new OutboxLog(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 5; i++) {
+                String message = "message-%012d".formatted(i);
+                written.add(message);
+                log.append(bytes(message));
+            }
+            end = log.end();
+        }
+        assertTrue(Files.exists(segment(2)));
+
+        try (OutboxLog log = new OutboxLog(directory, SEGMENT_SIZE)) {
+            assertEquals(end, log.end());
+            assertEquals(written, readAll(log));
+
+            written.add("message-after-reopen");
+            log.append(bytes("message-after-reopen"));
+            assertEquals(written, readAll(log));
+        }
+    }
+
+    @Test
+    void deletesSegmentsBeforeCheckpoint() throws IOException {
+        try (OutboxLog log = new OutboxLog(directory, SEGMENT_SIZE)) {
+            assertEquals(-1, log.readCheckpoint());
+            long offset = 0;
+            for (int i = 0; i < 5; i++) {
+                offset = log.append(bytes("message-%012d".formatted(i)));
+            }
+            log.writeCheckpoint(offset);
+            log.deleteBefore(offset);
+            assertEquals(offset, log.readCheckpoint());
+            assertFalse(Files.exists(segment(0)));
+            assertFalse(Files.exists(segment(1)));
+            assertEquals(2L * SEGMENT_SIZE, log.start());
+        }
+        try (OutboxLog log = new OutboxLog(directory, SEGMENT_SIZE)) {
+            assertEquals(2L * SEGMENT_SIZE, log.start());
+            assertEquals(List.of("message-000000000004"), readAll(log));
+        }
+    }
+
+    @Test
+    void rejectsSecondOpen() throws IOException {
+        try (OutboxLog ignored = new OutboxLog(directory, 4096)) {
+            assertThrows(IllegalStateException.class, () -> new OutboxLog(directory, 4096));
+        }
+        // 关闭后可以重新打开
+        new OutboxLog(directory, 4096).close();
+    }
+
+    private static List<String> readAll(OutboxLog log) {
+        List<String> messages = new ArrayList<>();
+        long offset = log.start();
+        while (offset < log.end()) {
+            OutboxLog.Record record = log.read(offset);
+            // 段结束标记没有内容
+            if (record.payload() != null) {
+                messages.add(new String(record.payload(), StandardCharsets.UTF_8));
+            }
+            offset = record.next();
+        }
+        return messages;
+    }
+
+    private Path segment(long index) {
+        return directory.resolve(String.format("%020d.log", index));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
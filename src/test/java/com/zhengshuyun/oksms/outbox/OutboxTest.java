@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.outbox;
+
+import com.zhengshuyun.oksms.outbox.model.OutboxConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxTest {
+
+    private static final String TOPIC = "test";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void redeliversFromCheckpointAfterReopen() throws InterruptedException {
+        List<String> delivered = new CopyOnWriteArrayList<>();
+
+        // 未启动投递即关闭, 消息保留在日志中
+        try (Outbox outbox = open(delivered)) {
+            outbox.enqueue(TOPIC, "a");
+            outbox.enqueue(TOPIC, "b");
+        }
+        assertEquals(List.of(), delivered);
+
+        try (Outbox outbox = open(delivered)) {
+            outbox.start();
+            await(() -> delivered.size() == 2);
+            await(() -> outbox.getBacklog() == 0);
+        }
+        assertEquals(List.of("a", "b"), delivered);
+
+        // 关闭时保存了进度, 重新打开后只投递新消息
+        delivered.clear();
+        try (Outbox outbox = open(delivered)) {
+            outbox.start();
+            outbox.enqueue(TOPIC, "c");
+            await(() -> delivered.size() == 1);
+            await(() -> outbox.getBacklog() == 0);
+        }
+        assertEquals(List.of("c"), delivered);
+    }
+
+    @Test
+    void failureHandlerExceptionDoesNotPinCheckpoint() throws InterruptedException {
+        OutboxConfig config = config();
+        config.setMaxAttempts(1);
+        try (Outbox outbox = new Outbox(config)) {
+            outbox.register(TOPIC, String.class, message -> {
+                throw new IllegalStateException("handler failed");
+            });
+            outbox.setFailureHandler((topic, payload, e) -> {
+                throw new IllegalStateException("failure handler failed");
+            });
+            outbox.start();
+            outbox.enqueue(TOPIC, "a");
+            outbox.enqueue(TOPIC, "b");
+            await(() -> outbox.getBacklog() == 0);
+        }
+    }
+
+    private Outbox open(List<String> delivered) {
+        Outbox outbox = new Outbox(config());
+        outbox.register(TOPIC, String.class, delivered::add);
+        return outbox;
+    }
+
+    private OutboxConfig config() {
+        OutboxConfig config = new OutboxConfig();
+        config.setDirectory(directory.toString());
+        config.setSegmentSize(4096);
+        config.setWorkers(1);
+        config.setRetryInterval(10);
+        config.setCheckpointInterval(10);
+        return config;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待超时");
+            Thread.sleep(10);
+        }
+    }
+}
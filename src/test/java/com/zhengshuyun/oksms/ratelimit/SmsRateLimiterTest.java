@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.ratelimit;
+
+import com.zhengshuyun.oksms.ratelimit.model.SmsRateLimiterConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmsRateLimiterTest {
+
+    @Test
+    void limitsPerPhone() {
+        SmsRateLimiter limiter = new SmsRateLimiter(config(1, 100));
+        limiter.acquire(List.of("13800000001"), "SMS_1");
+        assertThrows(SmsRateLimitException.class, () -> limiter.acquire(List.of("13800000001"), "SMS_1"));
+
+        // 整个请求被拒绝时已占用的配额归还
+        assertThrows(SmsRateLimitException.class, () -> limiter.acquire(List.of("13800000002", "13800000001"), "SMS_1"));
+        assertDoesNotThrow(() -> limiter.acquire(List.of("13800000002"), "SMS_1"));
+    }
+
+    @Test
+    void keepsLimitedPhonesWhenFull() {
+        SmsRateLimiter limiter = new SmsRateLimiter(config(1, 2));
+        limiter.acquire(List.of("13800000001"), "SMS_1");
+        limiter.acquire(List.of("13800000002"), "SMS_1");
+
+        // 已跟踪的号码均在限制中, 拒绝新号码而不是移除它们
+        assertThrows(SmsRateLimitException.class, () -> limiter.acquire(List.of("13800000003"), "SMS_1"));
+        assertEquals(2, limiter.getPhoneEntries());
+        assertThrows(SmsRateLimitException.class, () -> limiter.acquire(List.of("13800000001"), "SMS_1"));
+        assertThrows(SmsRateLimitException.class, () -> limiter.acquire(List.of("13800000002"), "SMS_1"));
+    }
+
+    @Test
+    void evictsRecoveredPhones() throws InterruptedException {
+        // 每分钟60000条, 配额1毫秒后恢复
+        SmsRateLimiter limiter = new SmsRateLimiter(config(60000, 100));
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire(List.of(String.valueOf(13800000000L + i)), "SMS_1");
+        }
+        Thread.sleep(10);
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire(List.of(String.valueOf(13900000000L + i)), "SMS_1");
+            Thread.sleep(0, 100_000);
+        }
+        assertTrue(limiter.getPhoneEntries() <= 100, "entries " + limiter.getPhoneEntries());
+    }
+
+    @Test
+    void waitsForReservedSlotDespiteWakeups() throws InterruptedException {
+        // 每秒5条, 前5条立即通过, 第6条等待200毫秒
+        SmsRateLimiter limiter = new SmsRateLimiter(accountConfig(5, 1000));
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(List.of(), "SMS_1");
+        }
+
+        long start = System.nanoTime();
+        Thread waiter = Thread.ofPlatform().start(() -> limiter.acquire(List.of(), "SMS_1"));
+        while (waiter.isAlive()) {
+            // 模拟虚假唤醒
+            LockSupport.unpark(waiter);
+            Thread.sleep(5);
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(180));
+    }
+
+    @Test
+    void returnsQuotaWhenInterrupted() {
+        SmsRateLimiter limiter = new SmsRateLimiter(accountConfig(5, 250));
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(List.of(), "SMS_1");
+        }
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(SmsRateLimitException.class, () -> limiter.acquire(List.of(), "SMS_1"));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        // 被中断的请求已归还配额, 下一条只需等待200毫秒, 未超过最大等待时间
+        assertDoesNotThrow(() -> limiter.acquire(List.of(), "SMS_1"));
+    }
+
+    private static SmsRateLimiterConfig accountConfig(double accountQps, long maxDelay) {
+        SmsRateLimiterConfig config = new SmsRateLimiterConfig();
+        config.setAccountQps(accountQps);
+        config.setMaxDelay(maxDelay);
+        config.setPhonePerMinute(0);
+        config.setPhonePerHour(0);
+        config.setPhonePerDay(0);
+        return config;
+    }
+
+    private static SmsRateLimiterConfig config(int phonePerMinute, int maxPhoneEntries) {
+        SmsRateLimiterConfig config = new SmsRateLimiterConfig();
+        config.setPhonePerMinute(phonePerMinute);
+        config.setPhonePerHour(0);
+        config.setPhonePerDay(0);
+        config.setMaxPhoneEntries(maxPhoneEntries);
+        return config;
+    }
+}
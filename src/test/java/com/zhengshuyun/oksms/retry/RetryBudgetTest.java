@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    @Test
+    void withdrawsDepositedRatio() {
+        RetryBudget budget = new RetryBudget(0.5, 0);
+        assertFalse(budget.withdraw());
+
+        budget.deposit();
+        assertFalse(budget.withdraw());
+        budget.deposit();
+        assertTrue(budget.withdraw());
+        assertFalse(budget.withdraw());
+    }
+
+    @Test
+    void capsAccumulatedTokens() {
+        RetryBudget budget = new RetryBudget(1, 0);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        // 最多积累10个令牌
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.withdraw());
+        }
+        assertFalse(budget.withdraw());
+    }
+
+    @Test
+    void refillsReserveEachSecond() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(0, 1);
+        assertTrue(budget.withdraw());
+        // 同一秒内最多补充一次, 跨秒时可能再补充一次
+        budget.withdraw();
+        assertFalse(budget.withdraw());
+
+        Thread.sleep(1100);
+        assertTrue(budget.withdraw());
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.retry;
+
+import com.zhengshuyun.oksms.metrics.LatencyHistogram;
+import com.zhengshuyun.oksms.metrics.MetricsExporter;
+import com.zhengshuyun.oksms.metrics.SmsMetrics;
+import com.zhengshuyun.oksms.retry.model.SmsRetryConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmsRetryPolicyTest {
+
+    private static final Function<Throwable, String> ERROR_CODE = e -> e instanceof ProviderException providerException ? providerException.code : null;
+
+    @Test
+    void classifiesCodesAlongCauseChain() {
+        SmsRetryPolicy policy = new SmsRetryPolicy(config(3));
+
+        assertTrue(policy.isTransient("isp.SYSTEM_ERROR"));
+        assertFalse(policy.isTransient("isv.MOBILE_NUMBER_ILLEGAL"));
+        assertFalse(policy.isTransient((String) null));
+
+        assertTrue(policy.isTransient(new RuntimeException("发送失败", new ProviderException("Throttling.User", null)), ERROR_CODE));
+        assertFalse(policy.isTransient(new RuntimeException("发送失败", new ProviderException("isv.TEMPLATE_MISSING", null)), ERROR_CODE));
+        // 服务商错误码优先于其下的网络异常
+        assertFalse(policy.isTransient(new ProviderException("isv.TEMPLATE_MISSING", new SocketTimeoutException()), ERROR_CODE));
+    }
+
+    @Test
+    void classifiesNetworkErrorsAlongCauseChain() {
+        SmsRetryPolicy policy = new SmsRetryPolicy(config(3));
+
+        assertTrue(policy.isTransient(new RuntimeException(new RuntimeException(new SocketTimeoutException("Read timed out"))), ERROR_CODE));
+        assertTrue(policy.isTransient(new RuntimeException(new SocketException("Connection reset")), ERROR_CODE));
+        assertFalse(policy.isTransient(new RuntimeException(new SocketException("Socket closed")), ERROR_CODE));
+        assertFalse(policy.isTransient(new RuntimeException(new IOException("unexpected end of stream")), ERROR_CODE));
+        assertFalse(policy.isTransient(new IllegalArgumentException("手机号码不能为空"), ERROR_CODE));
+    }
+
+    @Test
+    void stopsAtMaxAttempts() {
+        SmsRetryPolicy policy = new SmsRetryPolicy(config(3));
+        AtomicInteger calls = new AtomicInteger();
+
+        String code = policy.execute("test-attempts", "SMS_1", () -> {
+            calls.incrementAndGet();
+            return "isp.SYSTEM_ERROR";
+        }, Function.identity(), ERROR_CODE);
+        assertEquals("isp.SYSTEM_ERROR", code);
+        assertEquals(3, calls.get());
+
+        calls.set(0);
+        RuntimeException error = new RuntimeException(new SocketTimeoutException());
+        assertSame(error, assertThrows(RuntimeException.class, () -> policy.execute("test-attempts", "SMS_1", () -> {
+            calls.incrementAndGet();
+            throw error;
+        }, Function.identity(), ERROR_CODE)));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void returnsOnPermanentFailureOrSuccess() {
+        SmsRetryPolicy policy = new SmsRetryPolicy(config(3));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("isv.MOBILE_NUMBER_ILLEGAL", policy.execute("test-permanent", "SMS_1", () -> {
+            calls.incrementAndGet();
+            return "isv.MOBILE_NUMBER_ILLEGAL";
+        }, Function.identity(), ERROR_CODE));
+        assertEquals(1, calls.get());
+
+        calls.set(0);
+        assertEquals("OK", policy.execute("test-permanent", "SMS_1",
+                () -> calls.incrementAndGet() < 2 ? "isp.SYSTEM_ERROR" : "OK", Function.identity(), ERROR_CODE));
+        assertEquals(2, calls.get());
+        assertEquals(1, SmsMetrics.getInstance().getRetries("test-permanent"));
+    }
+
+    @Test
+    void stopsWhenBudgetIsExhausted() {
+        SmsRetryConfig config = config(5);
+        config.setBudgetRatio(0);
+        config.setMinRetriesPerSecond(0);
+        SmsRetryPolicy policy = new SmsRetryPolicy(config);
+        AtomicInteger calls = new AtomicInteger();
+
+        policy.execute("test-budget", "SMS_1", () -> {
+            calls.incrementAndGet();
+            return "isp.SYSTEM_ERROR";
+        }, Function.identity(), ERROR_CODE);
+        assertEquals(1, calls.get());
+        assertEquals(1, SmsMetrics.getInstance().getRetryBudgetExhausted("test-budget"));
+
+        Map<String, Long> counters = new ConcurrentHashMap<>();
+        SmsMetrics.getInstance().export(new MetricsExporter() {
+            @Override
+            public void counter(String name, Map<String, String> tags, long value) {
+                if ("test-budget".equals(tags.get("provider"))) {
+                    counters.put(name, value);
+                }
+            }
+
+            @Override
+            public void histogram(String name, Map<String, String> tags, LatencyHistogram histogram) {
+            }
+        });
+        assertEquals(1L, counters.get(SmsMetrics.RETRY_BUDGET_EXHAUSTED));
+    }
+
+    @Test
+    void hedgeTakesFirstNonTransientResult() {
+        SmsRetryPolicy policy = new SmsRetryPolicy(hedgeConfig());
+
+        // 首个请求较慢, 对冲请求先成功
+        assertEquals("OK-2", policy.execute("test-hedge", "SMS_H", calls(
+                () -> sleepThen(500, "OK-1"),
+                () -> "OK-2"), Function.identity(), ERROR_CODE));
+
+        // 对冲请求先返回临时失败, 继续等待首个请求
+        assertEquals("OK-1", policy.execute("test-hedge", "SMS_H", calls(
+                () -> sleepThen(200, "OK-1"),
+                () -> "isp.SYSTEM_ERROR"), Function.identity(), ERROR_CODE));
+        assertEquals(2, SmsMetrics.getInstance().getHedges("test-hedge"));
+    }
+
+    @Test
+    void hedgeReturnsLaterFailureWhenBothFail() {
+        SmsRetryPolicy policy = new SmsRetryPolicy(hedgeConfig());
+
+        assertEquals("Throttling.User", policy.execute("test-hedge-fail", "SMS_H", calls(
+                () -> sleepThen(100, "isp.SYSTEM_ERROR"),
+                () -> sleepThen(300, "Throttling.User")), Function.identity(), ERROR_CODE));
+
+        RuntimeException later = assertThrows(RuntimeException.class, () -> policy.execute("test-hedge-fail", "SMS_H", calls(
+                () -> {
+                    sleepThen(300, null);
+                    throw new RuntimeException("primary");
+                },
+                () -> {
+                    throw new RuntimeException("secondary");
+                }), Function.identity(), ERROR_CODE));
+        assertEquals("primary", later.getMessage());
+    }
+
+    private static SmsRetryConfig config(int maxAttempts) {
+        SmsRetryConfig config = new SmsRetryConfig();
+        config.setMaxAttempts(maxAttempts);
+        config.setBaseDelay(0);
+        config.setMaxDelay(0);
+        config.setBudgetRatio(10);
+        return config;
+    }
+
+    private static SmsRetryConfig hedgeConfig() {
+        SmsRetryConfig config = config(1);
+        config.setHedgeDelay(50);
+        config.setHedgeTemplateCodes(Set.of("SMS_H"));
+        return config;
+    }
+
+    /**
+     * 第一次调用执行primary, 之后执行secondary
+     */
+    private static Supplier<String> calls(Supplier<String> primary, Supplier<String> secondary) {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> calls.incrementAndGet() == 1 ? primary.get() : secondary.get();
+    }
+
+    private static String sleepThen(long millis, String result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    /**
+     * 带服务商错误码的异常
+     */
+    private static final class ProviderException extends RuntimeException {
+        private final String code;
+
+        private ProviderException(String code, Throwable cause) {
+            super(code, cause);
+            this.code = code;
+        }
+    }
+}
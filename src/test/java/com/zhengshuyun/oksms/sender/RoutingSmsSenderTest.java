@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.sender;
+
+import com.zhengshuyun.oksms.sender.model.SmsSendRequest;
+import com.zhengshuyun.oksms.sender.model.SmsSendResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingSmsSenderTest {
+
+    @Test
+    void doesNotFailOverOnTimeoutByDefault() throws InterruptedException {
+        SlowSender slow = new SlowSender("slow");
+        StubSender other = new StubSender("other", "OK", true);
+        RoutingSmsSender sender = new RoutingSmsSender(List.of(slow, other));
+        sender.setAttemptTimeout(50);
+
+        int timeouts = 0;
+        int successes = 0;
+        for (int i = 0; i < 20; i++) {
+            try {
+                sender.send(new SmsSendRequest());
+                successes++;
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().contains("超时"));
+                timeouts++;
+            }
+        }
+        // 首选服务商超时时直接失败, 其他服务商只处理自己被首选的请求
+        assertTrue(timeouts > 0);
+        assertEquals(successes, other.calls.get());
+        // 超时的请求被中断
+        assertTrue(slow.interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failsOverOnTimeoutWhenEnabled() {
+        SlowSender slow = new SlowSender("slow");
+        RoutingSmsSender sender = new RoutingSmsSender(List.of(slow, new StubSender("other", "OK", true)));
+        sender.setAttemptTimeout(50);
+        SmsSendRequest request = new SmsSendRequest();
+        request.setTimeoutFailoverEnable(true);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("other", sender.send(request).getProvider());
+        }
+    }
+
+    @Test
+    void countsTransientResponseCodesAsErrors() {
+        RoutingSmsSender sender = new RoutingSmsSender(List.of(
+                new StubSender("aliyun", "isp.SYSTEM_ERROR", false),
+                new StubSender("tencent", "InternalError.Timeout", false),
+                new StubSender("invalid", "isv.MOBILE_NUMBER_ILLEGAL", false)));
+        for (int i = 0; i < 100; i++) {
+            sender.send(new SmsSendRequest());
+        }
+
+        assertTrue(sender.getErrorRate("aliyun") > 0);
+        assertTrue(sender.getErrorRate("tencent") > 0);
+        // 业务错误不说明服务商不健康
+        assertEquals(0, sender.getErrorRate("invalid"));
+    }
+
+    private static final class StubSender implements SmsSender {
+        private final String name;
+        private final String code;
+        private final boolean success;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private StubSender(String name, String code, boolean success) {
+            this.name = name;
+            this.code = code;
+            this.success = success;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public SmsSendResponse send(SmsSendRequest request) {
+            calls.incrementAndGet();
+            SmsSendResponse response = new SmsSendResponse();
+            response.setProvider(name);
+            response.setSuccess(success);
+            response.setCode(code);
+            return response;
+        }
+    }
+
+    /**
+     * 直到被中断才返回的服务商
+     */
+    private static final class SlowSender implements SmsSender {
+        private final String name;
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        private SlowSender(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public SmsSendResponse send(SmsSendRequest request) {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException("超时");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.stub;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地Dysms接口桩
+ * <p>
+ * 对任意请求返回SendSms/SendBatchSms格式的响应, 客户端以http协议、{@code 127.0.0.1:端口}作为endpoint访问.
+ * 实现支持keep-alive的最小HTTP/1.1服务, 每个连接使用一个平台线程处理, 不与被测客户端的虚拟线程争用载体线程, 并按{@link StubFaults}注入延迟、限流、连接重置与慢读.
+ */
+public class DysmsStubServer implements AutoCloseable {
+
+    /**
+     * 慢读时响应分成的段数
+     */
+    private static final int SLOW_READ_PIECES = 8;
+
+    private final ServerSocket serverSocket;
+
+    private final StubFaults faults;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    public DysmsStubServer() throws IOException {
+        this(new StubFaults());
+    }
+
+    public DysmsStubServer(StubFaults faults) throws IOException {
+        this.faults = faults;
+        serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        Thread.ofPlatform().daemon().name("dysms-stub-acceptor").start(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 带端口的endpoint
+     */
+    public String getEndpoint() {
+        return "127.0.0.1:" + getPort();
+    }
+
+    /**
+     * 已接收的请求数
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public StubFaults getFaults() {
+        return faults;
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread.ofPlatform().daemon().name("dysms-stub-session").start(() -> session(socket));
+            } catch (IOException e) {
+                // 服务已关闭
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = socket.getOutputStream()) {
+            String requestLine;
+            while ((requestLine = readLine(in)) != null) {
+                if (requestLine.isEmpty()) {
+                    continue;
+                }
+                long contentLength = 0;
+                boolean chunked = false;
+                boolean close = requestLine.endsWith("HTTP/1.0");
+                String header;
+                while ((header = readLine(in)) != null && !header.isEmpty()) {
+                    String name = header.substring(0, Math.max(0, header.indexOf(':'))).trim().toLowerCase();
+                    String value = header.substring(header.indexOf(':') + 1).trim();
+                    switch (name) {
+                        case "content-length" -> contentLength = Long.parseLong(value);
+                        case "transfer-encoding" -> chunked = value.equalsIgnoreCase("chunked");
+                        case "connection" -> close = value.equalsIgnoreCase("close");
+                        default -> {
+                        }
+                    }
+                }
+                if (chunked) {
+                    skipChunked(in);
+                } else {
+                    in.skipNBytes(contentLength);
+                }
+                long id = requests.incrementAndGet();
+
+                if (faults.nextReset()) {
+                    // SO_LINGER为0时关闭连接发送RST
+                    socket.setSoLinger(true, 0);
+                    return;
+                }
+                sleep(faults.nextLatency());
+                respond(out, id);
+                if (close) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // 客户端断开
+        }
+    }
+
+    private void respond(OutputStream out, long id) throws IOException {
+        int status = 200;
+        String body;
+        if (faults.nextThrottle()) {
+            String code = faults.getThrottleCode();
+            status = code.startsWith("Throttling") ? 400 : 200;
+            body = "{\"Code\":\"" + code + "\",\"Message\":\"Request was denied due to flow control.\",\"RequestId\":\"stub-" + id + "\"}";
+        } else {
+            body = "{\"Code\":\"OK\",\"Message\":\"OK\",\"BizId\":\"" + id + "^0\",\"RequestId\":\"stub-" + id + "\"}";
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream response = new ByteArrayOutputStream(bytes.length + 128);
+        response.writeBytes(("HTTP/1.1 " + status + (status == 200 ? " OK" : " Bad Request") + "\r\n"
+                + "Content-Type: application/json;charset=utf-8\r\n"
+                + "Content-Length: " + bytes.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        response.writeBytes(bytes);
+        byte[] raw = response.toByteArray();
+
+        if (faults.nextSlowRead()) {
+            long pause = faults.getSlowReadDelay() / SLOW_READ_PIECES;
+            int piece = (raw.length + SLOW_READ_PIECES - 1) / SLOW_READ_PIECES;
+            for (int offset = 0; offset < raw.length; offset += piece) {
+                out.write(raw, offset, Math.min(piece, raw.length - offset));
+                out.flush();
+                sleep(pause);
+            }
+        } else {
+            out.write(raw);
+            out.flush();
+        }
+    }
+
+    private static void skipChunked(InputStream in) throws IOException {
+        String size;
+        while ((size = readLine(in)) != null) {
+            int extension = size.indexOf(';');
+            long length = Long.parseLong((extension >= 0 ? size.substring(0, extension) : size).trim(), 16);
+            if (length == 0) {
+                // 跳过trailer
+                String trailer;
+                while ((trailer = readLine(in)) != null && !trailer.isEmpty()) {
+                    // 忽略
+                }
+                return;
+            }
+            in.skipNBytes(length);
+            readLine(in);
+        }
+    }
+
+    /**
+     * 读取以CRLF结尾的一行, 连接关闭时返回null
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = line.length();
+                return length > 0 && line.charAt(length - 1) == '\r' ? line.substring(0, length - 1) : line.toString();
+            }
+            line.append((char) b);
+        }
+        return line.isEmpty() ? null : line.toString();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // 忽略
+        }
+    }
+}
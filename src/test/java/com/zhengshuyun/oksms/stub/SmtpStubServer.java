@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.stub;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 本地SMTP接收桩
+ * <p>
+ * 实现无认证发送所需的最小SMTP会话, 丢弃收到的邮件内容. 每个连接使用一个平台线程处理, 不与被测客户端的虚拟线程争用载体线程.
+ * 按{@link StubFaults}注入延迟、限流(451)、连接重置与慢读.
+ */
+public class SmtpStubServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final AtomicLong messages = new AtomicLong();
+
+    private final AtomicLong connections = new AtomicLong();
+
+    private final StubFaults faults;
+
+    public SmtpStubServer() throws IOException {
+        this(new StubFaults());
+    }
+
+    public SmtpStubServer(StubFaults faults) throws IOException {
+        this.faults = faults;
+        serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        Thread.ofPlatform().daemon().name("smtp-stub-acceptor").start(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 已接收的邮件数
+     */
+    public long getMessages() {
+        return messages.get();
+    }
+
+    /**
+     * 已建立的连接数
+     */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    public StubFaults getFaults() {
+        return faults;
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread.ofPlatform().daemon().name("smtp-stub-session").start(() -> session(socket));
+            } catch (IOException e) {
+                // 服务已关闭
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost SMTP stub");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        if (faults.nextSlowRead()) {
+                            // 暂停读取, 大邮件会填满发送缓冲区
+                            sleep(faults.getSlowReadDelay());
+                        }
+                        while ((line = in.readLine()) != null && !".".equals(line)) {
+                            // 丢弃邮件内容
+                        }
+                        if (faults.nextReset()) {
+                            // SO_LINGER为0时关闭连接发送RST
+                            socket.setSoLinger(true, 0);
+                            return;
+                        }
+                        sleep(faults.nextLatency());
+                        if (faults.nextThrottle()) {
+                            reply(out, "451 4.7.1 Rate limit exceeded, try again later");
+                        } else {
+                            messages.incrementAndGet();
+                            reply(out, "250 OK queued");
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // 客户端断开
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
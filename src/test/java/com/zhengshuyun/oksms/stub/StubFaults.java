@@ -0,0 +1,141 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.stub;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 桩服务的故障注入配置
+ * <p>
+ * 字段均为volatile, 压测过程中可随时调整. 各比例为0到1之间的概率, 按请求独立抽样.
+ */
+public class StubFaults {
+    /**
+     * 固定延迟(毫秒)
+     */
+    private volatile long latency;
+
+    /**
+     * 在固定延迟上叠加的随机延迟上限(毫秒)
+     */
+    private volatile long latencyJitter;
+
+    /**
+     * 返回限流错误的比例
+     */
+    private volatile double throttleRate;
+
+    /**
+     * Dysms桩返回的限流错误码, Throttling.*以HTTP 400返回, 其余以HTTP 200返回
+     */
+    private volatile String throttleCode = "Throttling.User";
+
+    /**
+     * 直接重置连接(RST)的比例
+     */
+    private volatile double resetRate;
+
+    /**
+     * 慢读的比例: Dysms桩分段缓慢写出响应, SMTP桩延迟读取邮件内容
+     */
+    private volatile double slowReadRate;
+
+    /**
+     * 慢读额外耗费的时间(毫秒)
+     */
+    private volatile long slowReadDelay = 1000;
+
+    /**
+     * 本次请求的延迟(毫秒)
+     */
+    long nextLatency() {
+        long jitter = latencyJitter;
+        return latency + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+    }
+
+    boolean nextThrottle() {
+        return sample(throttleRate);
+    }
+
+    boolean nextReset() {
+        return sample(resetRate);
+    }
+
+    boolean nextSlowRead() {
+        return sample(slowReadRate);
+    }
+
+    private static boolean sample(double rate) {
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    public long getLatencyJitter() {
+        return latencyJitter;
+    }
+
+    public void setLatencyJitter(long latencyJitter) {
+        this.latencyJitter = latencyJitter;
+    }
+
+    public double getThrottleRate() {
+        return throttleRate;
+    }
+
+    public void setThrottleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+    }
+
+    public String getThrottleCode() {
+        return throttleCode;
+    }
+
+    public void setThrottleCode(String throttleCode) {
+        this.throttleCode = throttleCode;
+    }
+
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    public void setResetRate(double resetRate) {
+        this.resetRate = resetRate;
+    }
+
+    public double getSlowReadRate() {
+        return slowReadRate;
+    }
+
+    public void setSlowReadRate(double slowReadRate) {
+        this.slowReadRate = slowReadRate;
+    }
+
+    public long getSlowReadDelay() {
+        return slowReadDelay;
+    }
+
+    public void setSlowReadDelay(long slowReadDelay) {
+        this.slowReadDelay = slowReadDelay;
+    }
+}
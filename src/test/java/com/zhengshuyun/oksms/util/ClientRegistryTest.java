@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientRegistryTest {
+
+    @Test
+    void evictsIdleClients() throws InterruptedException {
+        ClientRegistry<String, Client> registry = new ClientRegistry<>(key -> new Client(), 1);
+        Client client = registry.get("a");
+        Thread.sleep(10);
+        registry.evictIdle();
+
+        assertTrue(client.closed);
+        assertEquals(0, registry.size());
+        assertNotSame(client, registry.get("a"));
+    }
+
+    @Test
+    void keepsClientsThatCannotBeRebuilt() throws InterruptedException {
+        ClientRegistry<String, Client> registry = new ClientRegistry<>(key -> new Client(), 1, client -> !client.customized);
+        Client client = registry.get("a");
+        client.customized = true;
+        Thread.sleep(10);
+        registry.evictIdle();
+
+        assertFalse(client.closed);
+        assertSame(client, registry.get("a"));
+    }
+
+    private static final class Client implements AutoCloseable {
+        private volatile boolean customized;
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
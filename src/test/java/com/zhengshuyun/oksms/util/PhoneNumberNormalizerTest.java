@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhoneNumberNormalizerTest {
+
+    private static final long MOBILE = 8613800000000L;
+
+    @Test
+    void parsesDomesticForms() {
+        for (String phoneNumber : List.of("13800000000", "8613800000000", "+8613800000000", "008613800000000",
+                "+86 138-0000-0000", " 138 0000 0000 ", "0086-13800000000")) {
+            assertEquals(MOBILE, PhoneNumberNormalizer.parse(phoneNumber), phoneNumber);
+        }
+        assertTrue(PhoneNumberNormalizer.isDomestic(MOBILE));
+        assertEquals("13800000000", PhoneNumberNormalizer.format(MOBILE));
+    }
+
+    @Test
+    void parsesInternationalForms() {
+        for (String phoneNumber : List.of("85212345678", "+85212345678", "0085212345678", "+852 1234-5678")) {
+            assertEquals(85212345678L, PhoneNumberNormalizer.parse(phoneNumber), phoneNumber);
+        }
+        assertEquals(12025550123L, PhoneNumberNormalizer.parse("+12025550123"));
+        assertEquals(12025550123L, PhoneNumberNormalizer.parse("0012025550123"));
+        assertFalse(PhoneNumberNormalizer.isDomestic(12025550123L));
+        assertEquals("12025550123", PhoneNumberNormalizer.format(12025550123L));
+        assertEquals(447911123456L, PhoneNumberNormalizer.parse("+44 7911 123456"));
+    }
+
+    @Test
+    void bareLeadingOneIsDomestic() {
+        // 无前缀且1开头的号码按国内手机号码校验, +1号码必须带前缀
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumberNormalizer.parse("12025550123"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumberNormalizer.parse("1380000000"));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumberNormalizer.parse("138000000000"));
+        assertEquals(8619912345678L, PhoneNumberNormalizer.parse("19912345678"));
+    }
+
+    @Test
+    void rejectsMalformed() {
+        for (String phoneNumber : List.of(
+                // 单个前导0、三个0、+后为0
+                "013800000000", "000861380000000", "+0123456789",
+                // 超过15位
+                "+1234567890123456", "1234567890123456",
+                // 国内号码位数或号段错误
+                "+8612800000000", "+86138000000", "86138000000000",
+                // 非法字符与空号码
+                "138x0000000", "(138)00000000", "", " ", "+", "+-",
+                // 过短
+                "+123456")) {
+            assertThrows(IllegalArgumentException.class, () -> PhoneNumberNormalizer.parse(phoneNumber), phoneNumber);
+        }
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumberNormalizer.parse(null));
+    }
+
+    @Test
+    void normalizeDeduplicatesInFirstSeenOrder() {
+        PhoneNumberNormalizer.Result result = PhoneNumberNormalizer.normalize(List.of(
+                "+85212345678", "13800000000", "+8613800000000", "13900000000", "0085212345678",
+                "008613900000000", "+12025550123"));
+
+        assertEquals(4, result.size());
+        assertEquals(3, result.getDuplicates());
+        assertArrayEquals(new long[]{85212345678L, 8613800000000L, 8613900000000L, 12025550123L}, result.getNumbers());
+        assertArrayEquals(new long[]{8613800000000L, 8613900000000L}, result.getDomestic());
+        assertArrayEquals(new long[]{85212345678L, 12025550123L}, result.getInternational());
+        assertEquals("85212345678,13800000000,13900000000,12025550123", result.join());
+        assertEquals(List.of("85212345678", "13800000000", "13900000000", "12025550123"), result.toList());
+    }
+
+    @Test
+    void normalizeLargeList() {
+        List<String> phoneNumbers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String phoneNumber = String.valueOf(13800000000L + i % 400);
+            phoneNumbers.add(i % 2 == 0 ? phoneNumber : "+86" + phoneNumber);
+        }
+        PhoneNumberNormalizer.Result result = PhoneNumberNormalizer.normalize(phoneNumbers);
+        assertEquals(400, result.size());
+        assertEquals(600, result.getDuplicates());
+        for (int i = 0; i < 400; i++) {
+            assertEquals(8613800000000L + i, result.getNumbers()[i]);
+        }
+    }
+
+    @Test
+    void normalizeSingleAndEmpty() {
+        PhoneNumberNormalizer.Result result = PhoneNumberNormalizer.normalize(List.of("+8613800000000"));
+        assertEquals("13800000000", result.join());
+        assertEquals(0, result.getDuplicates());
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumberNormalizer.normalize(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> PhoneNumberNormalizer.normalize(List.of("13800000000", "bad")));
+    }
+}
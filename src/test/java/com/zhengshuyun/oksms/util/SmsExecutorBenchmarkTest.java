@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Toint (599818663@qq.com)
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.zhengshuyun.oksms.util;
+
+import com.zhengshuyun.oksms.aliyun.AliyunSmsClient;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsClientConfig;
+import com.zhengshuyun.oksms.aliyun.model.AliyunSmsSendRequest;
+import com.zhengshuyun.oksms.email.MailClient;
+import com.zhengshuyun.oksms.email.model.MailClientConfig;
+import com.zhengshuyun.oksms.email.model.MailSendRequest;
+import com.zhengshuyun.oksms.stub.DysmsStubServer;
+import com.zhengshuyun.oksms.stub.SmtpStubServer;
+import com.zhengshuyun.oksms.stub.StubFaults;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟线程执行器与固定平台线程池的对比
+ * <p>
+ * 通过真实的{@link AliyunSmsClient}与{@link MailClient}发送到本地桩服务, 包含SDK签名、HTTP与SMTP往返,
+ * 桩服务每次请求延迟{@link #STUB_LATENCY}毫秒模拟服务商响应时间. 结果与机器、JDK版本相关, 仅用于本地对比.
+ */
+@Disabled
+public class SmsExecutorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SmsExecutorBenchmarkTest.class);
+
+    private static final long STUB_LATENCY = 50;
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Test
+    void aliyunVirtualThreads() throws IOException {
+        aliyun("virtual", new SmsExecutor(Executors.newVirtualThreadPerTaskExecutor()));
+    }
+
+    @Test
+    void aliyunPlatformThreads() throws IOException {
+        aliyun("platform", new SmsExecutor(Executors.newFixedThreadPool(PLATFORM_THREADS)));
+    }
+
+    @Test
+    void mailVirtualThreads() throws IOException {
+        mail("virtual", new SmsExecutor(Executors.newVirtualThreadPerTaskExecutor()));
+    }
+
+    @Test
+    void mailPlatformThreads() throws IOException {
+        mail("platform", new SmsExecutor(Executors.newFixedThreadPool(PLATFORM_THREADS)));
+    }
+
+    private void aliyun(String name, SmsExecutor executor) throws IOException {
+        try (DysmsStubServer server = new DysmsStubServer(faults())) {
+            AliyunSmsClientConfig config = new AliyunSmsClientConfig();
+            config.setAccessKeyId("benchmark");
+            config.setAccessKeySecret("benchmark");
+            config.setEndpoint(server.getEndpoint());
+            config.setProtocol("http");
+            AliyunSmsClient client = new AliyunSmsClient(config);
+
+            AliyunSmsSendRequest request = new AliyunSmsSendRequest();
+            request.setPhoneNumbers(List.of("13800000000"));
+            request.setSignName("阿里云短信测试");
+            request.setTemplateCode("SMS_154950909");
+            request.setTemplateParam(Map.of("code", "123456"));
+            for (int sends : new int[]{1000, 10000}) {
+                run("aliyun " + name, executor, SmsExecutor.ALIYUN, sends, () -> client.send(request));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void mail(String name, SmsExecutor executor) throws IOException {
+        try (SmtpStubServer server = new SmtpStubServer(faults())) {
+            MailClientConfig config = new MailClientConfig();
+            config.setHost("127.0.0.1");
+            config.setPort(server.getPort());
+            config.setAuth(false);
+            config.setFrom("benchmark@localhost");
+            config.setTransportPoolMaxSize(PLATFORM_THREADS);
+            MailClient client = new MailClient(config);
+
+            MailSendRequest request = new MailSendRequest();
+            request.setTos(List.of("to@localhost"));
+            request.setSubject("benchmark");
+            request.setContent("benchmark");
+            run("mail " + name, executor, SmsExecutor.MAIL, 1000, () -> client.send(request));
+            client.close();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void run(String name, SmsExecutor executor, String provider, int sends, Callable<?> send) {
+        executor.setPermits(provider, sends);
+        // 预热
+        submitAll(executor, provider, Math.min(sends, 500), send);
+
+        long start = System.nanoTime();
+        submitAll(executor, provider, sends, send);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("{} x {}: {} ms, {} sends/s", name, sends, elapsedMillis, sends * 1000L / Math.max(1, elapsedMillis));
+    }
+
+    private void submitAll(SmsExecutor executor, String provider, int sends, Callable<?> send) {
+        List<CompletableFuture<?>> futures = new ArrayList<>(sends);
+        for (int i = 0; i < sends; i++) {
+            futures.add(executor.submit(provider, send));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static StubFaults faults() {
+        StubFaults faults = new StubFaults();
+        faults.setLatency(STUB_LATENCY);
+        return faults;
+    }
+}